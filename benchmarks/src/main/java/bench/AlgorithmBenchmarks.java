@@ -0,0 +1,94 @@
+package bench;
+
+import dagsp.DagShortestPath;
+import graph.CsrGraph;
+import metrics.PerformanceTracker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import pipeline.Pipeline;
+import pipeline.PipelineResult;
+import scc.CondensationBuilder;
+import scc.KosarajuAlgorithm;
+import scc.SccResult;
+import topo.KahnsAlgorithm;
+import topo.TopologicalLevels;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Each pipeline stage on its own. The algorithms get the disabled tracker so the numbers
+ * measure the algorithm rather than the instrumentation; {@link #kosarajuTracked} shows what
+ * the instrumentation costs on top. {@link #pipeline} runs every stage end to end.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class AlgorithmBenchmarks {
+
+    @Benchmark
+    public SccResult kosaraju(GraphState state) {
+        return new KosarajuAlgorithm().findComponents(state.graph, PerformanceTracker.disabled());
+    }
+
+    @Benchmark
+    public SccResult kosarajuTracked(GraphState state) {
+        return new KosarajuAlgorithm().findComponents(state.graph, new PerformanceTracker());
+    }
+
+    @Benchmark
+    public CsrGraph condensation(GraphState state) {
+        return new CondensationBuilder().build(state.graph, state.sccs, PerformanceTracker.disabled());
+    }
+
+    @Benchmark
+    public CsrGraph condensationParallel(GraphState state) {
+        return new CondensationBuilder().parallel(ForkJoinPool.commonPool())
+                .build(state.graph, state.sccs, PerformanceTracker.disabled());
+    }
+
+    @Benchmark
+    public CsrGraph condensationStringKeys(GraphState state) {
+        return Condensation.build(state.graph, state.sccLists);
+    }
+
+    @Benchmark
+    public List<Integer> kahn(GraphState state) {
+        return new KahnsAlgorithm().topologicalSort(state.condensation, PerformanceTracker.disabled());
+    }
+
+    @Benchmark
+    public TopologicalLevels kahnLevels(GraphState state) {
+        return new KahnsAlgorithm().sortByLevels(state.condensation, PerformanceTracker.disabled());
+    }
+
+    @Benchmark
+    public TopologicalLevels kahnLevelsParallel(GraphState state) {
+        return new KahnsAlgorithm().sortByLevels(state.condensation, ForkJoinPool.commonPool(), PerformanceTracker.disabled());
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> shortestPaths(GraphState state) {
+        int source = state.topOrder.isEmpty() ? 0 : state.topOrder.get(0);
+        return new DagShortestPath().findShortestPaths(state.condensation, state.topOrder, source, PerformanceTracker.disabled());
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> longestPaths(GraphState state) {
+        return new DagShortestPath().findLongestPaths(state.condensation, state.topOrder, PerformanceTracker.disabled());
+    }
+
+    @Benchmark
+    public PipelineResult pipeline(GraphState state) {
+        return new Pipeline().run(state.graph);
+    }
+}
@@ -0,0 +1,40 @@
+package bench;
+
+import graph.CompactGraph;
+import graph.CsrGraph;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The string-keyed condensation the runners used before {@code scc.CondensationBuilder},
+ * kept as the baseline it is compared against.
+ */
+final class Condensation {
+
+    private Condensation() {
+    }
+
+    static CsrGraph build(CompactGraph originalGraph, List<List<Integer>> sccs) {
+        int numSccs = sccs.size();
+        CsrGraph.Builder condensationGraph = new CsrGraph.Builder(numSccs);
+        int[] vertexToSccId = new int[originalGraph.getNumVertices()];
+        for (int i = 0; i < numSccs; i++) {
+            for (int vertex : sccs.get(i)) {
+                vertexToSccId[vertex] = i;
+            }
+        }
+        Set<String> addedEdges = new HashSet<>();
+        for (int u = 0; u < originalGraph.getNumVertices(); u++) {
+            for (int e = originalGraph.firstEdge(u); e < originalGraph.endEdge(u); e++) {
+                int sccU = vertexToSccId[u];
+                int sccV = vertexToSccId[originalGraph.target(e)];
+                if (sccU != sccV && addedEdges.add(sccU + "->" + sccV)) {
+                    condensationGraph.addEdge(sccU, sccV, originalGraph.weight(e));
+                }
+            }
+        }
+        return condensationGraph.build();
+    }
+}
@@ -0,0 +1,70 @@
+package bench;
+
+import graph.CsrGraph;
+import metrics.PerformanceTracker;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import scc.CondensationBuilder;
+import scc.KosarajuAlgorithm;
+import scc.SccResult;
+import topo.KahnsAlgorithm;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * One generated graph per parameter combination, plus the condensation and its topological
+ * order so that the later pipeline stages can be measured in isolation.
+ *
+ * <p>{@code density} is the average out-degree; {@code cyclicity} is the fraction of edges
+ * that point backwards (from a higher to a lower vertex id). At 0 the graph is a DAG, and
+ * larger values merge more and more vertices into strongly connected components.
+ */
+@State(Scope.Benchmark)
+public class GraphState {
+
+    @Param({"1000", "100000", "1000000"})
+    public int vertices;
+
+    @Param({"2", "8"})
+    public int density;
+
+    @Param({"0.0", "0.01", "0.2"})
+    public double cyclicity;
+
+    public CsrGraph graph;
+    public SccResult sccs;
+    public List<List<Integer>> sccLists;
+    public CsrGraph condensation;
+    public List<Integer> topOrder;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = generate(vertices, density, cyclicity, 42L);
+        sccs = new KosarajuAlgorithm().findComponents(graph, PerformanceTracker.disabled());
+        sccLists = sccs.toComponentLists();
+        condensation = new CondensationBuilder().build(graph, sccs, PerformanceTracker.disabled());
+        topOrder = new KahnsAlgorithm().topologicalSort(condensation, PerformanceTracker.disabled());
+    }
+
+    static CsrGraph generate(int V, int density, double cyclicity, long seed) {
+        Random random = new Random(seed);
+        long E = (long) V * density;
+        CsrGraph.Builder builder = new CsrGraph.Builder(V, (int) E);
+        for (long i = 0; i < E; i++) {
+            int u = random.nextInt(V);
+            int v = random.nextInt(V);
+            if (u == v) {
+                continue;
+            }
+            boolean backwards = random.nextDouble() < cyclicity;
+            int from = backwards ? Math.max(u, v) : Math.min(u, v);
+            int to = backwards ? Math.min(u, v) : Math.max(u, v);
+            builder.addEdge(from, to, 1 + random.nextInt(100));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,95 @@
+package bench;
+
+import gen.GraphGenerator;
+import graph.CsrGraph;
+import graph.Permutation;
+import graph.VertexOrder;
+import metrics.PerformanceTracker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pipeline.Pipeline;
+import pipeline.PipelineResult;
+import scc.KosarajuAlgorithm;
+import scc.SccResult;
+import topo.KahnsAlgorithm;
+import topo.TopologicalOrder;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vertex reordering: what each {@link VertexOrder} costs ({@link #permute}) and what it buys
+ * the traversals ({@link #kosaraju}, {@link #kahn}) and the whole pipeline including the
+ * relabelling ({@link #pipeline}). The input is a layered DAG whose ids are shuffled, as an
+ * export in hash order would be; {@code none} measures the shuffled layout. Run with
+ * {@code -prof perfnorm} on Linux to see the cache misses per operation behind the timings.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ReorderingBenchmarks {
+
+    @State(Scope.Benchmark)
+    public static class Input {
+        @Param({"1000000", "4000000"})
+        public int vertices;
+
+        @Param({"none", "bfs", "dfs", "degree", "rcm"})
+        public String order;
+
+        public VertexOrder vertexOrder;
+        public CsrGraph shuffled;
+        public CsrGraph relabelled;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            vertexOrder = VertexOrder.forName(order);
+            CsrGraph layered = GraphGenerator.layered(vertices, 4, 64, 42L).toCsr();
+            int[] shuffle = new int[vertices];
+            for (int v = 0; v < vertices; v++) {
+                shuffle[v] = v;
+            }
+            SplittableRandom random = new SplittableRandom(7);
+            for (int i = vertices - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = shuffle[i];
+                shuffle[i] = shuffle[j];
+                shuffle[j] = swap;
+            }
+            shuffled = Permutation.fromOrder(shuffle).apply(layered);
+            relabelled = vertexOrder.permutation(shuffled).apply(shuffled);
+        }
+    }
+
+    @Benchmark
+    public CsrGraph permute(Input input) {
+        return input.vertexOrder.permutation(input.shuffled).apply(input.shuffled);
+    }
+
+    @Benchmark
+    public SccResult kosaraju(Input input) {
+        return new KosarajuAlgorithm().findComponents(input.relabelled, PerformanceTracker.disabled());
+    }
+
+    @Benchmark
+    public TopologicalOrder kahn(Input input) {
+        return new KahnsAlgorithm().sort(input.relabelled, PerformanceTracker.disabled());
+    }
+
+    @Benchmark
+    public PipelineResult pipeline(Input input) {
+        return new Pipeline().vertexOrder(input.vertexOrder).run(input.shuffled);
+    }
+}
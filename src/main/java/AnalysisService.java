@@ -0,0 +1,44 @@
+import graph.EdgeListLoader;
+import scc.SccAlgorithm;
+import service.AnalysisServer;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Runs the analysis service on the loopback interface until the process is stopped.
+ *
+ * Usage: AnalysisService [--port=8080] [--scc=kosaraju] [--preload=data]
+ * Preloaded files are registered under their file name without the extension.
+ */
+public class AnalysisService {
+
+    public static void main(String[] args) throws IOException {
+        int port = Integer.parseInt(BatchRunner.option(args, "--port", "8080"));
+        SccAlgorithm sccAlgorithm = SccAlgorithm.forName(BatchRunner.option(args, "--scc", "kosaraju"));
+        AnalysisServer server = new AnalysisServer(port, sccAlgorithm);
+
+        String preload = BatchRunner.option(args, "--preload", null);
+        if (preload != null) {
+            File[] graphFiles = new File(preload).listFiles(file -> file.getName().endsWith(".json")
+                    || file.getName().endsWith(".bin") || EdgeListLoader.isEdgeList(file));
+            if (graphFiles != null) {
+                Arrays.sort(graphFiles);
+                for (File file : graphFiles) {
+                    String id = file.getName().substring(0, file.getName().lastIndexOf('.'));
+                    try {
+                        server.load(id, file);
+                        System.out.println("Loaded " + file.getName() + " as " + id);
+                    } catch (IOException e) {
+                        System.err.println("Error loading file " + file.getName() + ": " + e.getMessage());
+                    }
+                }
+            }
+        }
+
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+        System.out.println("Analysis service listening on http://127.0.0.1:" + server.getPort() + "/graphs");
+    }
+}
@@ -1,114 +1,368 @@
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
-import dagsp.DagShortestPath;
-import graph.DirectedGraph;
+import cache.AnalysisResult;
+import cache.GraphHash;
+import cache.ResultCache;
+import dagsp.CriticalPathMethod;
+import dagsp.CriticalPathSchedule;
+import graph.CompactGraph;
+import graph.BinaryGraphFormat;
+import graph.EdgeListLoader;
+import graph.JsonGraphLoader;
+import graph.VertexOrder;
+import metrics.LatencyHistogram;
 import metrics.PerformanceTracker;
-import scc.KosarajuAlgorithm;
-import topo.KahnsAlgorithm;
+import metrics.PhaseMetrics;
+import pipeline.Pipeline;
+import pipeline.PipelineResult;
+import scc.CondensationBuilder;
+import scc.SccAlgorithm;
+import scc.SccResult;
+import topo.TopologicalLevels;
 
 import java.io.File;
-import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 public class BatchRunner {
-
-
-    static class GraphData {
-        int vertices;
-        List<List<Integer>> edges;
-    }
+    // Cached metrics that describe the result rather than the run that computed it.
+    private static final Set<String> CACHED_RESULT_COLUMNS = new HashSet<>(Arrays.asList(
+            "Num_SCCs", "Topo_Depth", "Topo_Max_Width", "Critical_Path_Length", "Critical_Tasks"));
+    // Default bound on graphs loaded at once with virtual threads, where --threads does not apply.
+    private static final int VIRTUAL_MAX_IN_FLIGHT = 64;
 
     public static void main(String[] args) {
-        File dataDir = new File("data");
-        File[] jsonFiles = dataDir.listFiles((dir, name) -> name.toLowerCase().endsWith(".json"));
+        SccAlgorithm sccAlgorithm = SccAlgorithm.forName(option(args, "--scc", "kosaraju"));
+        CondensationBuilder.WeightPolicy weightPolicy =
+                CondensationBuilder.WeightPolicy.valueOf(option(args, "--weights", "first").toUpperCase(Locale.ROOT));
+        File dataDir = new File(option(args, "--data", "data"));
+        File[] graphFiles = dataDir.listFiles(file -> file.getName().toLowerCase().endsWith(".json")
+                || file.getName().toLowerCase().endsWith(".bin") || EdgeListLoader.isEdgeList(file));
 
-        if (jsonFiles == null || jsonFiles.length == 0) {
-            System.out.println("No .json files found in the /data directory.");
+        if (graphFiles == null || graphFiles.length == 0) {
+            System.out.println("No .json, .bin or edge-list files found in the " + dataDir + " directory.");
             return;
         }
 
-        System.out.println("Found " + jsonFiles.length + " dataset(s). Starting batch processing...");
-        List<Map<String, Object>> allResults = new ArrayList<>();
+        int threads = Integer.parseInt(option(args, "--threads", "1"));
+        ExecutorService executor = createExecutor(option(args, "--executor", "platform"), threads);
+        int maxInFlight = Integer.parseInt(option(args, "--max-in-flight", String.valueOf(defaultMaxInFlight(executor, threads))));
+        ResultCache cache = createCache(Long.parseLong(option(args, "--cache-mb", "64")), option(args, "--cache-dir", null));
+        boolean offHeap = "offheap".equals(option(args, "--storage", "mapped"));
+        String scheduleOption = option(args, "--schedule-dir", null);
+        File scheduleDir = scheduleOption == null ? null : new File(scheduleOption);
+        if (scheduleDir != null && !scheduleDir.isDirectory() && !scheduleDir.mkdirs()) {
+            System.err.println("Cannot create schedule directory " + scheduleDir);
+            return;
+        }
 
-        for (File jsonFile : jsonFiles) {
-            System.out.println("Processing: " + jsonFile.getName());
-            try {
-                Map<String, Object> fileResult = processGraphFile(jsonFile);
-                allResults.add(fileResult);
-            } catch (IOException e) {
-                System.err.println("Error processing file " + jsonFile.getName() + ": " + e.getMessage());
+        int repeat = Integer.parseInt(option(args, "--repeat", "1"));
+        if (repeat > 1 && cache != null) {
+            System.out.println("Note: cache hits skip the pipeline; pass --cache-mb=0 to time every repetition.");
+        }
+        PhaseMetrics phaseMetrics = new PhaseMetrics();
+        Pipeline pipeline = new Pipeline().sccAlgorithm(sccAlgorithm).weightPolicy(weightPolicy)
+                .vertexOrder(VertexOrder.forName(option(args, "--reorder", "none")))
+                .phaseMetrics(phaseMetrics);
+        Settings settings = new Settings(pipeline, cache, scheduleDir, offHeap, phaseMetrics);
+
+        // Sorted so the CSV row order does not depend on the file system or on completion order.
+        Arrays.sort(graphFiles);
+        System.out.println("Found " + graphFiles.length + " dataset(s). Starting batch processing...");
+        List<Map<String, Object>> allResults = Collections.emptyList();
+        long analysedGraphs = 0;
+        long batchNanos = 0;
+        try {
+            for (int run = 1; run <= repeat; run++) {
+                if (repeat > 1) {
+                    System.out.println("Run " + run + " of " + repeat);
+                }
+                long runStart = System.nanoTime();
+                allResults = processAll(graphFiles, settings, executor, maxInFlight);
+                long runNanos = System.nanoTime() - runStart;
+                analysedGraphs += allResults.size();
+                batchNanos += runNanos;
+                printThroughput(repeat > 1 ? "Run " + run : "Batch", allResults.size(), runNanos);
+            }
+            if (repeat > 1) {
+                printThroughput("Sustained", analysedGraphs, batchNanos);
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Batch processing interrupted.");
+            return;
+        } finally {
+            executor.shutdownNow();
         }
 
         try {
             writeToCsv(allResults, "results.csv");
             System.out.println("\nBatch processing complete. Results saved to results.csv");
+            if (cache != null) {
+                System.out.println("Result cache: " + cache.getHits() + " memory hit(s), " + cache.getDiskHits()
+                        + " disk hit(s), " + cache.getMisses() + " miss(es), " + cache.getEvictions() + " eviction(s)");
+            }
         } catch (IOException e) {
             System.err.println("Error writing to CSV file: " + e.getMessage());
         }
+
+        printPhaseSummary(settings.phaseMetrics);
+        String metricsOut = option(args, "--metrics-out", null);
+        if (metricsOut != null) {
+            try {
+                writeMetrics(settings.phaseMetrics, metricsOut);
+                System.out.println("Phase metrics saved to " + metricsOut + ".prom and " + metricsOut + ".json");
+            } catch (IOException e) {
+                System.err.println("Error writing phase metrics: " + e.getMessage());
+            }
+        }
     }
 
 
-    private static Map<String, Object> processGraphFile(File jsonFile) throws IOException {
-        Map<String, Object> results = new LinkedHashMap<>();
-        results.put("Filename", jsonFile.getName());
-        Gson gson = new Gson();
+    /** Per-run settings shared by every file of the batch. */
+    static final class Settings {
+        final Pipeline pipeline;
+        final ResultCache cache;
+        final File scheduleDir;
+        final boolean offHeap;
+        final PhaseMetrics phaseMetrics;
+
+        Settings(Pipeline pipeline, ResultCache cache, File scheduleDir, boolean offHeap, PhaseMetrics phaseMetrics) {
+            this.pipeline = pipeline;
+            this.cache = cache;
+            this.scheduleDir = scheduleDir;
+            this.offHeap = offHeap;
+            this.phaseMetrics = phaseMetrics;
+        }
+    }
+
+
+    /**
+     * Runs every file on the executor with at most {@code maxInFlight} graphs loaded at once.
+     * A failing file is logged and skipped without affecting the others; rows come back in
+     * the order of {@code graphFiles}.
+     */
+    static List<Map<String, Object>> processAll(File[] graphFiles, Settings settings,
+                                                ExecutorService executor, int maxInFlight) throws InterruptedException {
+        AtomicReferenceArray<Map<String, Object>> rows = new AtomicReferenceArray<>(graphFiles.length);
+        Semaphore inFlight = new Semaphore(Math.max(1, maxInFlight));
+        List<Future<?>> futures = new ArrayList<>(graphFiles.length);
+
+        for (int i = 0; i < graphFiles.length; i++) {
+            final int index = i;
+            final File graphFile = graphFiles[i];
+            inFlight.acquire();
+            futures.add(executor.submit(() -> {
+                try {
+                    System.out.println("Processing: " + graphFile.getName());
+                    rows.set(index, processGraphFile(graphFile, settings));
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("Error processing file " + graphFile.getName() + ": " + e.getMessage());
+                } finally {
+                    inFlight.release();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                System.err.println("Unexpected failure: " + e.getCause());
+            }
+        }
+
+        List<Map<String, Object>> allResults = new ArrayList<>();
+        for (int i = 0; i < rows.length(); i++) {
+            if (rows.get(i) != null) {
+                allResults.add(rows.get(i));
+            }
+        }
+        return allResults;
+    }
+
+    private static void printThroughput(String label, long graphs, long nanos) {
+        double seconds = nanos / 1e9;
+        System.out.printf(Locale.ROOT, "%s: %d graph(s) in %.3f s (%.1f graphs/s)%n", label, graphs, seconds,
+                seconds > 0 ? graphs / seconds : 0.0);
+    }
+
+    private static ResultCache createCache(long megabytes, String directory) {
+        if (megabytes <= 0 && directory == null) {
+            return null;
+        }
+        return new ResultCache(megabytes << 20, directory == null ? null : new File(directory));
+    }
 
-        try (FileReader reader = new FileReader(jsonFile)) {
-            Type graphType = new TypeToken<GraphData>() {}.getType();
-            GraphData data = gson.fromJson(reader, graphType);
+    /**
+     * A pool bounds the graphs in flight by its thread count already; a virtual-thread executor
+     * starts every task at once, so it gets a fixed cap instead.
+     */
+    static int defaultMaxInFlight(ExecutorService executor, int threads) {
+        return executor instanceof ThreadPoolExecutor ? threads : Math.max(threads, VIRTUAL_MAX_IN_FLIGHT);
+    }
+
+    private static ExecutorService createExecutor(String kind, int threads) {
+        if ("virtual".equalsIgnoreCase(kind)) {
+            try {
+                // Looked up reflectively so the project still builds and runs on Java 8.
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                System.err.println("Virtual threads are not available on this JVM; using " + threads + " platform thread(s).");
+            }
+        } else if (!"platform".equalsIgnoreCase(kind)) {
+            throw new IllegalArgumentException("Unknown executor: " + kind);
+        }
+        return Executors.newFixedThreadPool(Math.max(1, threads));
+    }
 
-            results.put("Vertices", data.vertices);
-            results.put("Edges", data.edges.size());
 
-            DirectedGraph graph = new DirectedGraph(data.vertices);
-            for (List<Integer> edge : data.edges) {
-                graph.addEdge(edge.get(0), edge.get(1), edge.get(2));
+    /**
+     * Runs the pipeline on one file. With a cache, a graph whose contents were analysed before
+     * (under the same SCC algorithm and weight policy) reuses the stored metrics instead.
+     * With {@code scheduleDir}, the per-vertex critical-path schedule is written there as well.
+     */
+    private static Map<String, Object> processGraphFile(File graphFile, Settings settings) throws IOException {
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("Filename", graphFile.getName());
+
+        PerformanceTracker loadTracker = new PerformanceTracker("load", settings.phaseMetrics);
+        CompactGraph graph = loadGraph(graphFile, settings.offHeap, loadTracker);
+        results.put("Vertices", graph.getNumVertices());
+        results.put("Edges", graph.getNumEdges());
+        results.put("Load_Time_ns", loadTracker.getExecutionTimeNanos());
+        results.put("Load_MBps", String.format(Locale.ROOT, "%.3f", JsonGraphLoader.megabytesPerSecond(loadTracker)));
+        try {
+            analyse(graphFile, graph, results, settings);
+        } finally {
+            graph.release();
+        }
+        return results;
+    }
+
+    private static void analyse(File graphFile, CompactGraph graph, Map<String, Object> results, Settings settings) throws IOException {
+        ResultCache cache = settings.cache;
+        File scheduleDir = settings.scheduleDir;
+        GraphHash.Fingerprint fingerprint = null;
+        if (cache != null) {
+            String variant = settings.pipeline.getSccAlgorithm().getClass().getName() + "/" + settings.pipeline.getWeightPolicy();
+            if (settings.pipeline.getVertexOrder() != VertexOrder.NONE) {
+                variant += "/" + settings.pipeline.getVertexOrder();
+            }
+            fingerprint = GraphHash.fingerprint(graph).withVariant(variant);
+            AnalysisResult cached = cache.get(fingerprint);
+            if (cached != null) {
+                // Timings and work counters belong to the run that filled the cache, not this one.
+                for (Map.Entry<String, Long> metric : cached.getMetrics().entrySet()) {
+                    results.put(metric.getKey(), CACHED_RESULT_COLUMNS.contains(metric.getKey()) ? metric.getValue() : "");
+                }
+                results.put("Cache", "hit");
+                if (scheduleDir != null && cached.getOrder().isAcyclic()) {
+                    CriticalPathSchedule schedule = new CriticalPathMethod().schedule(cached.getCondensation(),
+                            cached.getOrder(), cached.getComponents(), PerformanceTracker.disabled());
+                    writeSchedule(schedule, cached.getComponents(), new File(scheduleDir, graphFile.getName() + ".schedule.csv"));
+                }
+                return;
             }
+            results.put("Cache", "miss");
+        }
+        PipelineResult run = settings.pipeline.run(graph);
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        metrics.put("Num_SCCs", (long) run.getComponents().getNumComponents());
+        if (run.getStage(Pipeline.REORDER) != null) {
+            metrics.put("Reorder_Time_ns", run.getStageNanos(Pipeline.REORDER));
+        }
+        metrics.put("SCC_Time_ns", run.getStageNanos(Pipeline.SCC));
+        metrics.put("SCC_DFS_Visits", run.getStageOperation(Pipeline.SCC, "dfs_visits"));
+        metrics.put("Condensation_Time_ns", run.getStageNanos(Pipeline.CONDENSATION));
+
+        if (run.isAcyclic()) {
+            TopologicalLevels waves = run.getOrder();
+            metrics.put("Topo_Sort_Time_ns", run.getStageNanos(Pipeline.TOPO));
+            metrics.put("Topo_Sort_Queue_Ops", run.getStageOperation(Pipeline.TOPO, "queue_pushes")
+                    + run.getStageOperation(Pipeline.TOPO, "queue_pops"));
+            metrics.put("Topo_Depth", (long) waves.getDepth());
+            metrics.put("Topo_Max_Width", (long) waves.getMaxWidth());
 
+            metrics.put("Shortest_Path_Time_ns", run.getStageNanos(Pipeline.SHORTEST_PATH));
+            metrics.put("Shortest_Path_Relaxations", run.getStageOperation(Pipeline.SHORTEST_PATH, "relaxations"));
 
-            KosarajuAlgorithm kosaraju = new KosarajuAlgorithm();
-            PerformanceTracker sccTracker = new PerformanceTracker();
-            List<List<Integer>> sccs = kosaraju.findSCCs(graph, sccTracker);
-            results.put("Num_SCCs", sccs.size());
-            results.put("SCC_Time_ns", sccTracker.getExecutionTimeNanos());
-            results.put("SCC_DFS_Visits", sccTracker.getOperations().getOrDefault("dfs_visits", 0L));
+            metrics.put("Critical_Path_Length", run.getCriticalPathLength());
+            metrics.put("Longest_Path_Time_ns", run.getStageNanos(Pipeline.LONGEST_PATH));
+            metrics.put("Longest_Path_Relaxations", run.getStageOperation(Pipeline.LONGEST_PATH, "relaxations_longest"));
 
+            metrics.put("CPM_Time_ns", run.getStageNanos(Pipeline.CPM));
+            metrics.put("Critical_Tasks", (long) run.getSchedule().getCriticalTasks().length);
+            if (scheduleDir != null) {
+                writeSchedule(run.getSchedule(), run.getComponents(), new File(scheduleDir, graphFile.getName() + ".schedule.csv"));
+            }
+        }
 
-            DirectedGraph condensationGraph = buildCondensationGraph(graph, sccs);
-            KahnsAlgorithm kahns = new KahnsAlgorithm();
-            PerformanceTracker topoTracker = new PerformanceTracker();
-            List<Integer> topOrder = kahns.topologicalSort(condensationGraph, topoTracker);
+        results.putAll(metrics);
+        if (cache != null) {
+            cache.put(new AnalysisResult(fingerprint, run.getComponents(), run.getCondensation(), run.getOrder(), metrics));
+        }
+    }
 
-            if (topOrder != null) {
-                long queueOps = topoTracker.getOperations().getOrDefault("queue_pushes", 0L) +
-                        topoTracker.getOperations().getOrDefault("queue_pops", 0L);
-                results.put("Topo_Sort_Time_ns", topoTracker.getExecutionTimeNanos());
-                results.put("Topo_Sort_Queue_Ops", queueOps);
+    private static void writeSchedule(CriticalPathSchedule schedule, SccResult sccs, File file) throws IOException {
+        int[] componentOf = sccs.getComponentOf();
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            writer.println("Vertex,Component,Earliest_Start,Latest_Start,Slack,Critical");
+            for (int v = 0; v < componentOf.length; v++) {
+                writer.println(v + "," + componentOf[v] + "," + schedule.getEarliestStart(v) + "," + schedule.getLatestStart(v)
+                        + "," + schedule.getSlack(v) + "," + schedule.isCritical(v));
+            }
+        }
+    }
 
+    private static CompactGraph loadGraph(File file, boolean offHeap, PerformanceTracker tracker) throws IOException {
+        if (EdgeListLoader.isEdgeList(file)) {
+            return new EdgeListLoader().load(file, tracker);
+        }
+        if (!file.getName().toLowerCase().endsWith(".bin")) {
+            return new JsonGraphLoader().load(file, tracker);
+        }
+        tracker.start();
+        CompactGraph graph = offHeap ? BinaryGraphFormat.readOffHeap(file) : BinaryGraphFormat.map(file);
+        tracker.addOperations("bytes_read", file.length());
+        tracker.stop();
+        return graph;
+    }
 
-                DagShortestPath dagSp = new DagShortestPath();
-                int sourceComponent = topOrder.isEmpty() ? 0 : topOrder.get(0);
+    private static void writeMetrics(PhaseMetrics phaseMetrics, String prefix) throws IOException {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(prefix + ".prom"))) {
+            writer.print(phaseMetrics.toPrometheus());
+        }
+        try (PrintWriter writer = new PrintWriter(new FileWriter(prefix + ".json"))) {
+            writer.println(phaseMetrics.toJson());
+        }
+    }
 
-                PerformanceTracker spTracker = new PerformanceTracker();
-                dagSp.findShortestPaths(condensationGraph, topOrder, sourceComponent, spTracker);
-                results.put("Shortest_Path_Time_ns", spTracker.getExecutionTimeNanos());
-                results.put("Shortest_Path_Relaxations", spTracker.getOperations().getOrDefault("relaxations", 0L));
+    private static void printPhaseSummary(PhaseMetrics phaseMetrics) {
+        System.out.printf(Locale.ROOT, "%n%-26s %6s %12s %12s %12s %14s%n", "Phase", "Runs", "p50_us", "p99_us", "max_us", "p50_alloc_KB");
+        for (String name : phaseMetrics.phaseNames()) {
+            PhaseMetrics.Phase phase = phaseMetrics.phase(name);
+            LatencyHistogram latency = phase.getLatency();
+            LatencyHistogram allocated = phase.getAllocatedBytes();
+            System.out.printf(Locale.ROOT, "%-26s %6d %12.1f %12.1f %12.1f %14s%n", name, latency.getCount(),
+                    latency.getPercentile(0.5) / 1e3, latency.getPercentile(0.99) / 1e3, latency.getMax() / 1e3,
+                    allocated.getCount() == 0 ? "-" : String.format(Locale.ROOT, "%.1f", allocated.getPercentile(0.5) / 1024.0));
+        }
+    }
 
-                PerformanceTracker lpTracker = new PerformanceTracker();
-                Map<Integer, Integer> longestPaths = dagSp.findLongestPaths(condensationGraph, topOrder, lpTracker);
-                int criticalPathLength = 0;
-                for(int dist : longestPaths.values()) if(dist > criticalPathLength) criticalPathLength = dist;
-                results.put("Critical_Path_Length", criticalPathLength);
-                results.put("Longest_Path_Time_ns", lpTracker.getExecutionTimeNanos());
-                results.put("Longest_Path_Relaxations", lpTracker.getOperations().getOrDefault("relaxations_longest", 0L));
+    static String option(String[] args, String name, String defaultValue) {
+        for (String arg : args) {
+            if (arg.startsWith(name + "=")) {
+                return arg.substring(name.length() + 1);
             }
         }
-        return results;
+        return defaultValue;
     }
 
     private static void writeToCsv(List<Map<String, Object>> allResults, String filename) throws IOException {
@@ -117,7 +371,8 @@ public class BatchRunner {
             String[] headers = {"Filename", "Vertices", "Edges", "Num_SCCs", "SCC_Time_ns", "SCC_DFS_Visits",
                     "Topo_Sort_Time_ns", "Topo_Sort_Queue_Ops", "Shortest_Path_Time_ns",
                     "Shortest_Path_Relaxations", "Critical_Path_Length", "Longest_Path_Time_ns",
-                    "Longest_Path_Relaxations"};
+                    "Longest_Path_Relaxations", "Load_Time_ns", "Load_MBps", "Condensation_Time_ns",
+                    "Topo_Depth", "Topo_Max_Width", "Cache", "CPM_Time_ns", "Critical_Tasks", "Reorder_Time_ns"};
             writer.println(String.join(",", headers));
 
 
@@ -130,32 +385,4 @@ public class BatchRunner {
             }
         }
     }
-
-    private static DirectedGraph buildCondensationGraph(DirectedGraph originalGraph, List<List<Integer>> sccs) {
-        int numSccs = sccs.size();
-        DirectedGraph condensationGraph = new DirectedGraph(numSccs);
-        int[] vertexToSccId = new int[originalGraph.getNumVertices()];
-        for (int i = 0; i < numSccs; i++) {
-            for (int vertex : sccs.get(i)) {
-                vertexToSccId[vertex] = i;
-            }
-        }
-        Set<String> addedEdges = new HashSet<>();
-        for (int u = 0; u < originalGraph.getNumVertices(); u++) {
-            for (int[] edge : originalGraph.getAdj(u)) {
-                int v = edge[0];
-                int weight = edge[1];
-                int sccU = vertexToSccId[u];
-                int sccV = vertexToSccId[v];
-                if (sccU != sccV) {
-                    String edgeKey = sccU + "->" + sccV;
-                    if (!addedEdges.contains(edgeKey)) {
-                        condensationGraph.addEdge(sccU, sccV, weight);
-                        addedEdges.add(edgeKey);
-                    }
-                }
-            }
-        }
-        return condensationGraph;
-    }
 }
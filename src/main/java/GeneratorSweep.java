@@ -0,0 +1,175 @@
+import dagsp.CriticalPathMethod;
+import dagsp.DagShortestPath;
+import gen.GraphFiles;
+import gen.GraphGenerator;
+import graph.BinaryGraphFormat;
+import graph.CompactGraph;
+import graph.CsrGraph;
+import metrics.PerformanceTracker;
+import scc.CondensationBuilder;
+import scc.SccAlgorithm;
+import scc.SccResult;
+import topo.KahnsAlgorithm;
+import topo.TopologicalOrder;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Generates graphs of growing size for each kind, streams them to binary files, runs the
+ * pipeline on them and reports the throughput of every stage in edges per second, as
+ * sweep.csv and as a text chart. Stages up to the condensation process the generated edges;
+ * the later ones process the condensation's.
+ *
+ * Usage: GeneratorSweep [--kinds=dag,cyclic,powerlaw,layered] [--sizes=100000,1000000,10000000]
+ *        [--degree=4] [--seed=42] [--scc=kosaraju] [--storage=mapped|offheap] [--dir=sweep-data]
+ *        [--keep] [--out=sweep.csv]
+ */
+public class GeneratorSweep {
+    private static final int BAR_WIDTH = 50;
+
+    public static void main(String[] args) throws IOException {
+        String[] kinds = BatchRunner.option(args, "--kinds", "dag,cyclic,powerlaw,layered").split(",");
+        String[] sizes = BatchRunner.option(args, "--sizes", "100000,1000000,10000000").split(",");
+        double degree = Double.parseDouble(BatchRunner.option(args, "--degree", "4"));
+        long seed = Long.parseLong(BatchRunner.option(args, "--seed", "42"));
+        SccAlgorithm sccAlgorithm = SccAlgorithm.forName(BatchRunner.option(args, "--scc", "kosaraju"));
+        boolean offHeap = "offheap".equals(BatchRunner.option(args, "--storage", "mapped"));
+        boolean keep = Arrays.asList(args).contains("--keep");
+        File dir = new File(BatchRunner.option(args, "--dir", "sweep-data"));
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            System.err.println("Cannot create directory " + dir);
+            return;
+        }
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (String kind : kinds) {
+            for (String size : sizes) {
+                GraphGenerator generator = GraphGenerator.forName(kind.trim(), Integer.parseInt(size.trim()), degree, seed, null);
+                System.out.println("Running " + generator.describe() + "...");
+                File file = new File(dir, generator.describe() + ".bin");
+                try {
+                    run(generator, file, sccAlgorithm, offHeap, rows);
+                } finally {
+                    if (!keep) {
+                        file.delete();
+                    }
+                }
+            }
+        }
+
+        File out = new File(BatchRunner.option(args, "--out", "sweep.csv"));
+        writeCsv(rows, out);
+        System.out.println();
+        plot(rows);
+        System.out.println("\nResults saved to " + out);
+    }
+
+
+    private static void run(GraphGenerator generator, File file, SccAlgorithm sccAlgorithm, boolean offHeap,
+                            List<Map<String, Object>> rows) throws IOException {
+        long start = System.nanoTime();
+        long E = GraphFiles.write(generator, file);
+        long generateNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        CompactGraph graph = offHeap ? BinaryGraphFormat.readOffHeap(file) : BinaryGraphFormat.map(file);
+        long loadNanos = System.nanoTime() - start;
+
+        try {
+            PerformanceTracker sccTracker = new PerformanceTracker();
+            SccResult sccs = sccAlgorithm.findComponents(graph, sccTracker);
+            PerformanceTracker condensationTracker = new PerformanceTracker();
+            CsrGraph condensation = new CondensationBuilder().build(graph, sccs, condensationTracker);
+            long C = condensation.getNumEdges();
+
+            Map<String, Object> base = new LinkedHashMap<>();
+            base.put("Kind", generator.describe().split("_")[0]);
+            base.put("Vertices", generator.getNumVertices());
+            base.put("Edges", E);
+            base.put("Components", sccs.getNumComponents());
+            base.put("Condensation_Edges", C);
+            rows.add(row(base, "generate", generateNanos, E));
+            rows.add(row(base, "load", loadNanos, E));
+            rows.add(row(base, "scc", sccTracker.getExecutionTimeNanos(), E));
+            rows.add(row(base, "condensation", condensationTracker.getExecutionTimeNanos(), E));
+
+            PerformanceTracker topoTracker = new PerformanceTracker();
+            TopologicalOrder order = new KahnsAlgorithm().sort(condensation, topoTracker);
+            rows.add(row(base, "topo", topoTracker.getExecutionTimeNanos(), C));
+            if (!order.isAcyclic()) {
+                return;
+            }
+            DagShortestPath dagSp = new DagShortestPath();
+            PerformanceTracker spTracker = new PerformanceTracker();
+            dagSp.shortestPaths(condensation, order, order.getOrder().length == 0 ? 0 : order.getOrder()[0], spTracker);
+            rows.add(row(base, "shortest_path", spTracker.getExecutionTimeNanos(), C));
+            PerformanceTracker lpTracker = new PerformanceTracker();
+            dagSp.longestPaths(condensation, order, lpTracker);
+            rows.add(row(base, "longest_path", lpTracker.getExecutionTimeNanos(), C));
+            PerformanceTracker cpmTracker = new PerformanceTracker();
+            new CriticalPathMethod().schedule(condensation, order, sccs, cpmTracker);
+            rows.add(row(base, "cpm", cpmTracker.getExecutionTimeNanos(), C));
+        } finally {
+            graph.release();
+        }
+    }
+
+    private static Map<String, Object> row(Map<String, Object> base, String stage, long nanos, long edges) {
+        Map<String, Object> row = new LinkedHashMap<>(base);
+        row.put("Stage", stage);
+        row.put("Time_ns", nanos);
+        row.put("Stage_Edges", edges);
+        row.put("M_Edges_Per_Sec", nanos <= 0 ? 0.0 : edges * 1e3 / nanos);
+        return row;
+    }
+
+    private static void writeCsv(List<Map<String, Object>> rows, File file) throws IOException {
+        String[] headers = {"Kind", "Vertices", "Edges", "Components", "Condensation_Edges", "Stage", "Time_ns",
+                "Stage_Edges", "M_Edges_Per_Sec"};
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            writer.println(String.join(",", headers));
+            for (Map<String, Object> row : rows) {
+                List<String> values = new ArrayList<>();
+                for (String header : headers) {
+                    Object value = row.get(header);
+                    values.add(value instanceof Double ? String.format(Locale.ROOT, "%.3f", value) : String.valueOf(value));
+                }
+                writer.println(String.join(",", values));
+            }
+        }
+    }
+
+    /** One bar chart per stage, bars scaled to the fastest run of that stage. */
+    private static void plot(List<Map<String, Object>> rows) {
+        Map<String, List<Map<String, Object>>> byStage = new LinkedHashMap<>();
+        for (Map<String, Object> row : rows) {
+            byStage.computeIfAbsent((String) row.get("Stage"), k -> new ArrayList<>()).add(row);
+        }
+        for (Map.Entry<String, List<Map<String, Object>>> stage : byStage.entrySet()) {
+            double max = 0;
+            for (Map<String, Object> row : stage.getValue()) {
+                max = Math.max(max, (Double) row.get("M_Edges_Per_Sec"));
+            }
+            System.out.println(stage.getKey() + " (M edges/s)");
+            for (Map<String, Object> row : stage.getValue()) {
+                double rate = (Double) row.get("M_Edges_Per_Sec");
+                int width = max <= 0 ? 0 : (int) Math.round(BAR_WIDTH * rate / max);
+                StringBuilder bar = new StringBuilder();
+                for (int i = 0; i < width; i++) {
+                    bar.append('#');
+                }
+                System.out.printf(Locale.ROOT, "  %-9s %11d |%-" + BAR_WIDTH + "s %9.2f%n",
+                        row.get("Kind"), row.get("Vertices"), bar, rate);
+            }
+        }
+    }
+}
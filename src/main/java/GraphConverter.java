@@ -0,0 +1,50 @@
+import graph.BinaryGraphFormat;
+import graph.CsrGraph;
+import graph.EdgeListLoader;
+import graph.JsonGraphLoader;
+import metrics.PerformanceTracker;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Converts every data/*.json graph and edge list ({@link EdgeListLoader#isEdgeList}) into the
+ * memory-mappable binary format.
+ *
+ * Usage: GraphConverter [--data=data] [--out=data-bin]
+ */
+public class GraphConverter {
+
+    public static void main(String[] args) {
+        File dataDir = new File(BatchRunner.option(args, "--data", "data"));
+        File outDir = new File(BatchRunner.option(args, "--out", "data-bin"));
+        File[] sourceFiles = dataDir.listFiles(file -> file.getName().toLowerCase().endsWith(".json") || EdgeListLoader.isEdgeList(file));
+
+        if (sourceFiles == null || sourceFiles.length == 0) {
+            System.out.println("No .json or edge-list files found in " + dataDir + ".");
+            return;
+        }
+        if (!outDir.isDirectory() && !outDir.mkdirs()) {
+            System.err.println("Cannot create output directory " + outDir);
+            return;
+        }
+
+        Arrays.sort(sourceFiles);
+        JsonGraphLoader jsonLoader = new JsonGraphLoader();
+        EdgeListLoader edgeListLoader = new EdgeListLoader();
+        for (File sourceFile : sourceFiles) {
+            String name = sourceFile.getName();
+            File binFile = new File(outDir, name.substring(0, name.lastIndexOf('.')) + ".bin");
+            try {
+                CsrGraph graph = EdgeListLoader.isEdgeList(sourceFile)
+                        ? edgeListLoader.load(sourceFile, new PerformanceTracker())
+                        : jsonLoader.load(sourceFile, new PerformanceTracker());
+                BinaryGraphFormat.write(graph, binFile);
+                System.out.println(name + " -> " + binFile.getPath() + " (" + binFile.length() + " bytes)");
+            } catch (IOException e) {
+                System.err.println("Error converting file " + name + ": " + e.getMessage());
+            }
+        }
+    }
+}
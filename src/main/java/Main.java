@@ -1,25 +1,21 @@
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
-import dagsp.DagShortestPath;
-import graph.DirectedGraph;
+import dagsp.CriticalPathSchedule;
+import dagsp.PathResult;
+import graph.CsrGraph;
+import graph.JsonGraphLoader;
 import metrics.PerformanceTracker;
+import pipeline.Pipeline;
+import pipeline.PipelineResult;
 import scc.KosarajuAlgorithm;
-import topo.KahnsAlgorithm;
+import scc.SccResult;
+import topo.TopologicalLevels;
 
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
-import java.lang.reflect.Type;
 import java.util.*;
 
 public class Main {
 
 
-    static class GraphData {
-        int vertices;
-        List<List<Integer>> edges;
-    }
-
     public static void main(String[] args) {
 
         File dataDir = new File("data");
@@ -31,7 +27,7 @@ public class Main {
         }
 
         System.out.println("Found " + jsonFiles.length + " dataset(s). Starting analysis...\n");
-        Gson gson = new Gson();
+        JsonGraphLoader loader = new JsonGraphLoader();
 
 
         for (File jsonFile : jsonFiles) {
@@ -39,60 +35,74 @@ public class Main {
             System.out.println("--- Processing file: " + jsonFile.getName() + " ---");
             System.out.println("========================================================\n");
 
-            try (FileReader reader = new FileReader(jsonFile)) {
-                Type graphType = new TypeToken<GraphData>() {}.getType();
-                GraphData data = gson.fromJson(reader, graphType);
+            try {
+                PerformanceTracker loadTracker = new PerformanceTracker();
+                CsrGraph graph = loader.load(jsonFile, loadTracker);
+                System.out.printf(Locale.ROOT, "0. Loaded %d vertices, %d edges in %d ns (%.3f MB/s)%n%n",
+                        graph.getNumVertices(), graph.getNumEdges(), loadTracker.getExecutionTimeNanos(),
+                        JsonGraphLoader.megabytesPerSecond(loadTracker));
 
 
-                DirectedGraph graph = new DirectedGraph(data.vertices);
-                for (List<Integer> edge : data.edges) {
-                    graph.addEdge(edge.get(0), edge.get(1), edge.get(2));
-                }
-
+                // Every stage runs inside the fused pipeline; the sections below only report its results.
+                System.out.println("Running the analysis pipeline (SCCs, condensation, topological sort, paths, scheduling)...\n");
+                PipelineResult run = new Pipeline().sccAlgorithm(new KosarajuAlgorithm()).run(graph);
+                SccResult sccs = run.getComponents();
 
-                System.out.println("1. Running Kosaraju's Algorithm to find SCCs...");
-                KosarajuAlgorithm kosaraju = new KosarajuAlgorithm();
-                PerformanceTracker sccTracker = new PerformanceTracker();
-                List<List<Integer>> sccs = kosaraju.findSCCs(graph, sccTracker);
+                System.out.println("1. Strongly Connected Components (Kosaraju's Algorithm):");
 
-                System.out.println("   Found " + sccs.size() + " Strongly Connected Components:");
-                for (List<Integer> scc : sccs) {
+                System.out.println("   Found " + sccs.getNumComponents() + " Strongly Connected Components:");
+                for (List<Integer> scc : sccs.toComponentLists()) {
                     System.out.println("   - Component (size " + scc.size() + "): " + scc);
                 }
-                System.out.println("   Performance: " + sccTracker.getOperations() + ", Time: " + sccTracker.getExecutionTimeNanos() + " ns\n");
+                printCost(run, Pipeline.SCC);
 
 
-                System.out.println("2. Building the Condensation Graph (DAG)...");
-                DirectedGraph condensationGraph = buildCondensationGraph(graph, sccs);
-                System.out.println("   Condensation Graph has " + condensationGraph.getNumVertices() + " vertices (nodes).\n");
+                System.out.println("2. Condensation Graph (DAG):");
+                CsrGraph condensationGraph = run.getCondensation();
+                System.out.println("   Condensation Graph has " + condensationGraph.getNumVertices() + " vertices (nodes).");
+                printCost(run, Pipeline.CONDENSATION);
 
 
-                System.out.println("3. Running Kahn's Algorithm for Topological Sort...");
-                KahnsAlgorithm kahns = new KahnsAlgorithm();
-                PerformanceTracker topoTracker = new PerformanceTracker();
-                List<Integer> topOrder = kahns.topologicalSort(condensationGraph, topoTracker);
+                System.out.println("3. Topological Sort (Kahn's Algorithm):");
+                TopologicalLevels topOrder = run.getOrder();
 
-                if (topOrder != null) {
-                    System.out.println("   Topological order of components: " + topOrder);
-                    System.out.println("   Performance: " + topoTracker.getOperations() + ", Time: " + topoTracker.getExecutionTimeNanos() + " ns\n");
+                if (run.isAcyclic()) {
+                    System.out.println("   Topological order of components: " + Arrays.toString(topOrder.getOrder()));
+                    System.out.println("   Execution waves (depth " + topOrder.getDepth() + ", max width " + topOrder.getMaxWidth() + "):");
+                    for (int level = 0; level < topOrder.getDepth(); level++) {
+                        System.out.println("   - Wave " + level + ": " + Arrays.toString(topOrder.getLevel(level)));
+                    }
+                    printCost(run, Pipeline.TOPO);
 
 
-                    System.out.println("4. Calculating Shortest and Longest Paths on the DAG...");
-                    DagShortestPath dagSp = new DagShortestPath();
+                    System.out.println("4. Shortest and Longest Paths on the DAG:");
+                    int sourceComponent = run.getSourceComponent();
+                    if (sourceComponent != -1) {
+                        System.out.println("   Shortest path distances from component " + sourceComponent + ": "
+                                + formatDistances(run.getShortestPaths(), condensationGraph.getNumVertices()));
+                        printCost(run, Pipeline.SHORTEST_PATH);
+                    }
 
-                    int sourceComponent = topOrder.isEmpty() ? 0 : topOrder.get(0);
+                    PathResult longestPaths = run.getLongestPaths();
+                    int farthest = longestPaths.farthestVertex();
+                    System.out.println("   Longest path (critical path) length: " + run.getCriticalPathLength());
+                    if (farthest != -1) {
+                        System.out.println("   Critical path through components: " + Arrays.toString(longestPaths.pathTo(farthest)));
+                    }
+                    printCost(run, Pipeline.LONGEST_PATH);
 
-                    PerformanceTracker spTracker = new PerformanceTracker();
-                    Map<Integer, Integer> shortestPaths = dagSp.findShortestPaths(condensationGraph, topOrder, sourceComponent, spTracker);
-                    System.out.println("   Shortest path distances from component " + sourceComponent + ": " + shortestPaths);
-                    System.out.println("   Performance: " + spTracker.getOperations() + ", Time: " + spTracker.getExecutionTimeNanos() + " ns\n");
 
-                    PerformanceTracker lpTracker = new PerformanceTracker();
-                    Map<Integer, Integer> longestPaths = dagSp.findLongestPaths(condensationGraph, topOrder, lpTracker);
-                    int criticalPathLength = 0;
-                    for(int dist : longestPaths.values()) if(dist > criticalPathLength) criticalPathLength = dist;
-                    System.out.println("   Longest path (critical path) length: " + criticalPathLength);
-                    System.out.println("   Performance: " + lpTracker.getOperations() + ", Time: " + lpTracker.getExecutionTimeNanos() + " ns");
+                    System.out.println("5. Task Schedule (critical-path method):");
+                    CriticalPathSchedule schedule = run.getSchedule();
+                    System.out.println("   Project length: " + schedule.getProjectLength());
+                    System.out.println("   Critical tasks: " + Arrays.toString(schedule.getCriticalTasks()));
+                    for (int v = 0; v < graph.getNumVertices(); v++) {
+                        System.out.println("   - Task " + v + ": earliest " + schedule.getEarliestStart(v) + ", latest "
+                                + schedule.getLatestStart(v) + ", slack " + schedule.getSlack(v));
+                    }
+                    printCost(run, Pipeline.CPM);
+                    System.out.printf(Locale.ROOT, "   Pipeline total: %d ns, %s%n", run.getTotalNanos(),
+                            run.getAllocatedBytes() < 0 ? "allocation unknown" : run.getAllocatedBytes() + " bytes allocated");
                 } else {
                     System.out.println("   Could not compute topological sort (this indicates an issue in the condensation graph).");
                 }
@@ -104,31 +114,20 @@ public class Main {
         }
     }
 
-    private static DirectedGraph buildCondensationGraph(DirectedGraph originalGraph, List<List<Integer>> sccs) {
-        int numSccs = sccs.size();
-        DirectedGraph condensationGraph = new DirectedGraph(numSccs);
-        int[] vertexToSccId = new int[originalGraph.getNumVertices()];
-        for (int i = 0; i < numSccs; i++) {
-            for (int vertex : sccs.get(i)) {
-                vertexToSccId[vertex] = i;
-            }
-        }
-        Set<String> addedEdges = new HashSet<>();
-        for (int u = 0; u < originalGraph.getNumVertices(); u++) {
-            for (int[] edge : originalGraph.getAdj(u)) {
-                int v = edge[0];
-                int weight = edge[1];
-                int sccU = vertexToSccId[u];
-                int sccV = vertexToSccId[v];
-                if (sccU != sccV) {
-                    String edgeKey = sccU + "->" + sccV;
-                    if (!addedEdges.contains(edgeKey)) {
-                        condensationGraph.addEdge(sccU, sccV, weight);
-                        addedEdges.add(edgeKey);
-                    }
-                }
+    private static void printCost(PipelineResult run, String stage) {
+        PerformanceTracker tracker = run.getStage(stage);
+        System.out.println("   Pipeline stage performance: " + tracker.getOperations() + ", Time: " + tracker.getExecutionTimeNanos()
+                + " ns, Allocated: " + tracker.getAllocatedBytes() + " bytes\n");
+    }
+
+    private static String formatDistances(PathResult paths, int numVertices) {
+        StringBuilder sb = new StringBuilder("{");
+        for (int v = 0; v < numVertices; v++) {
+            if (v > 0) {
+                sb.append(", ");
             }
+            sb.append(v).append('=').append(paths.isReachable(v) ? String.valueOf(paths.getDistance(v)) : "unreachable");
         }
-        return condensationGraph;
+        return sb.append('}').toString();
     }
 }
@@ -0,0 +1,152 @@
+import graph.CsrGraph;
+import graph.JsonGraphLoader;
+import metrics.PerformanceTracker;
+import scc.KosarajuAlgorithm;
+import scc.ParallelSccAlgorithm;
+import scc.SccAlgorithm;
+import scc.SccResult;
+import scc.TarjanAlgorithm;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures ParallelSccAlgorithm from 1 to N threads against the sequential engines, on the
+ * shipped data/ graphs and on generated graphs, both with many planted small components and
+ * with one giant component. Every run is checked
+ * against Kosaraju's partition.
+ *
+ * Usage: SccScalingBenchmark [--vertices=1000000,4000000] [--degree=4] [--threads=8] [--runs=5]
+ */
+public class SccScalingBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int maxThreads = Integer.parseInt(option(args, "--threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+        int runs = Integer.parseInt(option(args, "--runs", "5"));
+        int degree = Integer.parseInt(option(args, "--degree", "4"));
+
+        Map<String, CsrGraph> graphs = new LinkedHashMap<>();
+        File[] jsonFiles = new File("data").listFiles((dir, name) -> name.toLowerCase().endsWith(".json"));
+        if (jsonFiles != null) {
+            Arrays.sort(jsonFiles);
+            for (File jsonFile : jsonFiles) {
+                graphs.put(jsonFile.getName(), new JsonGraphLoader().load(jsonFile, new PerformanceTracker()));
+            }
+        }
+        for (String size : option(args, "--vertices", "1000000,4000000").split(",")) {
+            int V = Integer.parseInt(size.trim());
+            graphs.put("planted_" + V + "_d" + degree, generate(V, degree, 64, 7L * V + degree));
+            graphs.put("uniform_" + V + "_d" + degree, uniform(V, degree, 11L * V + degree));
+        }
+
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int t = 1; t < maxThreads; t *= 2) {
+            threadCounts.add(t);
+        }
+        threadCounts.add(maxThreads);
+
+        // One pool per thread count for the whole run, shut down at the end, so idle workers do
+        // not pile up across graphs.
+        Map<Integer, ForkJoinPool> pools = new LinkedHashMap<>();
+        try {
+            for (int threads : threadCounts) {
+                pools.put(threads, new ForkJoinPool(threads));
+            }
+            System.out.printf("%-32s %10s %10s %-12s %12s %8s%n", "Graph", "Vertices", "Edges", "Engine", "Median_ms", "Speedup");
+            for (Map.Entry<String, CsrGraph> entry : graphs.entrySet()) {
+                CsrGraph graph = entry.getValue();
+                SccResult expected = new KosarajuAlgorithm().findComponents(graph, new PerformanceTracker());
+
+                report(entry.getKey(), graph, "kosaraju", median(new KosarajuAlgorithm(), graph, expected, runs), 0);
+                report(entry.getKey(), graph, "tarjan", median(new TarjanAlgorithm(), graph, expected, runs), 0);
+                double single = 0;
+                for (int threads : threadCounts) {
+                    double ms = median(new ParallelSccAlgorithm(pools.get(threads)), graph, expected, runs);
+                    if (threads == 1) {
+                        single = ms;
+                    }
+                    report(entry.getKey(), graph, "parallel-" + threads, ms, single / ms);
+                }
+            }
+        } finally {
+            for (ForkJoinPool pool : pools.values()) {
+                pool.shutdown();
+            }
+        }
+    }
+
+
+    private static double median(SccAlgorithm algorithm, CsrGraph graph, SccResult expected, int runs) {
+        for (int i = 0; i < 3; i++) {
+            algorithm.findComponents(graph, new PerformanceTracker());
+        }
+        double[] times = new double[runs];
+        for (int i = 0; i < runs; i++) {
+            PerformanceTracker tracker = new PerformanceTracker();
+            SccResult result = algorithm.findComponents(graph, tracker);
+            if (!result.samePartitionAs(expected)) {
+                throw new IllegalStateException(algorithm.getClass().getSimpleName() + " disagrees with Kosaraju");
+            }
+            times[i] = tracker.getExecutionTimeNanos() / 1e6;
+        }
+        Arrays.sort(times);
+        return times[runs / 2];
+    }
+
+    private static void report(String name, CsrGraph graph, String engine, double ms, double speedup) {
+        System.out.printf("%-32s %10d %10d %-12s %12.3f %8s%n", name, graph.getNumVertices(), graph.getNumEdges(),
+                engine, ms, speedup > 0 ? String.format("%.2fx", speedup) : "-");
+    }
+
+
+    /**
+     * Planted-partition graph: vertices are cut into cycles of random size up to
+     * {@code maxComponent}, and the remaining edges only point from earlier to later clusters.
+     */
+    static CsrGraph generate(int V, int degree, int maxComponent, long seed) {
+        Random random = new Random(seed);
+        CsrGraph.Builder builder = new CsrGraph.Builder(V, V * degree);
+        int[] clusterStart = new int[V];
+        int start = 0;
+        while (start < V) {
+            int size = Math.min(V - start, 1 + random.nextInt(maxComponent));
+            for (int i = 0; i < size; i++) {
+                clusterStart[start + i] = start;
+                if (size > 1) {
+                    builder.addEdge(start + i, start + (i + 1) % size, 1 + random.nextInt(100));
+                }
+            }
+            start += size;
+        }
+        for (int u = 0; u < V - 1; u++) {
+            for (int k = 1; k < degree; k++) {
+                int v = u + 1 + random.nextInt(Math.min(V - u - 1, 4096));
+                if (clusterStart[v] != clusterStart[u]) {
+                    builder.addEdge(u, v, 1 + random.nextInt(100));
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /** Uniform random digraph; at average degree above one most vertices fall into one giant component. */
+    static CsrGraph uniform(int V, int degree, long seed) {
+        Random random = new Random(seed);
+        CsrGraph.Builder builder = new CsrGraph.Builder(V, V * degree);
+        for (long i = 0; i < (long) V * degree; i++) {
+            builder.addEdge(random.nextInt(V), random.nextInt(V), 1 + random.nextInt(100));
+        }
+        return builder.build();
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        for (String arg : args) {
+            if (arg.startsWith(name + "=")) {
+                return arg.substring(name.length() + 1);
+            }
+        }
+        return defaultValue;
+    }
+}
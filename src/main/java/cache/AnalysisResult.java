@@ -0,0 +1,134 @@
+package cache;
+
+import graph.CsrGraph;
+import scc.SccResult;
+import topo.TopologicalOrder;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Everything the pipeline derives from one graph that is worth keeping: the component
+ * mapping, the condensation, its topological order and the per-stage metrics of the run that
+ * produced them, together with the {@link GraphHash.Fingerprint} of the graph and settings
+ * they belong to.
+ */
+public class AnalysisResult {
+    private static final int MAGIC = 0x52534C54; // "RSLT"
+    private static final int VERSION = 2;
+
+    private final GraphHash.Fingerprint fingerprint;
+    private final SccResult components;
+    private final CsrGraph condensation;
+    private final TopologicalOrder order;
+    private final Map<String, Long> metrics;
+
+    public AnalysisResult(GraphHash.Fingerprint fingerprint, SccResult components, CsrGraph condensation,
+                          TopologicalOrder order, Map<String, Long> metrics) {
+        this.fingerprint = fingerprint;
+        this.components = components;
+        this.condensation = condensation;
+        this.order = order;
+        this.metrics = Collections.unmodifiableMap(new LinkedHashMap<>(metrics));
+    }
+
+    public GraphHash.Fingerprint getFingerprint() {
+        return fingerprint;
+    }
+
+    public SccResult getComponents() {
+        return components;
+    }
+
+    public CsrGraph getCondensation() {
+        return condensation;
+    }
+
+    public TopologicalOrder getOrder() {
+        return order;
+    }
+
+    public Map<String, Long> getMetrics() {
+        return metrics;
+    }
+
+    /** Approximate heap footprint, used for the cache's size bound. */
+    public long sizeBytes() {
+        long ints = components.getComponentOf().length
+                + condensation.getNumVertices() + 1L
+                + 2L * condensation.getNumEdges()
+                + order.getOrder().length;
+        return 4 * ints + 64L * metrics.size() + 256;
+    }
+
+
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(fingerprint.getVertices());
+        out.writeInt(fingerprint.getEdges());
+        out.writeLong(fingerprint.getHash());
+        out.writeLong(fingerprint.getCheck());
+        out.writeInt(components.getNumComponents());
+        writeInts(out, components.getComponentOf());
+        writeInts(out, condensation.offsets());
+        writeInts(out, condensation.targets());
+        writeInts(out, condensation.weights());
+        out.writeInt(order.getSourceCount());
+        writeInts(out, order.getOrder());
+        out.writeInt(metrics.size());
+        for (Map.Entry<String, Long> metric : metrics.entrySet()) {
+            out.writeUTF(metric.getKey());
+            out.writeLong(metric.getValue());
+        }
+    }
+
+    static AnalysisResult readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Not a cached analysis result");
+        }
+        GraphHash.Fingerprint fingerprint = new GraphHash.Fingerprint(in.readInt(), in.readInt(), in.readLong(), in.readLong());
+        int numComponents = in.readInt();
+        int[] componentOf = readInts(in);
+        int[] offsets = readInts(in);
+        int[] targets = readInts(in);
+        int[] weights = readInts(in);
+        int sourceCount = in.readInt();
+        int[] order = readInts(in);
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        for (int i = in.readInt(); i > 0; i--) {
+            metrics.put(in.readUTF(), in.readLong());
+        }
+        CsrGraph condensation;
+        try {
+            condensation = CsrGraph.fromArrays(numComponents, offsets, targets, weights);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IOException("Corrupt cached condensation: " + e.getMessage(), e);
+        }
+        return new AnalysisResult(fingerprint, new SccResult(componentOf, numComponents), condensation,
+                new TopologicalOrder(order, sourceCount, numComponents), metrics);
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static int[] readInts(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Negative array length " + length);
+        }
+        int[] values = new int[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+}
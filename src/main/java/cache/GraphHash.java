@@ -0,0 +1,121 @@
+package cache;
+
+import graph.CompactGraph;
+
+/**
+ * 64-bit content hash of a graph's structure: vertex count, adjacency ranges, targets and
+ * weights. It depends only on the graph, so a JSON file and its binary conversion hash alike.
+ * A {@link Fingerprint} adds the sizes and a second hash computed independently in the same
+ * pass, so a cache can tell a colliding key from the graph it was stored for.
+ */
+public final class GraphHash {
+    private static final long MULTIPLIER = 0x9E3779B97F4A7C15L;
+    private static final long CHECK_MULTIPLIER = 0xC2B2AE3D27D4EB4FL;
+
+    private GraphHash() {
+    }
+
+    public static long of(CompactGraph graph) {
+        return fingerprint(graph).getHash();
+    }
+
+    public static Fingerprint fingerprint(CompactGraph graph) {
+        int V = graph.getNumVertices();
+        int E = graph.getNumEdges();
+        long h = mix(V, E);
+        long check = checkMix(E, V);
+        for (int u = 0; u < V; u++) {
+            int end = graph.endEdge(u);
+            h = mix(h, end);
+            check = checkMix(check, end);
+            for (int e = graph.firstEdge(u); e < end; e++) {
+                long edge = ((long) graph.target(e) << 32) | (graph.weight(e) & 0xFFFFFFFFL);
+                h = mix(h, edge);
+                check = checkMix(check, edge);
+            }
+        }
+        return new Fingerprint(V, E, finish(h), finish(check ^ CHECK_MULTIPLIER));
+    }
+
+    /** Combines a graph hash with the settings the cached results depend on. */
+    public static long withVariant(long graphHash, String variant) {
+        return finish(mix(graphHash, variant.hashCode()));
+    }
+
+    private static long mix(long h, long value) {
+        return Long.rotateLeft((h ^ value) * MULTIPLIER, 31);
+    }
+
+    private static long checkMix(long h, long value) {
+        return Long.rotateLeft(h + value * CHECK_MULTIPLIER, 27) * 5 + 0x52DCE729;
+    }
+
+    private static long finish(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+
+    /** What a cached result was computed for: the graph's sizes, its hash and an independent check hash. */
+    public static final class Fingerprint {
+        private final int vertices;
+        private final int edges;
+        private final long hash;
+        private final long check;
+
+        public Fingerprint(int vertices, int edges, long hash, long check) {
+            this.vertices = vertices;
+            this.edges = edges;
+            this.hash = hash;
+            this.check = check;
+        }
+
+        /** The same graph under different settings; both hashes take the variant. */
+        public Fingerprint withVariant(String variant) {
+            long variantCheck = 0;
+            for (int i = 0; i < variant.length(); i++) {
+                variantCheck = checkMix(variantCheck, variant.charAt(i));
+            }
+            return new Fingerprint(vertices, edges, GraphHash.withVariant(hash, variant), finish(checkMix(check, variantCheck)));
+        }
+
+        public int getVertices() {
+            return vertices;
+        }
+
+        public int getEdges() {
+            return edges;
+        }
+
+        /** The cache key. */
+        public long getHash() {
+            return hash;
+        }
+
+        public long getCheck() {
+            return check;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Fingerprint)) {
+                return false;
+            }
+            Fingerprint other = (Fingerprint) o;
+            return vertices == other.vertices && edges == other.edges && hash == other.hash && check == other.check;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(hash);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("V=%d E=%d %016x/%016x", vertices, edges, hash, check);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Analysis results keyed by {@link GraphHash}. The in-memory tier is an LRU map bounded by the
+ * results' estimated size; the optional disk tier keeps one file per key in a directory, so
+ * results survive between runs. A disk hit is promoted back into memory. A result is only
+ * returned when its whole {@link GraphHash.Fingerprint} matches the one asked for; a colliding
+ * key or a stale file counts as a miss. Thread-safe; disk reads and writes happen outside the
+ * lock.
+ */
+public class ResultCache {
+    private final long maxBytes;
+    private final File directory;
+    private final LinkedHashMap<Long, AnalysisResult> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private long hits;
+    private long diskHits;
+    private long misses;
+    private long mismatches;
+    private long evictions;
+
+    /** @param directory disk tier, or null to keep results in memory only */
+    public ResultCache(long maxBytes, File directory) {
+        this.maxBytes = maxBytes;
+        this.directory = directory;
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalArgumentException("Cannot create cache directory " + directory);
+        }
+    }
+
+    /** The result cached for {@code fingerprint} from memory or disk, or null on a miss. */
+    public AnalysisResult get(GraphHash.Fingerprint fingerprint) {
+        long key = fingerprint.getHash();
+        synchronized (this) {
+            AnalysisResult result = entries.get(key);
+            if (result != null) {
+                if (result.getFingerprint().equals(fingerprint)) {
+                    hits++;
+                    return result;
+                }
+                mismatches++;
+                misses++;
+                return null;
+            }
+            if (directory == null) {
+                misses++;
+                return null;
+            }
+        }
+        AnalysisResult loaded = readFromDisk(key);
+        synchronized (this) {
+            if (loaded == null || !loaded.getFingerprint().equals(fingerprint)) {
+                if (loaded != null) {
+                    mismatches++;
+                }
+                misses++;
+                return null;
+            }
+            diskHits++;
+            // Another thread may have loaded or computed the same result meanwhile.
+            AnalysisResult current = entries.get(key);
+            if (current != null && current.getFingerprint().equals(fingerprint)) {
+                return current;
+            }
+            admit(key, loaded);
+            return loaded;
+        }
+    }
+
+    /** Stores {@code result} under its fingerprint's hash. */
+    public void put(AnalysisResult result) {
+        long key = result.getFingerprint().getHash();
+        synchronized (this) {
+            admit(key, result);
+        }
+        // Disk writes happen outside the lock; each key has its own file.
+        writeToDisk(key, result);
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getDiskHits() {
+        return diskHits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /** Lookups whose key matched a result stored for a different graph or settings. */
+    public synchronized long getMismatches() {
+        return mismatches;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+
+    private void admit(long key, AnalysisResult result) {
+        AnalysisResult previous = entries.put(key, result);
+        if (previous != null) {
+            bytes -= previous.sizeBytes();
+        }
+        bytes += result.sizeBytes();
+        // The newest entry is kept even when it alone exceeds the bound.
+        Iterator<Map.Entry<Long, AnalysisResult>> eldest = entries.entrySet().iterator();
+        while (bytes > maxBytes && entries.size() > 1) {
+            Map.Entry<Long, AnalysisResult> entry = eldest.next();
+            bytes -= entry.getValue().sizeBytes();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private File fileFor(long key) {
+        return new File(directory, String.format("%016x.result", key));
+    }
+
+    private AnalysisResult readFromDisk(long key) {
+        if (directory == null) {
+            return null;
+        }
+        File file = fileFor(key);
+        if (!file.isFile()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            return AnalysisResult.readFrom(in);
+        } catch (IOException e) {
+            System.err.println("Ignoring unreadable cache file " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeToDisk(long key, AnalysisResult result) {
+        if (directory == null) {
+            return;
+        }
+        File file = fileFor(key);
+        File temp = new File(directory, file.getName() + "." + Thread.currentThread().getId() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            result.writeTo(out);
+        } catch (IOException e) {
+            System.err.println("Could not write cache file " + file + ": " + e.getMessage());
+            temp.delete();
+            return;
+        }
+        // Readers never see a half-written file.
+        if (!temp.renameTo(file)) {
+            file.delete();
+            if (!temp.renameTo(file)) {
+                temp.delete();
+            }
+        }
+    }
+}
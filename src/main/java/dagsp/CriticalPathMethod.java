@@ -0,0 +1,92 @@
+package dagsp;
+
+import graph.CompactGraph;
+import metrics.Counter;
+import metrics.PerformanceTracker;
+import scc.SccResult;
+import topo.TopologicalOrder;
+
+/**
+ * Critical-path method over the condensation. Each component is a task, and an edge weight is
+ * the lag between the start of one task and the start of the next. The forward pass over the
+ * topological order gives the earliest start of every component (sources start at 0), and
+ * the backward pass gives the latest start that does not delay the project. Vertices of one
+ * component share its schedule.
+ */
+public class CriticalPathMethod {
+
+    public CriticalPathSchedule schedule(CompactGraph condensation, TopologicalOrder topOrder, SccResult sccs,
+                                         PerformanceTracker tracker) {
+        checkOrder(condensation, topOrder);
+        tracker.start();
+        Counter forwardRelaxations = tracker.counter("relaxations_longest");
+        int C = condensation.getNumVertices();
+        int[] order = topOrder.getOrder();
+        long[] earliest = new long[C];
+
+        // Sources stay at 0; everything else is reached from one, so the minimum is always replaced.
+        long relaxed = 0;
+        for (int i = topOrder.getSourceCount(); i < C; i++) {
+            earliest[order[i]] = Long.MIN_VALUE;
+        }
+        for (int u : order) {
+            long eu = earliest[u];
+            for (int e = condensation.firstEdge(u), end = condensation.endEdge(u); e < end; e++) {
+                int v = condensation.target(e);
+                long candidate = eu + condensation.weight(e);
+                if (candidate > earliest[v]) {
+                    earliest[v] = candidate;
+                    relaxed++;
+                }
+            }
+        }
+        forwardRelaxations.add(relaxed);
+        return backwardPass(condensation, order, sccs, earliest, tracker);
+    }
+
+    /**
+     * Schedule from longest paths already computed by {@link DagShortestPath#longestPaths}, which
+     * are exactly the earliest starts; only the backward pass runs. The distances are shared, not copied.
+     */
+    public CriticalPathSchedule schedule(CompactGraph condensation, TopologicalOrder topOrder, SccResult sccs,
+                                         PathResult longestPaths, PerformanceTracker tracker) {
+        checkOrder(condensation, topOrder);
+        tracker.start();
+        return backwardPass(condensation, topOrder.getOrder(), sccs, longestPaths.getDistances(), tracker);
+    }
+
+    private static void checkOrder(CompactGraph condensation, TopologicalOrder topOrder) {
+        if (!topOrder.isAcyclic() || topOrder.getNumVertices() != condensation.getNumVertices()) {
+            throw new IllegalArgumentException("The critical-path method needs a complete topological order");
+        }
+    }
+
+    private static CriticalPathSchedule backwardPass(CompactGraph condensation, int[] order, SccResult sccs,
+                                                     long[] earliest, PerformanceTracker tracker) {
+        Counter backwardRelaxations = tracker.counter("relaxations_backward");
+        int C = condensation.getNumVertices();
+        long[] latest = new long[C];
+        long projectLength = 0;
+        for (long start : earliest) {
+            projectLength = Math.max(projectLength, start);
+        }
+
+        long relaxed = 0;
+        for (int i = C - 1; i >= 0; i--) {
+            int u = order[i];
+            long lu = projectLength;
+            for (int e = condensation.firstEdge(u), end = condensation.endEdge(u); e < end; e++) {
+                long candidate = latest[condensation.target(e)] - condensation.weight(e);
+                if (candidate < lu) {
+                    lu = candidate;
+                    relaxed++;
+                }
+            }
+            latest[u] = lu;
+        }
+        backwardRelaxations.add(relaxed);
+
+        tracker.stop();
+        return new CriticalPathSchedule(sccs.getComponentOf(), earliest, latest, projectLength);
+    }
+}
@@ -0,0 +1,78 @@
+package dagsp;
+
+import java.util.Arrays;
+
+/**
+ * Earliest start, latest start and slack of every task, for both the components of the
+ * condensation and the original vertices. A task is critical when its slack is zero.
+ */
+public class CriticalPathSchedule {
+    private final int[] componentOf;
+    private final long[] earliest;
+    private final long[] latest;
+    private final long projectLength;
+
+    CriticalPathSchedule(int[] componentOf, long[] earliest, long[] latest, long projectLength) {
+        this.componentOf = componentOf;
+        this.earliest = earliest;
+        this.latest = latest;
+        this.projectLength = projectLength;
+    }
+
+    /** Latest earliest start over all tasks; equals the critical path length, and 0 for an empty graph. */
+    public long getProjectLength() {
+        return projectLength;
+    }
+
+    public long getEarliestStart(int vertex) {
+        return earliest[componentOf[vertex]];
+    }
+
+    public long getLatestStart(int vertex) {
+        return latest[componentOf[vertex]];
+    }
+
+    public long getSlack(int vertex) {
+        return getComponentSlack(componentOf[vertex]);
+    }
+
+    public boolean isCritical(int vertex) {
+        return getSlack(vertex) == 0;
+    }
+
+    public long getComponentEarliestStart(int component) {
+        return earliest[component];
+    }
+
+    public long getComponentLatestStart(int component) {
+        return latest[component];
+    }
+
+    public long getComponentSlack(int component) {
+        return latest[component] - earliest[component];
+    }
+
+    /** Original vertices with zero slack, in increasing order. */
+    public int[] getCriticalTasks() {
+        int[] tasks = new int[componentOf.length];
+        int count = 0;
+        for (int v = 0; v < componentOf.length; v++) {
+            if (getComponentSlack(componentOf[v]) == 0) {
+                tasks[count++] = v;
+            }
+        }
+        return Arrays.copyOf(tasks, count);
+    }
+
+    /** Components with zero slack, in increasing order. */
+    public int[] getCriticalComponents() {
+        int[] components = new int[earliest.length];
+        int count = 0;
+        for (int c = 0; c < earliest.length; c++) {
+            if (latest[c] == earliest[c]) {
+                components[count++] = c;
+            }
+        }
+        return Arrays.copyOf(components, count);
+    }
+}
@@ -1,70 +1,178 @@
 package dagsp;
 
+import graph.CompactGraph;
 import graph.DirectedGraph;
+import graph.EdgeCursor;
+import graph.SequentialGraph;
+import metrics.Counter;
 import metrics.PerformanceTracker;
+import topo.TopologicalOrder;
 
 import java.util.*;
 
 public class DagShortestPath {
 
     public Map<Integer, Integer> findShortestPaths(DirectedGraph dag, List<Integer> topOrder, int source, PerformanceTracker tracker) {
+        return findShortestPaths(dag.toCsr(), topOrder, source, tracker);
+    }
+
+
+    public Map<Integer, Integer> findShortestPaths(CompactGraph dag, List<Integer> topOrder, int source, PerformanceTracker tracker) {
         tracker.start();
+        Counter relaxations = tracker.counter("relaxations");
+        long relaxed = 0;
         int V = dag.getNumVertices();
-        Map<Integer, Integer> distances = new HashMap<>();
-        for (int i = 0; i < V; i++) {
-            distances.put(i, Integer.MAX_VALUE);
-        }
-        distances.put(source, 0);
+        int[] dist = new int[V];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        dist[source] = 0;
 
 
         for (int u : topOrder) {
-            if (distances.get(u) != Integer.MAX_VALUE) {
-                for (int[] edge : dag.getAdj(u)) {
-                    int v = edge[0];
-                    int weight = edge[1];
-
-                    if (distances.get(u) + weight < distances.get(v)) {
-                        distances.put(v, distances.get(u) + weight);
-                        tracker.incrementOperation("relaxations");
+            if (dist[u] != Integer.MAX_VALUE) {
+                for (int e = dag.firstEdge(u), end = dag.endEdge(u); e < end; e++) {
+                    int v = dag.target(e);
+                    int weight = dag.weight(e);
+
+                    if (dist[u] + weight < dist[v]) {
+                        dist[v] = dist[u] + weight;
+                        relaxed++;
                     }
                 }
             }
         }
 
+        relaxations.add(relaxed);
         tracker.stop();
-        return distances;
+        return toMap(dist);
     }
 
 
     public Map<Integer, Integer> findLongestPaths(DirectedGraph dag, List<Integer> topOrder, PerformanceTracker tracker) {
+        return findLongestPaths(dag.toCsr(), topOrder, tracker);
+    }
+
+
+    public Map<Integer, Integer> findLongestPaths(CompactGraph dag, List<Integer> topOrder, PerformanceTracker tracker) {
         tracker.start();
+        Counter relaxations = tracker.counter("relaxations_longest");
+        long relaxed = 0;
         int V = dag.getNumVertices();
-        Map<Integer, Integer> distances = new HashMap<>();
-        for (int i = 0; i < V; i++) {
-            distances.put(i, Integer.MIN_VALUE);
-        }
+        int[] dist = new int[V];
+        Arrays.fill(dist, Integer.MIN_VALUE);
 
 
         int[] inDegree = new int[V];
-        for (int i = 0; i < V; i++) for (int[] edge : dag.getAdj(i)) inDegree[edge[0]]++;
-        for(int i = 0; i < V; i++) if(inDegree[i] == 0) distances.put(i, 0);
+        for (int e = 0, E = dag.getNumEdges(); e < E; e++) inDegree[dag.target(e)]++;
+        for (int i = 0; i < V; i++) if (inDegree[i] == 0) dist[i] = 0;
 
 
         for (int u : topOrder) {
-            if (distances.get(u) != Integer.MIN_VALUE) {
-                for (int[] edge : dag.getAdj(u)) {
-                    int v = edge[0];
-                    int weight = edge[1];
-
-                    if (distances.get(u) + weight > distances.get(v)) {
-                        distances.put(v, distances.get(u) + weight);
-                        tracker.incrementOperation("relaxations_longest");
+            if (dist[u] != Integer.MIN_VALUE) {
+                for (int e = dag.firstEdge(u), end = dag.endEdge(u); e < end; e++) {
+                    int v = dag.target(e);
+                    int weight = dag.weight(e);
+
+                    if (dist[u] + weight > dist[v]) {
+                        dist[v] = dist[u] + weight;
+                        relaxed++;
                     }
                 }
             }
         }
 
+        relaxations.add(relaxed);
+        tracker.stop();
+        return toMap(dist);
+    }
+
+
+    /**
+     * Shortest distances from {@code source} using {@code long} distances and a predecessor
+     * array, so the actual paths can be rebuilt from the result. Edges are read through an
+     * {@link EdgeCursor}, so any {@link SequentialGraph} works.
+     */
+    public PathResult shortestPaths(SequentialGraph dag, TopologicalOrder topOrder, int source, PerformanceTracker tracker) {
+        tracker.start();
+        Counter relaxations = tracker.counter("relaxations");
+        long relaxed = 0;
+        int V = dag.getNumVertices();
+        long[] dist = new long[V];
+        int[] pred = new int[V];
+        Arrays.fill(dist, Long.MAX_VALUE);
+        Arrays.fill(pred, -1);
+        dist[source] = 0;
+
+        EdgeCursor edges = dag.edgeCursor();
+        for (int u : topOrder.getOrder()) {
+            long du = dist[u];
+            if (du == Long.MAX_VALUE) {
+                continue;
+            }
+            edges.reset(u);
+            while (edges.hasNext()) {
+                int v = edges.nextTarget();
+                long candidate = du + edges.weight();
+                if (candidate < dist[v]) {
+                    dist[v] = candidate;
+                    pred[v] = u;
+                    relaxed++;
+                }
+            }
+        }
+
+        relaxations.add(relaxed);
+        tracker.stop();
+        return new PathResult(dist, pred, Long.MAX_VALUE);
+    }
+
+
+    /**
+     * Longest distances from any source. The sources are the leading in-degree-zero block of
+     * the Kahn order, so no in-degree pass is repeated here.
+     */
+    public PathResult longestPaths(SequentialGraph dag, TopologicalOrder topOrder, PerformanceTracker tracker) {
+        tracker.start();
+        Counter relaxations = tracker.counter("relaxations_longest");
+        long relaxed = 0;
+        int V = dag.getNumVertices();
+        long[] dist = new long[V];
+        int[] pred = new int[V];
+        Arrays.fill(dist, Long.MIN_VALUE);
+        Arrays.fill(pred, -1);
+        int[] order = topOrder.getOrder();
+        for (int i = 0; i < topOrder.getSourceCount(); i++) {
+            dist[order[i]] = 0;
+        }
+
+        EdgeCursor edges = dag.edgeCursor();
+        for (int u : order) {
+            long du = dist[u];
+            if (du == Long.MIN_VALUE) {
+                continue;
+            }
+            edges.reset(u);
+            while (edges.hasNext()) {
+                int v = edges.nextTarget();
+                long candidate = du + edges.weight();
+                if (candidate > dist[v]) {
+                    dist[v] = candidate;
+                    pred[v] = u;
+                    relaxed++;
+                }
+            }
+        }
+
+        relaxations.add(relaxed);
         tracker.stop();
+        return new PathResult(dist, pred, Long.MIN_VALUE);
+    }
+
+
+    private static Map<Integer, Integer> toMap(int[] dist) {
+        Map<Integer, Integer> distances = new HashMap<>();
+        for (int i = 0; i < dist.length; i++) {
+            distances.put(i, dist[i]);
+        }
         return distances;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,61 @@
+package dagsp;
+
+/**
+ * Single-source or all-sources path distances over a DAG, kept in primitive arrays.
+ * Distances are {@code long}, so sums of {@code int} weights cannot overflow.
+ * {@code predecessor[v]} is the vertex the best path to {@code v} arrives from, or -1.
+ */
+public class PathResult {
+    private final long[] distance;
+    private final int[] predecessor;
+    private final long unreachable;
+
+    PathResult(long[] distance, int[] predecessor, long unreachable) {
+        this.distance = distance;
+        this.predecessor = predecessor;
+        this.unreachable = unreachable;
+    }
+
+    public long getDistance(int v) {
+        return distance[v];
+    }
+
+    public long[] getDistances() {
+        return distance;
+    }
+
+    public int getPredecessor(int v) {
+        return predecessor[v];
+    }
+
+    public boolean isReachable(int v) {
+        return distance[v] != unreachable;
+    }
+
+    /** Vertices of the best path ending at {@code v}, first to last; empty if unreachable. */
+    public int[] pathTo(int v) {
+        if (!isReachable(v)) {
+            return new int[0];
+        }
+        int length = 0;
+        for (int x = v; x != -1; x = predecessor[x]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int x = v; x != -1; x = predecessor[x]) {
+            path[--length] = x;
+        }
+        return path;
+    }
+
+    /** Reachable vertex with the largest distance, or -1 if none is reachable. */
+    public int farthestVertex() {
+        int best = -1;
+        for (int v = 0; v < distance.length; v++) {
+            if (isReachable(v) && (best == -1 || distance[v] > distance[best])) {
+                best = v;
+            }
+        }
+        return best;
+    }
+}
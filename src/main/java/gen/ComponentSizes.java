@@ -0,0 +1,89 @@
+package gen;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Distribution of planted SCC sizes for {@link GraphGenerator#cyclic}:
+ * {@code fixed:k}, {@code uniform:max} (1 to max) or {@code powerlaw:alpha:max}
+ * (P(size = s) proportional to s^-alpha, capped at max).
+ */
+public abstract class ComponentSizes {
+
+    abstract int next(SplittableRandom random);
+
+    public static ComponentSizes fixed(int size) {
+        checkPositive(size);
+        return new ComponentSizes() {
+            @Override
+            int next(SplittableRandom random) {
+                return size;
+            }
+
+            @Override
+            public String toString() {
+                return "fixed:" + size;
+            }
+        };
+    }
+
+    public static ComponentSizes uniform(int max) {
+        checkPositive(max);
+        return new ComponentSizes() {
+            @Override
+            int next(SplittableRandom random) {
+                return 1 + random.nextInt(max);
+            }
+
+            @Override
+            public String toString() {
+                return "uniform:" + max;
+            }
+        };
+    }
+
+    public static ComponentSizes powerLaw(double alpha, int max) {
+        checkPositive(max);
+        if (alpha <= 1) {
+            throw new IllegalArgumentException("Power-law exponent must exceed 1: " + alpha);
+        }
+        return new ComponentSizes() {
+            @Override
+            int next(SplittableRandom random) {
+                // Inverse transform of the continuous Pareto with minimum 1, rounded down.
+                double size = Math.pow(1 - random.nextDouble(), -1 / (alpha - 1));
+                return (int) Math.min(max, size);
+            }
+
+            @Override
+            public String toString() {
+                return "powerlaw:" + alpha + ":" + max;
+            }
+        };
+    }
+
+    public static ComponentSizes parse(String spec) {
+        String[] parts = spec.toLowerCase(Locale.ROOT).split(":");
+        try {
+            switch (parts[0]) {
+                case "fixed":
+                    return fixed(Integer.parseInt(parts[1]));
+                case "uniform":
+                    return uniform(Integer.parseInt(parts[1]));
+                case "powerlaw":
+                    return powerLaw(Double.parseDouble(parts[1]), Integer.parseInt(parts[2]));
+                default:
+                    break;
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException("Bad component size spec: " + spec, e);
+        }
+        throw new IllegalArgumentException("Unknown component size distribution: " + spec);
+    }
+
+    private static void checkPositive(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Component size must be positive: " + size);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package gen;
+
+import java.io.IOException;
+
+/** Receives generated edges, grouped by source vertex in increasing order. */
+@FunctionalInterface
+public interface EdgeSink {
+
+    void edge(int u, int v, int weight) throws IOException;
+}
@@ -0,0 +1,47 @@
+package gen;
+
+import graph.BinaryGraphWriter;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/** Streams a generator straight to disk, in the binary format for {@code .bin} files and as JSON otherwise. */
+public final class GraphFiles {
+
+    private GraphFiles() {
+    }
+
+    /** Returns the number of edges written. */
+    public static long write(GraphGenerator generator, File file) throws IOException {
+        if (file.getName().toLowerCase().endsWith(".bin")) {
+            try (BinaryGraphWriter writer = new BinaryGraphWriter(file, generator.getNumVertices())) {
+                return generator.generate(writer::addEdge);
+            }
+        }
+        return writeJson(generator, file);
+    }
+
+    /** Same layout as the shipped data/ files: {@code {"vertices": V, "edges": [[u,v,w], ...]}}. */
+    private static long writeJson(GraphGenerator generator, File file) throws IOException {
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8), 1 << 16)) {
+            out.write("{ \"vertices\": " + generator.getNumVertices() + ", \"edges\": [");
+            long[] count = new long[1];
+            generator.generate((u, v, w) -> {
+                out.write(count[0]++ == 0 ? "\n  [" : ",\n  [");
+                out.write(Integer.toString(u));
+                out.write(',');
+                out.write(Integer.toString(v));
+                out.write(',');
+                out.write(Integer.toString(w));
+                out.write(']');
+            });
+            out.write("\n]}\n");
+            return count[0];
+        }
+    }
+}
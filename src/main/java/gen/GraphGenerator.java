@@ -0,0 +1,219 @@
+package gen;
+
+import graph.CsrGraph;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded synthetic graphs that are emitted edge by edge instead of built in memory, so their
+ * size is bounded only by where the edges go. Edges come out grouped by source vertex in
+ * increasing order, and the same seed always reproduces the same edges, so a sink may ask
+ * for several passes. Weights are uniform in 1..100.
+ */
+public abstract class GraphGenerator {
+    final int V;
+    final double degree;
+    final long seed;
+
+    GraphGenerator(int V, double degree, long seed) {
+        if (V < 0 || degree < 0) {
+            throw new IllegalArgumentException("Vertex count and degree must be non-negative");
+        }
+        this.V = V;
+        this.degree = degree;
+        this.seed = seed;
+    }
+
+    public int getNumVertices() {
+        return V;
+    }
+
+    /** Emits every edge to {@code sink} and returns how many there were. */
+    public abstract long generate(EdgeSink sink) throws IOException;
+
+    /** Short description for file names and reports, e.g. {@code dag_v1000_d4.0_s42}. */
+    public abstract String describe();
+
+    public CsrGraph toCsr() {
+        CsrGraph.Builder builder = new CsrGraph.Builder(V, (int) Math.min(Integer.MAX_VALUE - 8, (long) (V * degree)));
+        try {
+            generate(builder::addEdge);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return builder.build();
+    }
+
+
+    /** Uniform DAG: every edge goes from a vertex to a uniformly chosen later one. */
+    public static GraphGenerator dag(int V, double degree, long seed) {
+        return new GraphGenerator(V, degree, seed) {
+            @Override
+            public long generate(EdgeSink sink) throws IOException {
+                SplittableRandom random = new SplittableRandom(seed);
+                long E = 0;
+                for (int u = 0; u < V - 1; u++) {
+                    for (int k = sampleDegree(random); k > 0; k--) {
+                        sink.edge(u, u + 1 + random.nextInt(V - u - 1), weight(random));
+                        E++;
+                    }
+                }
+                return E;
+            }
+
+            @Override
+            public String describe() {
+                return name("dag");
+            }
+        };
+    }
+
+    /**
+     * Vertices are cut into consecutive clusters with sizes drawn from {@code sizes}; each
+     * cluster is closed into a cycle, and all other edges point to a later cluster, so the
+     * SCCs are exactly the clusters. {@code degree} counts the cycle edge.
+     */
+    public static GraphGenerator cyclic(int V, double degree, ComponentSizes sizes, long seed) {
+        return new GraphGenerator(V, degree, seed) {
+            @Override
+            public long generate(EdgeSink sink) throws IOException {
+                SplittableRandom random = new SplittableRandom(seed);
+                long E = 0;
+                int start = 0;
+                while (start < V) {
+                    int end = (int) Math.min(V, (long) start + sizes.next(random));
+                    for (int u = start; u < end; u++) {
+                        int k = sampleDegree(random);
+                        if (end - start > 1) {
+                            sink.edge(u, u + 1 < end ? u + 1 : start, weight(random));
+                            E++;
+                            k--;
+                        }
+                        for (; k > 0 && end < V; k--) {
+                            sink.edge(u, end + random.nextInt(V - end), weight(random));
+                            E++;
+                        }
+                    }
+                    start = end;
+                }
+                return E;
+            }
+
+            @Override
+            public String describe() {
+                return name("cyclic") + "_" + sizes.toString().replace(':', '-');
+            }
+        };
+    }
+
+    /**
+     * Out-degrees follow a discrete Pareto law with the given exponent and a mean near
+     * {@code degree}; targets are skewed towards low vertex ids, which become the hubs.
+     * Edges may point anywhere, so the graph usually has one giant component.
+     */
+    public static GraphGenerator powerLaw(int V, double degree, double exponent, long seed) {
+        if (exponent <= 2) {
+            throw new IllegalArgumentException("Power-law exponent must exceed 2 for a finite mean degree: " + exponent);
+        }
+        return new GraphGenerator(V, degree, seed) {
+            @Override
+            public long generate(EdgeSink sink) throws IOException {
+                SplittableRandom random = new SplittableRandom(seed);
+                // Pareto minimum chosen so that the mean out-degree is about 'degree'.
+                double minimum = degree * (exponent - 2) / (exponent - 1);
+                double targetSkew = exponent - 1;
+                long E = 0;
+                for (int u = 0; u < V; u++) {
+                    double draw = minimum * Math.pow(1 - random.nextDouble(), -1 / (exponent - 1));
+                    int k = (int) Math.min(V, draw);
+                    for (; k > 0; k--) {
+                        int v = (int) (V * Math.pow(random.nextDouble(), targetSkew));
+                        sink.edge(u, v, weight(random));
+                        E++;
+                    }
+                }
+                return E;
+            }
+
+            @Override
+            public String describe() {
+                return name("powerlaw") + "_a" + exponent;
+            }
+        };
+    }
+
+    /**
+     * Scheduling-style DAG of {@code layers} equally wide layers. Each vertex depends on random
+     * vertices of the next layer, and one edge in ten skips ahead up to three layers.
+     */
+    public static GraphGenerator layered(int V, double degree, int layers, long seed) {
+        if (layers < 1) {
+            throw new IllegalArgumentException("Layer count must be positive: " + layers);
+        }
+        return new GraphGenerator(V, degree, seed) {
+            @Override
+            public long generate(EdgeSink sink) throws IOException {
+                SplittableRandom random = new SplittableRandom(seed);
+                int width = (int) ((V + (long) layers - 1) / Math.max(1, layers));
+                long E = 0;
+                for (int u = 0; u < V; u++) {
+                    int layer = u / width;
+                    for (int k = sampleDegree(random); k > 0; k--) {
+                        int skip = random.nextInt(10) == 0 ? 1 + random.nextInt(3) : 1;
+                        long first = (long) (layer + skip) * width;
+                        if (first >= V) {
+                            continue;
+                        }
+                        int size = (int) Math.min(width, V - first);
+                        sink.edge(u, (int) first + random.nextInt(size), weight(random));
+                        E++;
+                    }
+                }
+                return E;
+            }
+
+            @Override
+            public String describe() {
+                return name("layered") + "_l" + layers;
+            }
+        };
+    }
+
+    /**
+     * Resolves the kinds accepted on the command line. {@code param} is the component size spec
+     * for {@code cyclic}, the exponent for {@code powerlaw} and the layer count for
+     * {@code layered}; null picks a default.
+     */
+    public static GraphGenerator forName(String kind, int V, double degree, long seed, String param) {
+        switch (kind.toLowerCase()) {
+            case "dag":
+                return dag(V, degree, seed);
+            case "cyclic":
+                return cyclic(V, degree, ComponentSizes.parse(param == null ? "powerlaw:2.0:1000" : param), seed);
+            case "powerlaw":
+            case "power-law":
+                return powerLaw(V, degree, param == null ? 2.5 : Double.parseDouble(param), seed);
+            case "layered":
+                return layered(V, degree, param == null ? Math.max(1, (int) Math.sqrt(V)) : Integer.parseInt(param), seed);
+            default:
+                throw new IllegalArgumentException("Unknown graph kind: " + kind);
+        }
+    }
+
+
+    /** {@code degree} rounded up or down at random so the mean stays exact. */
+    int sampleDegree(SplittableRandom random) {
+        int whole = (int) degree;
+        return whole + (random.nextDouble() < degree - whole ? 1 : 0);
+    }
+
+    static int weight(SplittableRandom random) {
+        return 1 + random.nextInt(100);
+    }
+
+    String name(String kind) {
+        return kind + "_v" + V + "_d" + degree + "_s" + seed;
+    }
+}
@@ -0,0 +1,195 @@
+package graph;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Little-endian binary CSR layout:
+ * <pre>
+ *   header   magic "CSRG", version, vertices, edges   (4 x int32)
+ *   offsets  (vertices + 1) x int32
+ *   targets  edges x int32
+ *   weights  edges x int32
+ * </pre>
+ * Each section is a plain int array, so a reader can map it and index it directly.
+ */
+public final class BinaryGraphFormat {
+    static final int MAGIC = 0x47525343; // "CSRG" read as a little-endian int
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    private static final int CHUNK_INTS = 1 << 16;
+
+    private BinaryGraphFormat() {
+    }
+
+
+    /** Offsets are rewritten as a prefix sum, so any edge numbering of the source graph is accepted. */
+    public static void write(CompactGraph graph, File file) throws IOException {
+        int V = graph.getNumVertices();
+        int E = graph.getNumEdges();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+             FileChannel channel = raf.getChannel()) {
+            channel.truncate(0);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_INTS * 4).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(V).putInt(E);
+
+            int offset = 0;
+            put(channel, buffer, offset);
+            for (int u = 0; u < V; u++) {
+                offset += graph.endEdge(u) - graph.firstEdge(u);
+                put(channel, buffer, offset);
+            }
+            for (int u = 0; u < V; u++) {
+                for (int e = graph.firstEdge(u), end = graph.endEdge(u); e < end; e++) {
+                    put(channel, buffer, graph.target(e));
+                }
+            }
+            for (int u = 0; u < V; u++) {
+                for (int e = graph.firstEdge(u), end = graph.endEdge(u); e < end; e++) {
+                    put(channel, buffer, graph.weight(e));
+                }
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    private static void put(FileChannel channel, ByteBuffer buffer, int value) throws IOException {
+        if (!buffer.hasRemaining()) {
+            flush(channel, buffer);
+        }
+        buffer.putInt(value);
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+
+    /**
+     * Maps a graph file without reading its body. Only the header is checked against the file size,
+     * so corrupt offsets or targets surface later as an {@link ArrayIndexOutOfBoundsException} on
+     * first traversal; use {@link #map(File, boolean)} to check them up front.
+     */
+    public static MappedGraph map(File file) throws IOException {
+        return map(file, false);
+    }
+
+    /** As {@link #map(File)}, and with {@code validate} also scans the offsets and targets once. */
+    public static MappedGraph map(File file, boolean validate) throws IOException {
+        MappedGraph graph = mapUnchecked(file);
+        if (validate) {
+            validateBody(graph, file);
+        }
+        return graph;
+    }
+
+    private static MappedGraph mapUnchecked(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            ByteBuffer header = readHeader(channel, file);
+            int V = header.getInt(8);
+            int E = header.getInt(12);
+            long offsetsAt = HEADER_BYTES;
+            long targetsAt = offsetsAt + 4L * (V + 1);
+            long weightsAt = targetsAt + 4L * E;
+            // The mappings stay valid after the channel is closed.
+            return new MappedGraph(V, E,
+                    section(channel, offsetsAt, V + 1),
+                    section(channel, targetsAt, E),
+                    section(channel, weightsAt, E),
+                    weightsAt + 4L * E);
+        }
+    }
+
+    /**
+     * Copies a graph file into direct memory. Unlike {@link #map} each section may exceed one
+     * 2 GB mapping, and the result does not depend on the file staying in place.
+     */
+    public static OffHeapGraph readOffHeap(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            ByteBuffer header = readHeader(channel, file);
+            int V = header.getInt(8);
+            int E = header.getInt(12);
+            long targetsAt = HEADER_BYTES + 4L * (V + 1);
+            long weightsAt = targetsAt + 4L * E;
+            IntSegments offsets = new IntSegments(V + 1L, IntSegments.DEFAULT_SEGMENT_SHIFT);
+            IntSegments targets = new IntSegments(E, IntSegments.DEFAULT_SEGMENT_SHIFT);
+            IntSegments weights = new IntSegments(E, IntSegments.DEFAULT_SEGMENT_SHIFT);
+            offsets.readFrom(channel, HEADER_BYTES, V + 1L);
+            targets.readFrom(channel, targetsAt, E);
+            weights.readFrom(channel, weightsAt, E);
+            return new OffHeapGraph(V, E, offsets, targets, weights, IntSegments.DEFAULT_SEGMENT_SHIFT);
+        }
+    }
+
+    /** Offsets must rise from 0 to E and every target must name a vertex. */
+    private static void validateBody(CompactGraph graph, File file) throws IOException {
+        int V = graph.getNumVertices();
+        int E = graph.getNumEdges();
+        int previous = 0;
+        for (int u = 0; u < V; u++) {
+            int first = graph.firstEdge(u);
+            int end = graph.endEdge(u);
+            if (first != previous || end < first || end > E) {
+                throw new IOException(file + ": offsets of vertex " + u + " are out of order or range");
+            }
+            previous = end;
+        }
+        if (previous != E) {
+            throw new IOException(file + ": offsets end at " + previous + " but the header has " + E + " edges");
+        }
+        for (int e = 0; e < E; e++) {
+            int v = graph.target(e);
+            if (v < 0 || v >= V) {
+                throw new IOException(file + ": edge " + e + " targets vertex " + v + " of " + V);
+            }
+        }
+    }
+
+    /** Validates the header against the file size and returns it, little-endian. */
+    private static ByteBuffer readHeader(FileChannel channel, File file) throws IOException {
+        long size = channel.size();
+        if (size < HEADER_BYTES) {
+            throw new IOException(file + " is too small to be a graph file");
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        while (header.hasRemaining()) {
+            channel.read(header, header.position());
+        }
+        if (header.getInt(0) != MAGIC) {
+            throw new IOException(file + " is not a binary graph file");
+        }
+        if (header.getInt(4) != VERSION) {
+            throw new IOException(file + " has unsupported graph file version " + header.getInt(4));
+        }
+        int V = header.getInt(8);
+        int E = header.getInt(12);
+        if (V < 0 || V == Integer.MAX_VALUE || E < 0) {
+            throw new IOException(file + " has a corrupt header: " + V + " vertices, " + E + " edges");
+        }
+        long expected = HEADER_BYTES + 4L * (V + 1) + 8L * E;
+        if (size < expected) {
+            throw new IOException(file + " is truncated: expected " + expected + " bytes, found " + size);
+        }
+        if (size > expected) {
+            throw new IOException(file + " has " + (size - expected) + " unexpected trailing bytes after " + expected);
+        }
+        return header;
+    }
+
+    private static IntBuffer section(FileChannel channel, long position, int ints) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, 4L * ints)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .asIntBuffer();
+    }
+}
@@ -0,0 +1,131 @@
+package graph;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * Streams edges into the {@link BinaryGraphFormat} layout without holding the graph. Edges must
+ * arrive grouped by source vertex in increasing order. Offsets and targets go straight to
+ * their sections; weights are spooled to a side file and appended on {@link #close()}, once
+ * the edge count and so the position of the weights section are known.
+ */
+public class BinaryGraphWriter implements AutoCloseable {
+    private static final int BUFFER_INTS = 1 << 16;
+
+    private final File file;
+    private final File weightsFile;
+    private final int V;
+    private final FileChannel channel;
+    private final ByteBuffer offsets = ByteBuffer.allocateDirect(BUFFER_INTS * 4).order(ByteOrder.LITTLE_ENDIAN);
+    private final ByteBuffer targets = ByteBuffer.allocateDirect(BUFFER_INTS * 4).order(ByteOrder.LITTLE_ENDIAN);
+    private final DataOutputStream weights;
+    private long offsetsAt = BinaryGraphFormat.HEADER_BYTES;
+    private long targetsAt;
+    private int nextVertex;
+    private long E;
+    private boolean closed;
+
+    public BinaryGraphWriter(File file, int V) throws IOException {
+        if (V < 0) {
+            throw new IllegalArgumentException("Vertex count must be non-negative: " + V);
+        }
+        this.file = file;
+        this.V = V;
+        this.weightsFile = new File(file.getPath() + ".weights.tmp");
+        this.targetsAt = offsetsAt + 4L * (V + 1);
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        raf.setLength(0);
+        this.channel = raf.getChannel();
+        this.weights = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(weightsFile), BUFFER_INTS * 4));
+    }
+
+    public void addEdge(int u, int v, int weight) throws IOException {
+        if (u < 0 || u < nextVertex - 1 || u >= V || v < 0 || v >= V) {
+            throw new IllegalArgumentException("Edge " + u + "->" + v + " is out of range or out of source order");
+        }
+        if (E == Integer.MAX_VALUE) {
+            throw new IllegalStateException("A graph file holds at most " + Integer.MAX_VALUE + " edges");
+        }
+        advanceTo(u);
+        putInt(targets, v, false);
+        weights.writeInt(Integer.reverseBytes(weight));
+        E++;
+    }
+
+    public long getNumEdges() {
+        return E;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            advanceTo(V);
+            flush(offsets, true);
+            flush(targets, false);
+            weights.close();
+            long weightsAt = targetsAt;
+            try (InputStream in = new BufferedInputStream(new FileInputStream(weightsFile))) {
+                ByteBuffer chunk = ByteBuffer.allocate(BUFFER_INTS * 4);
+                int n;
+                while ((n = in.read(chunk.array())) > 0) {
+                    chunk.clear();
+                    chunk.limit(n);
+                    while (chunk.hasRemaining()) {
+                        weightsAt += channel.write(chunk, weightsAt);
+                    }
+                }
+            }
+            ByteBuffer header = ByteBuffer.allocate(BinaryGraphFormat.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(BinaryGraphFormat.MAGIC).putInt(BinaryGraphFormat.VERSION).putInt(V).putInt((int) E);
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        } finally {
+            weights.close();
+            channel.close();
+            weightsFile.delete();
+        }
+    }
+
+    /** Writes the offsets of every vertex up to and including {@code u}; they all start at the current edge count. */
+    private void advanceTo(int u) throws IOException {
+        while (nextVertex <= u) {
+            putInt(offsets, (int) E, true);
+            nextVertex++;
+        }
+    }
+
+    private void putInt(ByteBuffer buffer, int value, boolean isOffsets) throws IOException {
+        if (!buffer.hasRemaining()) {
+            flush(buffer, isOffsets);
+        }
+        buffer.putInt(value);
+    }
+
+    private void flush(ByteBuffer buffer, boolean isOffsets) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            if (isOffsets) {
+                offsetsAt += channel.write(buffer, offsetsAt);
+            } else {
+                targetsAt += channel.write(buffer, targetsAt);
+            }
+        }
+        buffer.clear();
+    }
+}
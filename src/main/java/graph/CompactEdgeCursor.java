@@ -0,0 +1,45 @@
+package graph;
+
+/** The {@link EdgeCursor} of any {@link CompactGraph}; the position is an edge index. */
+final class CompactEdgeCursor implements EdgeCursor {
+    private final CompactGraph graph;
+    private int edge;
+    private int end;
+
+    CompactEdgeCursor(CompactGraph graph) {
+        this.graph = graph;
+    }
+
+    @Override
+    public EdgeCursor reset(int u) {
+        edge = graph.firstEdge(u) - 1;
+        end = graph.endEdge(u);
+        return this;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return edge + 1 < end;
+    }
+
+    @Override
+    public int nextTarget() {
+        return graph.target(++edge);
+    }
+
+    @Override
+    public int weight() {
+        return graph.weight(edge);
+    }
+
+    @Override
+    public long position() {
+        return edge + 1;
+    }
+
+    @Override
+    public void resume(int u, long position) {
+        edge = (int) position - 1;
+        end = graph.endEdge(u);
+    }
+}
@@ -0,0 +1,43 @@
+package graph;
+
+/**
+ * Read-only adjacency view used by the traversal kernels. Outgoing edges of
+ * {@code u} are the edge indices in {@code [firstEdge(u), endEdge(u))}.
+ */
+public interface CompactGraph extends SequentialGraph {
+
+    int firstEdge(int u);
+
+    int endEdge(int u);
+
+    int target(int e);
+
+    int weight(int e);
+
+    /** The graph with every edge reversed, in the same kind of storage; on the heap unless overridden. */
+    default CompactGraph transpose() {
+        return CsrGraph.transposeOf(this);
+    }
+
+    /**
+     * The reversed edges without their weights, for traversals that only follow edges;
+     * {@code weight} must not be called on the result.
+     */
+    default CompactGraph transposeStructure() {
+        return CsrGraph.transposeOf(this, false);
+    }
+
+    /**
+     * {@link #transposeStructure()} with its arrays drawn from {@code workspace}; it stays valid
+     * until the workspace is released below the current mark. Off-heap graphs ignore the workspace.
+     */
+    @Override
+    default CompactGraph transposeStructure(Workspace workspace) {
+        return CsrGraph.transposeStructure(this, workspace);
+    }
+
+    @Override
+    default EdgeCursor edgeCursor() {
+        return new CompactEdgeCursor(this);
+    }
+}
@@ -0,0 +1,343 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * Adjacency lists compressed for graphs that are bound by memory rather than CPU. Each vertex's
+ * targets are sorted and stored as varint gaps (the first one as is), in one byte stream. The
+ * weights, in the same order, go in a second stream as zigzag varints, so traversals that only
+ * follow edges never touch them. A graph whose edges all weigh the same stores no weight stream
+ * at all. Per vertex, an {@code int} index gives where its bytes start in each stream.
+ *
+ * <p>There is no random access to an edge, so this is a {@link SequentialGraph} but not a
+ * {@link CompactGraph}; edges are read in order through a {@link Decoder}, which the kernels
+ * written against {@link EdgeCursor} (Kosaraju, Tarjan, FIFO Kahn, the DAG path algorithms)
+ * accept. Sorting changes the order of each vertex's edges. Results are the same as on
+ * {@link #toCsr()}, and the same as on the source graph up to the order edges are visited.
+ * Each stream holds at most 2^31 bytes.
+ */
+public final class CompressedGraph implements SequentialGraph {
+    private static final int MAX_STREAM_BYTES = Integer.MAX_VALUE - 8;
+
+    private final int V;
+    private final int E;
+    private final int[] targetIndex;
+    private final byte[] targets;
+    private final int[] weightIndex;
+    private final byte[] weights;
+    private final int uniformWeight;
+
+    private CompressedGraph(int V, int E, int[] targetIndex, byte[] targets, int[] weightIndex, byte[] weights,
+                            int uniformWeight) {
+        this.V = V;
+        this.E = E;
+        this.targetIndex = targetIndex;
+        this.targets = targets;
+        this.weightIndex = weightIndex;
+        this.weights = weights;
+        this.uniformWeight = uniformWeight;
+    }
+
+    public static CompressedGraph of(CompactGraph graph) {
+        int V = graph.getNumVertices();
+        int E = graph.getNumEdges();
+        boolean uniform = true;
+        boolean seen = false;
+        int firstWeight = 0;
+        int maxDegree = 0;
+        for (int u = 0; u < V; u++) {
+            maxDegree = Math.max(maxDegree, graph.endEdge(u) - graph.firstEdge(u));
+            for (int e = graph.firstEdge(u), end = graph.endEdge(u); e < end && uniform; e++) {
+                if (!seen) {
+                    firstWeight = graph.weight(e);
+                    seen = true;
+                } else if (graph.weight(e) != firstWeight) {
+                    uniform = false;
+                }
+            }
+        }
+
+        int[] targetIndex = new int[V + 1];
+        int[] weightIndex = uniform ? null : new int[V + 1];
+        ByteSink targetBytes = new ByteSink((int) Math.min(MAX_STREAM_BYTES, Math.max(16, (long) E + V)));
+        ByteSink weightBytes = uniform ? null : new ByteSink(Math.max(16, E));
+        long[] sorted = new long[Math.max(1, maxDegree)];
+        for (int u = 0; u < V; u++) {
+            int degree = 0;
+            for (int e = graph.firstEdge(u), end = graph.endEdge(u); e < end; e++) {
+                sorted[degree++] = (long) graph.target(e) << 32 | (graph.weight(e) & 0xFFFFFFFFL);
+            }
+            Arrays.sort(sorted, 0, degree);
+            int previous = 0;
+            for (int i = 0; i < degree; i++) {
+                int target = (int) (sorted[i] >>> 32);
+                targetBytes.putVarint(target - previous);
+                previous = target;
+                if (!uniform) {
+                    int weight = (int) sorted[i];
+                    weightBytes.putVarint(weight << 1 ^ weight >> 31);
+                }
+            }
+            targetIndex[u + 1] = targetBytes.size();
+            if (!uniform) {
+                weightIndex[u + 1] = weightBytes.size();
+            }
+        }
+        return new CompressedGraph(V, E, targetIndex, targetBytes.toArray(), weightIndex,
+                uniform ? null : weightBytes.toArray(), uniform ? firstWeight : 0);
+    }
+
+    @Override
+    public int getNumVertices() {
+        return V;
+    }
+
+    @Override
+    public int getNumEdges() {
+        return E;
+    }
+
+    /** Whether every edge has the same weight, in which case no weight stream is stored. */
+    public boolean hasUniformWeights() {
+        return weights == null;
+    }
+
+    @Override
+    public Decoder edgeCursor() {
+        return new Decoder();
+    }
+
+    /** Heap bytes of the index and stream arrays. */
+    public long memoryBytes() {
+        long bytes = 4L * targetIndex.length + targets.length;
+        if (weights != null) {
+            bytes += 4L * weightIndex.length + weights.length;
+        }
+        return bytes;
+    }
+
+    /** Everything {@link #memoryBytes} counts, per edge; compare with 32 + 32 V / E for {@link CsrGraph}. */
+    public double bitsPerEdge() {
+        return E == 0 ? 0 : 8.0 * memoryBytes() / E;
+    }
+
+    /** Bits per edge of the target stream alone. */
+    public double targetBitsPerEdge() {
+        return E == 0 ? 0 : 8.0 * targets.length / E;
+    }
+
+    /** Bits per edge of the weight stream alone; 0 for uniform weights. */
+    public double weightBitsPerEdge() {
+        return E == 0 || weights == null ? 0 : 8.0 * weights.length / E;
+    }
+
+    public CsrGraph toCsr() {
+        int[] offsets = new int[V + 1];
+        int[] t = new int[E];
+        int[] w = new int[E];
+        Decoder edges = edgeCursor();
+        int e = 0;
+        for (int u = 0; u < V; u++) {
+            edges.reset(u);
+            while (edges.hasNext()) {
+                t[e] = edges.nextTarget();
+                w[e++] = edges.weight();
+            }
+            offsets[u + 1] = e;
+        }
+        return new CsrGraph(V, offsets, t, w);
+    }
+
+    public CompressedGraph transposeStructure() {
+        return transposeStructure(Workspace.get());
+    }
+
+    /**
+     * The reversed edges without weights, compressed the same way. Sources reach each target in
+     * increasing order, so the gaps are written without sorting: one pass sizes every list, a
+     * second writes it. Only the scratch comes from {@code workspace}.
+     */
+    @Override
+    public CompressedGraph transposeStructure(Workspace workspace) {
+        long mark = workspace.mark();
+        try {
+            int[] last = workspace.ints(V);
+            int[] cursor = workspace.ints(V + 1);
+            Arrays.fill(last, 0, V, 0);
+            Arrays.fill(cursor, 0, V + 1, 0);
+            Decoder edges = edgeCursor();
+            // The total is checked as it grows, so no per-vertex count or prefix sum can overflow.
+            long total = 0;
+            for (int u = 0; u < V; u++) {
+                edges.reset(u);
+                while (edges.hasNext()) {
+                    int v = edges.nextTarget();
+                    int length = varintLength(u - last[v]);
+                    total += length;
+                    if (total > MAX_STREAM_BYTES) {
+                        throw streamTooLarge();
+                    }
+                    cursor[v + 1] += length;
+                    last[v] = u;
+                }
+            }
+            for (int v = 0; v < V; v++) {
+                cursor[v + 1] += cursor[v];
+            }
+            int[] index = Arrays.copyOf(cursor, V + 1);
+            byte[] bytes = new byte[index[V]];
+            Arrays.fill(last, 0, V, 0);
+            for (int u = 0; u < V; u++) {
+                edges.reset(u);
+                while (edges.hasNext()) {
+                    int v = edges.nextTarget();
+                    cursor[v] = putVarint(bytes, cursor[v], u - last[v]);
+                    last[v] = u;
+                }
+            }
+            return new CompressedGraph(V, E, index, bytes, null, null, 0);
+        } finally {
+            workspace.release(mark);
+        }
+    }
+
+
+    private static IllegalStateException streamTooLarge() {
+        return new IllegalStateException("Compressed stream exceeds " + MAX_STREAM_BYTES + " bytes");
+    }
+
+    static int varintLength(int value) {
+        int length = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            length++;
+        }
+        return length;
+    }
+
+    static int putVarint(byte[] bytes, int position, int value) {
+        while ((value & ~0x7F) != 0) {
+            bytes[position++] = (byte) (value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        bytes[position++] = (byte) value;
+        return position;
+    }
+
+    private static final class ByteSink {
+        private byte[] bytes;
+        private int size;
+
+        ByteSink(int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        void putVarint(int value) {
+            if (bytes.length - size < 5) {
+                long grown = Math.max(bytes.length + ((long) bytes.length >> 1), (long) size + 5);
+                if (grown > MAX_STREAM_BYTES) {
+                    if ((long) size + 5 > MAX_STREAM_BYTES) {
+                        throw streamTooLarge();
+                    }
+                    grown = MAX_STREAM_BYTES;
+                }
+                bytes = Arrays.copyOf(bytes, (int) grown);
+            }
+            size = CompressedGraph.putVarint(bytes, size, value);
+        }
+
+        int size() {
+            return size;
+        }
+
+        byte[] toArray() {
+            return size == bytes.length ? bytes : Arrays.copyOf(bytes, size);
+        }
+    }
+
+
+    /**
+     * Decodes the edges of one vertex in target order. Weights are only decoded when asked for,
+     * and are not available after a {@link #resume}. A position packs the byte offset of the
+     * next gap with the target it is added to.
+     */
+    public final class Decoder implements EdgeCursor {
+        private int position;
+        private int end;
+        private int previous;
+        private int weightPosition;
+        private int edgesRead;
+        private int weightsRead;
+        private int weight;
+
+        private Decoder() {
+        }
+
+        @Override
+        public Decoder reset(int u) {
+            position = targetIndex[u];
+            end = targetIndex[u + 1];
+            previous = 0;
+            weightPosition = weights == null ? 0 : weightIndex[u];
+            edgesRead = 0;
+            weightsRead = 0;
+            return this;
+        }
+
+        @Override
+        public void resume(int u, long position) {
+            this.position = (int) position;
+            this.end = targetIndex[u + 1];
+            this.previous = (int) (position >>> 32);
+            weightPosition = -1;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position < end;
+        }
+
+        @Override
+        public int nextTarget() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = targets[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            previous += value;
+            edgesRead++;
+            return previous;
+        }
+
+        @Override
+        public int weight() {
+            if (weights == null) {
+                return uniformWeight;
+            }
+            if (weightPosition < 0) {
+                throw new IllegalStateException("Weights are not available after resume");
+            }
+            while (weightsRead < edgesRead) {
+                int value = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = weights[weightPosition++];
+                    value |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                weight = value >>> 1 ^ -(value & 1);
+                weightsRead++;
+            }
+            return weight;
+        }
+
+        @Override
+        public long position() {
+            return (long) previous << 32 | position;
+        }
+    }
+}
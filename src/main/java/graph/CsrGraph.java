@@ -0,0 +1,244 @@
+package graph;
+
+/**
+ * Frozen compressed-sparse-row graph. Edge {@code e} of vertex {@code u} lives at
+ * {@code targets[e]} / {@code weights[e]} for {@code offsets[u] <= e < offsets[u + 1]},
+ * in the same order the edges were added.
+ */
+public class CsrGraph implements CompactGraph {
+    private static final int[] NO_WEIGHTS = new int[0];
+
+    private final int V;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+
+
+    CsrGraph(int V, int[] offsets, int[] targets, int[] weights) {
+        this.V = V;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /** Wraps ready-made CSR arrays without copying; {@code offsets} must have {@code V + 1} entries. */
+    public static CsrGraph fromArrays(int V, int[] offsets, int[] targets, int[] weights) {
+        if (offsets.length != V + 1 || targets.length != offsets[V] || weights.length != offsets[V]) {
+            throw new IllegalArgumentException("CSR arrays do not match " + V + " vertices");
+        }
+        return new CsrGraph(V, offsets, targets, weights);
+    }
+
+    public static CsrGraph from(DirectedGraph graph) {
+        int V = graph.getNumVertices();
+        int[] offsets = new int[V + 1];
+        for (int u = 0; u < V; u++) {
+            offsets[u + 1] = offsets[u] + graph.getAdj(u).size();
+        }
+        int[] targets = new int[offsets[V]];
+        int[] weights = new int[offsets[V]];
+        for (int u = 0; u < V; u++) {
+            int e = offsets[u];
+            for (int[] edge : graph.getAdj(u)) {
+                targets[e] = edge[0];
+                weights[e] = edge[1];
+                e++;
+            }
+        }
+        return new CsrGraph(V, offsets, targets, weights);
+    }
+
+    @Override
+    public int getNumVertices() {
+        return V;
+    }
+
+    @Override
+    public int getNumEdges() {
+        return offsets[V];
+    }
+
+    @Override
+    public int firstEdge(int u) {
+        return offsets[u];
+    }
+
+    @Override
+    public int endEdge(int u) {
+        return offsets[u + 1];
+    }
+
+    @Override
+    public int target(int e) {
+        return targets[e];
+    }
+
+    @Override
+    public int weight(int e) {
+        return weights[e];
+    }
+
+    public int outDegree(int u) {
+        return offsets[u + 1] - offsets[u];
+    }
+
+    public int[] offsets() {
+        return offsets;
+    }
+
+    public int[] targets() {
+        return targets;
+    }
+
+    public int[] weights() {
+        return weights;
+    }
+
+
+    public CsrGraph getTranspose() {
+        return transposeOf(this);
+    }
+
+
+    public static CsrGraph transposeOf(CompactGraph graph) {
+        return transposeOf(graph, true);
+    }
+
+    /** @param withWeights false leaves the weights out; the result then has no weight to return */
+    public static CsrGraph transposeOf(CompactGraph graph, boolean withWeights) {
+        int V = graph.getNumVertices();
+        int E = graph.getNumEdges();
+        int[] tOffsets = new int[V + 1];
+        for (int e = 0; e < E; e++) {
+            tOffsets[graph.target(e) + 1]++;
+        }
+        for (int v = 0; v < V; v++) {
+            tOffsets[v + 1] += tOffsets[v];
+        }
+        int[] cursor = new int[V];
+        System.arraycopy(tOffsets, 0, cursor, 0, V);
+        int[] tTargets = new int[E];
+        int[] tWeights = new int[withWeights ? E : 0];
+        for (int u = 0; u < V; u++) {
+            for (int e = graph.firstEdge(u), end = graph.endEdge(u); e < end; e++) {
+                int slot = cursor[graph.target(e)]++;
+                tTargets[slot] = u;
+                if (withWeights) {
+                    tWeights[slot] = graph.weight(e);
+                }
+            }
+        }
+        return new CsrGraph(V, tOffsets, tTargets, tWeights);
+    }
+
+    static CsrGraph transposeStructure(CompactGraph graph, Workspace workspace) {
+        int V = graph.getNumVertices();
+        int E = graph.getNumEdges();
+        int[] tOffsets = workspace.zeroedInts(V + 1);
+        for (int e = 0; e < E; e++) {
+            tOffsets[graph.target(e) + 1]++;
+        }
+        for (int v = 0; v < V; v++) {
+            tOffsets[v + 1] += tOffsets[v];
+        }
+        int[] cursor = workspace.ints(V);
+        System.arraycopy(tOffsets, 0, cursor, 0, V);
+        int[] tTargets = workspace.ints(E);
+        for (int u = 0; u < V; u++) {
+            for (int e = graph.firstEdge(u), end = graph.endEdge(u); e < end; e++) {
+                tTargets[cursor[graph.target(e)]++] = u;
+            }
+        }
+        return new CsrGraph(V, tOffsets, tTargets, NO_WEIGHTS);
+    }
+
+    public DirectedGraph toDirectedGraph() {
+        DirectedGraph g = new DirectedGraph(V);
+        for (int u = 0; u < V; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                g.addEdge(u, targets[e], weights[e]);
+            }
+        }
+        return g;
+    }
+
+
+    /**
+     * Collects edges into flat primitive lists and freezes them into a {@link CsrGraph}
+     * with a counting sort by source vertex, so no per-edge objects are ever created.
+     */
+    public static class Builder {
+        private final int V;
+        private final IntList sources;
+        private final IntList targets;
+        private final IntList weights;
+
+        public Builder(int V) {
+            this(V, 16);
+        }
+
+        public Builder(int V, int expectedEdges) {
+            if (V < 0) {
+                throw new IllegalArgumentException("Vertex count must be non-negative: " + V);
+            }
+            this.V = V;
+            sources = new IntList(expectedEdges);
+            targets = new IntList(expectedEdges);
+            weights = new IntList(expectedEdges);
+        }
+
+        /** Adopts already-collected edge columns; used by loaders that learn V only after the edges. */
+        Builder(int V, IntList sources, IntList targets, IntList weights) {
+            this.V = V;
+            this.sources = sources;
+            this.targets = targets;
+            this.weights = weights;
+            for (int i = 0; i < sources.size(); i++) {
+                checkRange(sources.get(i), targets.get(i));
+            }
+        }
+
+        public Builder addEdge(int u, int v, int weight) {
+            checkRange(u, v);
+            sources.add(u);
+            targets.add(v);
+            weights.add(weight);
+            return this;
+        }
+
+        public int getNumVertices() {
+            return V;
+        }
+
+        public int getNumEdges() {
+            return sources.size();
+        }
+
+        private void checkRange(int u, int v) {
+            if (u < 0 || u >= V || v < 0 || v >= V) {
+                throw new IndexOutOfBoundsException("Edge " + u + "->" + v + " out of range for " + V + " vertices");
+            }
+        }
+
+        public CsrGraph build() {
+            int E = sources.size();
+            int[] offsets = new int[V + 1];
+            for (int i = 0; i < E; i++) {
+                offsets[sources.get(i) + 1]++;
+            }
+            for (int u = 0; u < V; u++) {
+                offsets[u + 1] += offsets[u];
+            }
+            int[] cursor = new int[V];
+            System.arraycopy(offsets, 0, cursor, 0, V);
+            int[] t = new int[E];
+            int[] w = new int[E];
+            for (int i = 0; i < E; i++) {
+                int slot = cursor[sources.get(i)]++;
+                t[slot] = targets.get(i);
+                w[slot] = weights.get(i);
+            }
+            return new CsrGraph(V, offsets, t, w);
+        }
+    }
+}
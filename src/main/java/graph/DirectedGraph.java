@@ -22,6 +22,18 @@ public class DirectedGraph {
         adj.get(u).add(new int[]{v, weight});
     }
 
+    /** Removes one {@code u -> v} edge, whatever its weight; false if there is none. */
+    public boolean removeEdge(int u, int v) {
+        List<int[]> edges = adj.get(u);
+        for (int i = 0; i < edges.size(); i++) {
+            if (edges.get(i)[0] == v) {
+                edges.remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
     public int getNumVertices() {
         return V;
     }
@@ -40,4 +52,8 @@ public class DirectedGraph {
         }
         return g;
     }
+
+    public CsrGraph toCsr() {
+        return CsrGraph.from(this);
+    }
 }
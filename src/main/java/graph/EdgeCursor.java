@@ -0,0 +1,23 @@
+package graph;
+
+/**
+ * Reads the out-edges of one vertex at a time, in storage order: {@link #reset} to a vertex,
+ * then {@link #nextTarget} while {@link #hasNext}, with {@link #weight} for the edge just read.
+ * A depth-first search can keep one cursor and park each frame's {@link #position()}, to
+ * {@link #resume} it later; a cursor may not offer weights after a resume.
+ */
+public interface EdgeCursor {
+
+    EdgeCursor reset(int u);
+
+    boolean hasNext();
+
+    int nextTarget();
+
+    int weight();
+
+    /** Where the next edge of the current vertex is read from, for {@link #resume}. */
+    long position();
+
+    void resume(int u, long position);
+}
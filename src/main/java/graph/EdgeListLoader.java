@@ -0,0 +1,381 @@
+package graph;
+
+import metrics.PerformanceTracker;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Loads plain-text edge lists, one {@code u v [w]} edge per line, separated by spaces or tabs.
+ * The weight defaults to 1, fields after the third are ignored, and blank lines and lines
+ * starting with {@code #} or {@code %} are skipped. The vertex count is the largest id plus one.
+ *
+ * <p>The file is split into chunks of about {@value #CHUNK_BYTES} bytes whose bounds are moved
+ * forward to the next line start. Each chunk is memory-mapped on its own, so the file may exceed
+ * 2 GB. The chunks are parsed in parallel straight from the mapped bytes into primitive edge
+ * columns. The CSR arrays are then built in two parallel passes over groups of consecutive
+ * chunks: each group counts its sources, a prefix sum over vertices and groups gives every group
+ * its own write cursors, and each group scatters its edges once. Edges of a vertex keep their
+ * file order, so the graph is the one {@link CsrGraph.Builder} would build from the same edges.
+ *
+ * <p>The tracker records {@code bytes_read}, {@code edges_read} and {@code chunks}, plus the
+ * {@code parse}, {@code count} and {@code fill} sub-phases.
+ */
+public class EdgeListLoader {
+    private static final long CHUNK_BYTES = 32L << 20;
+    private static final long MIN_CHUNK_BYTES = 1L << 20;
+    private static final int MAX_LINE_PROBE = 1 << 16;
+
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+
+    /** Parses and builds on {@code pool}, the common pool by default; pass {@code null} to load on the calling thread. */
+    public EdgeListLoader parallel(ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    /** Whether {@code file} is named like an edge list: {@code .txt}, {@code .edges} or {@code .el}. */
+    public static boolean isEdgeList(File file) {
+        String name = file.getName().toLowerCase(Locale.ROOT);
+        return name.endsWith(".txt") || name.endsWith(".edges") || name.endsWith(".el");
+    }
+
+
+    public CsrGraph load(File file, PerformanceTracker tracker) throws IOException {
+        tracker.start();
+        CsrGraph graph;
+        long size;
+        int chunkCount;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            size = channel.size();
+            long parseStart = tracker.beginPhase();
+            Chunk[] chunks = split(channel, size);
+            chunkCount = chunks.length;
+            List<RecursiveAction> tasks = new ArrayList<>(chunks.length);
+            for (Chunk chunk : chunks) {
+                tasks.add(action(() -> chunk.parse(channel)));
+            }
+            run(tasks);
+            tracker.endPhase("parse", parseStart);
+            graph = build(chunks, tracker);
+        }
+        tracker.addOperations("bytes_read", size);
+        tracker.addOperations("edges_read", graph.getNumEdges());
+        tracker.addOperations("chunks", chunkCount);
+        tracker.stop();
+        return graph;
+    }
+
+
+    /** Chunk bounds at nominal multiples of the chunk size, each moved to the start of the next line. */
+    private Chunk[] split(FileChannel channel, long size) throws IOException {
+        int parallelism = pool == null ? 1 : pool.getParallelism();
+        // Several chunks per worker so that a slow chunk does not hold up the others.
+        long chunkBytes = Math.max(MIN_CHUNK_BYTES, Math.min(CHUNK_BYTES, size / (4L * parallelism) + 1));
+        List<Chunk> chunks = new ArrayList<>();
+        long start = 0;
+        while (start < size) {
+            long end = start + chunkBytes >= size ? size : nextLineStart(channel, start + chunkBytes, size);
+            chunks.add(new Chunk(start, end));
+            start = end;
+        }
+        return chunks.toArray(new Chunk[0]);
+    }
+
+    private static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long scanned = 0;
+        while (position < size) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+            scanned += read;
+            if (scanned > MAX_LINE_PROBE) {
+                throw new IOException("No line break within " + MAX_LINE_PROBE + " bytes of offset " + (position - scanned));
+            }
+        }
+        return size;
+    }
+
+
+    private CsrGraph build(Chunk[] chunks, PerformanceTracker tracker) throws IOException {
+        long edges = 0;
+        int maxVertex = -1;
+        for (Chunk chunk : chunks) {
+            edges += chunk.sources.size();
+            maxVertex = Math.max(maxVertex, chunk.maxVertex);
+        }
+        if (edges > Integer.MAX_VALUE - 8) {
+            throw new IOException(edges + " edges exceed the capacity of an in-memory graph");
+        }
+        int V = maxVertex + 1;
+        int E = (int) edges;
+
+        // Consecutive chunks form groups. Each group counts its own sources, the counts are
+        // turned into per-group write cursors, and each group then scatters its edges once;
+        // group g writes a vertex's edges after those of earlier groups, so file order holds.
+        // The per-group counts are kept no larger than an edge column.
+        int parallelism = pool == null ? 1 : pool.getParallelism();
+        int groups = (int) Math.max(1, Math.min(Math.min(parallelism, chunks.length), edges / Math.max(1, V)));
+        int[][] cursors = new int[groups][];
+        long countStart = tracker.beginPhase();
+        List<RecursiveAction> tasks = new ArrayList<>(groups);
+        for (int g = 0; g < groups; g++) {
+            int group = g;
+            tasks.add(action(() -> cursors[group] = count(chunks, firstChunk(chunks, groups, group),
+                    firstChunk(chunks, groups, group + 1), V)));
+        }
+        run(tasks);
+        int[] offsets = new int[V + 1];
+        toCursors(cursors, offsets, parallelism);
+        tracker.endPhase("count", countStart);
+
+        long fillStart = tracker.beginPhase();
+        int[] targets = new int[E];
+        int[] weights = new int[E];
+        tasks.clear();
+        for (int g = 0; g < groups; g++) {
+            int group = g;
+            tasks.add(action(() -> fill(chunks, firstChunk(chunks, groups, group), firstChunk(chunks, groups, group + 1),
+                    cursors[group], targets, weights)));
+        }
+        run(tasks);
+        tracker.endPhase("fill", fillStart);
+        return new CsrGraph(V, offsets, targets, weights);
+    }
+
+    private static int firstChunk(Chunk[] chunks, int groups, int group) {
+        return (int) ((long) chunks.length * group / groups);
+    }
+
+    private static int[] count(Chunk[] chunks, int from, int to, int V) {
+        int[] counts = new int[V];
+        for (int c = from; c < to; c++) {
+            IntList sources = chunks[c].sources;
+            for (int i = 0, n = sources.size(); i < n; i++) {
+                counts[sources.get(i)]++;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Fills {@code offsets} and replaces each group's counts by where its first edge of every
+     * vertex goes. Vertex ranges are summed in parallel, prefixed, then written in parallel.
+     */
+    private void toCursors(int[][] cursors, int[] offsets, int parallelism) throws IOException {
+        int V = offsets.length - 1;
+        int ranges = Math.max(1, Math.min(parallelism, V / 4096));
+        long[] rangeStart = new long[ranges + 1];
+        List<RecursiveAction> tasks = new ArrayList<>(ranges);
+        for (int r = 0; r < ranges; r++) {
+            int range = r;
+            tasks.add(action(() -> {
+                long total = 0;
+                for (int u = vertexBound(V, ranges, range), end = vertexBound(V, ranges, range + 1); u < end; u++) {
+                    for (int[] counts : cursors) {
+                        total += counts[u];
+                    }
+                }
+                rangeStart[range + 1] = total;
+            }));
+        }
+        run(tasks);
+        for (int r = 0; r < ranges; r++) {
+            rangeStart[r + 1] += rangeStart[r];
+        }
+        tasks.clear();
+        for (int r = 0; r < ranges; r++) {
+            int range = r;
+            tasks.add(action(() -> {
+                int next = (int) rangeStart[range];
+                for (int u = vertexBound(V, ranges, range), end = vertexBound(V, ranges, range + 1); u < end; u++) {
+                    offsets[u] = next;
+                    for (int[] counts : cursors) {
+                        int count = counts[u];
+                        counts[u] = next;
+                        next += count;
+                    }
+                }
+            }));
+        }
+        run(tasks);
+        offsets[V] = (int) rangeStart[ranges];
+    }
+
+    private static int vertexBound(int V, int ranges, int range) {
+        return (int) ((long) V * range / ranges);
+    }
+
+    private static void fill(Chunk[] chunks, int from, int to, int[] cursor, int[] targets, int[] weights) {
+        for (int c = from; c < to; c++) {
+            Chunk chunk = chunks[c];
+            IntList sources = chunk.sources;
+            for (int i = 0, n = sources.size(); i < n; i++) {
+                int slot = cursor[sources.get(i)]++;
+                targets[slot] = chunk.targets.get(i);
+                weights[slot] = chunk.weights.get(i);
+            }
+        }
+    }
+
+
+    private void run(List<RecursiveAction> tasks) throws IOException {
+        try {
+            if (pool == null || tasks.size() == 1) {
+                for (RecursiveAction task : tasks) {
+                    task.invoke();
+                }
+            } else {
+                pool.invoke(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        invokeAll(tasks);
+                    }
+                });
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private interface Step {
+        void run() throws IOException;
+    }
+
+    private static RecursiveAction action(Step step) {
+        return new RecursiveAction() {
+            @Override
+            protected void compute() {
+                try {
+                    step.run();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+
+    /** One newline-aligned byte range of the file and the edges parsed from it. */
+    private static final class Chunk {
+        final long start;
+        final long end;
+        IntList sources;
+        IntList targets;
+        IntList weights;
+        int maxVertex = -1;
+
+        Chunk(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        void parse(FileChannel channel) throws IOException {
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            int limit = bytes.limit();
+            // A line is rarely shorter than 6 bytes ("1 2 3\n").
+            int expected = Math.max(16, limit / 8);
+            sources = new IntList(expected);
+            targets = new IntList(expected);
+            weights = new IntList(expected);
+
+            int pos = 0;
+            while (pos < limit) {
+                byte b = bytes.get(pos);
+                if (b == ' ' || b == '\t' || b == '\r' || b == '\n') {
+                    pos++;
+                    continue;
+                }
+                if (b == '#' || b == '%') {
+                    pos = skipLine(bytes, pos, limit);
+                    continue;
+                }
+                int lineStart = pos;
+                long u = 0;
+                long v = 0;
+                long w = 1;
+                int fields = 0;
+                while (pos < limit && fields < 3) {
+                    b = bytes.get(pos);
+                    if (b == ' ' || b == '\t' || b == '\r') {
+                        pos++;
+                        continue;
+                    }
+                    if (b == '\n') {
+                        break;
+                    }
+                    boolean negative = b == '-' && fields == 2;
+                    if (negative) {
+                        pos++;
+                    }
+                    long value = 0;
+                    int digits = 0;
+                    while (pos < limit && (b = bytes.get(pos)) >= '0' && b <= '9') {
+                        value = value * 10 + (b - '0');
+                        if (value > Integer.MAX_VALUE + 1L) {
+                            throw malformed(lineStart, "number out of range");
+                        }
+                        digits++;
+                        pos++;
+                    }
+                    if (digits == 0 || (pos < limit && !isSeparator(bytes.get(pos)))) {
+                        throw malformed(lineStart, "expected an integer");
+                    }
+                    value = negative ? -value : value;
+                    if (fields == 0) {
+                        u = value;
+                    } else if (fields == 1) {
+                        v = value;
+                    } else {
+                        w = value;
+                    }
+                    fields++;
+                }
+                if (fields < 2) {
+                    throw malformed(lineStart, "expected at least a source and a target");
+                }
+                if (u > Integer.MAX_VALUE - 1 || v > Integer.MAX_VALUE - 1 || w > Integer.MAX_VALUE) {
+                    throw malformed(lineStart, "number out of range");
+                }
+                sources.add((int) u);
+                targets.add((int) v);
+                weights.add((int) w);
+                maxVertex = Math.max(maxVertex, (int) Math.max(u, v));
+                pos = skipLine(bytes, pos, limit);
+            }
+        }
+
+        private IOException malformed(int lineStart, String problem) {
+            return new IOException("Malformed edge at byte " + (start + lineStart) + ": " + problem);
+        }
+
+        private static boolean isSeparator(byte b) {
+            return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+        }
+
+        private static int skipLine(MappedByteBuffer bytes, int pos, int limit) {
+            while (pos < limit && bytes.get(pos) != '\n') {
+                pos++;
+            }
+            return pos + 1;
+        }
+    }
+}
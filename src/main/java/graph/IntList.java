@@ -0,0 +1,63 @@
+package graph;
+
+import java.util.Arrays;
+
+public class IntList {
+    private int[] data;
+    private int size;
+
+    public IntList() {
+        this(16);
+    }
+
+    public IntList(int capacity) {
+        data = new int[Math.max(capacity, 1)];
+    }
+
+    public void add(int value) {
+        if (size == data.length) {
+            data = Arrays.copyOf(data, grow(data.length));
+        }
+        data[size++] = value;
+    }
+
+    public int get(int index) {
+        return data[index];
+    }
+
+    public void set(int index, int value) {
+        data[index] = value;
+    }
+
+    public int removeLast() {
+        return data[--size];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(data, size);
+    }
+
+    /** Like {@link #toArray()}, but hands over the backing array when it is exactly full; the list is left empty. */
+    public int[] detach() {
+        int[] array = size == data.length ? data : Arrays.copyOf(data, size);
+        data = new int[1];
+        size = 0;
+        return array;
+    }
+
+    private static int grow(int length) {
+        int next = length + (length >> 1) + 1;
+        if (next < 0 || next > Integer.MAX_VALUE - 8) {
+            throw new OutOfMemoryError("IntList capacity exceeded");
+        }
+        return next;
+    }
+}
@@ -0,0 +1,150 @@
+package graph;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Growable int array outside the Java heap, addressed by {@code long} index. Storage is a list
+ * of direct buffers of {@code 2^segmentShift} ints each, so the capacity is not bounded by the
+ * 2 GB limit of a single buffer. Only the last segment may be shorter; growing reallocates at
+ * most that one, so full segments are never copied.
+ */
+final class IntSegments {
+    static final int DEFAULT_SEGMENT_SHIFT = 26; // 64M ints, 256 MB per segment
+    private static final int MIN_SEGMENT_INTS = 16;
+
+    private final int segmentShift;
+    private final int segmentMask;
+    private IntBuffer[] segments = new IntBuffer[0];
+    private ByteBuffer[] buffers = new ByteBuffer[0];
+
+    IntSegments(long capacity, int segmentShift) {
+        this.segmentShift = segmentShift;
+        this.segmentMask = (1 << segmentShift) - 1;
+        ensureCapacity(capacity);
+    }
+
+    int get(long index) {
+        return segments[(int) (index >>> segmentShift)].get((int) index & segmentMask);
+    }
+
+    void set(long index, int value) {
+        segments[(int) (index >>> segmentShift)].put((int) index & segmentMask, value);
+    }
+
+    /** Adds {@code delta} to the value at {@code index} and returns the old value. */
+    int getAndAdd(long index, int delta) {
+        IntBuffer segment = segments[(int) (index >>> segmentShift)];
+        int at = (int) index & segmentMask;
+        int old = segment.get(at);
+        segment.put(at, old + delta);
+        return old;
+    }
+
+    long capacity() {
+        int n = segments.length;
+        return n == 0 ? 0 : ((long) (n - 1) << segmentShift) + segments[n - 1].capacity();
+    }
+
+    /** Direct memory held, in bytes. */
+    long sizeBytes() {
+        return 4L * capacity();
+    }
+
+    void ensureCapacity(long capacity) {
+        int segmentSize = segmentMask + 1;
+        while (capacity() < capacity) {
+            int n = segments.length;
+            if (n > 0 && segments[n - 1].capacity() < segmentSize) {
+                // Grow the short last segment geometrically, up to a full one.
+                long wanted = capacity - ((long) (n - 1) << segmentShift);
+                int size = (int) Math.min(segmentSize, Math.max(wanted, 2L * segments[n - 1].capacity()));
+                ByteBuffer old = buffers[n - 1];
+                allocate(n - 1, size);
+                IntBuffer from = old.asIntBuffer();
+                segments[n - 1].put(from);
+                segments[n - 1].clear();
+                release(old);
+            } else {
+                int size = (int) Math.min(segmentSize, Math.max(capacity - capacity(), MIN_SEGMENT_INTS));
+                segments = Arrays.copyOf(segments, n + 1);
+                buffers = Arrays.copyOf(buffers, n + 1);
+                allocate(n, size);
+            }
+        }
+    }
+
+    private void allocate(int segment, int ints) {
+        buffers[segment] = ByteBuffer.allocateDirect(4 * ints).order(ByteOrder.nativeOrder());
+        segments[segment] = buffers[segment].asIntBuffer();
+    }
+
+    /** Reads {@code count} little-endian ints from {@code channel} at {@code position} into indices from 0. */
+    void readFrom(FileChannel channel, long position, long count) throws IOException {
+        ensureCapacity(count);
+        ByteBuffer chunk = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+        long index = 0;
+        while (index < count) {
+            chunk.clear();
+            chunk.limit((int) Math.min(chunk.capacity(), 4 * (count - index)));
+            while (chunk.hasRemaining()) {
+                if (channel.read(chunk, position + 4 * index + chunk.position()) < 0) {
+                    throw new IOException("Unexpected end of file at byte " + (position + 4 * index + chunk.position()));
+                }
+            }
+            chunk.flip();
+            IntBuffer ints = chunk.asIntBuffer();
+            while (ints.hasRemaining()) {
+                int at = (int) index & segmentMask;
+                int n = Math.min(ints.remaining(), segmentMask + 1 - at);
+                IntBuffer target = segments[(int) (index >>> segmentShift)].duplicate();
+                target.position(at);
+                IntBuffer source = ints.duplicate();
+                source.limit(source.position() + n);
+                target.put(source);
+                ints.position(ints.position() + n);
+                index += n;
+            }
+        }
+    }
+
+    /**
+     * Returns the memory to the OS now instead of whenever the buffers are collected, which on
+     * a quiet heap may be never. The segments must not be touched afterwards.
+     */
+    void free() {
+        for (ByteBuffer buffer : buffers) {
+            release(buffer);
+        }
+        segments = new IntBuffer[0];
+        buffers = new ByteBuffer[0];
+    }
+
+    private static void release(ByteBuffer buffer) {
+        try {
+            // Java 9+: Unsafe.invokeCleaner; Java 8: DirectBuffer.cleaner().clean(). Both via reflection.
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            invokeCleaner.invoke(theUnsafe.get(null), buffer);
+        } catch (NoSuchMethodException e) {
+            try {
+                Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(buffer);
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            } catch (ReflectiveOperationException | RuntimeException ignored) {
+                // Left to the garbage collector.
+            }
+        } catch (ReflectiveOperationException | RuntimeException ignored) {
+            // Left to the garbage collector.
+        }
+    }
+}
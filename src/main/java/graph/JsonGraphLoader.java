@@ -0,0 +1,96 @@
+package graph;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import metrics.PerformanceTracker;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streams the {@code {"vertices": n, "edges": [[u, v, w], ...]}} format token by token into
+ * primitive edge columns and freezes them into a {@link CsrGraph}. No per-edge objects are
+ * created, so peak memory stays close to the size of the final graph.
+ *
+ * <p>The tracker records the load time plus {@code bytes_read} and {@code edges_read}, from
+ * which {@link #megabytesPerSecond(PerformanceTracker)} derives the parse throughput.
+ */
+public class JsonGraphLoader {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+
+    public CsrGraph load(File file, PerformanceTracker tracker) throws IOException {
+        tracker.start();
+        CsrGraph graph;
+        try (Reader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            graph = load(reader);
+        }
+        tracker.addOperations("bytes_read", file.length());
+        tracker.addOperations("edges_read", graph.getNumEdges());
+        tracker.stop();
+        return graph;
+    }
+
+
+    public CsrGraph load(Reader in) throws IOException {
+        JsonReader reader = new JsonReader(in);
+        int vertices = -1;
+        IntList sources = new IntList(1024);
+        IntList targets = new IntList(1024);
+        IntList weights = new IntList(1024);
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if ("vertices".equals(name)) {
+                vertices = reader.nextInt();
+            } else if ("edges".equals(name)) {
+                readEdges(reader, sources, targets, weights);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (vertices < 0) {
+            throw new IOException("Missing \"vertices\" field");
+        }
+        try {
+            return new CsrGraph.Builder(vertices, sources, targets, weights).build();
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+
+    private static void readEdges(JsonReader reader, IntList sources, IntList targets, IntList weights) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            reader.beginArray();
+            sources.add(reader.nextInt());
+            targets.add(reader.nextInt());
+            weights.add(reader.nextInt());
+            while (reader.peek() != JsonToken.END_ARRAY) {
+                reader.skipValue();
+            }
+            reader.endArray();
+        }
+        reader.endArray();
+    }
+
+
+    public static double megabytesPerSecond(PerformanceTracker tracker) {
+        long nanos = tracker.getExecutionTimeNanos();
+        if (nanos <= 0) {
+            return 0;
+        }
+        long bytes = tracker.getOperations().getOrDefault("bytes_read", 0L);
+        return (bytes / (1024.0 * 1024.0)) / (nanos / 1e9);
+    }
+}
@@ -0,0 +1,61 @@
+package graph;
+
+import java.nio.IntBuffer;
+
+/**
+ * CSR graph served straight from a memory-mapped {@link BinaryGraphFormat} file. Nothing is
+ * copied onto the heap; pages are faulted in on first access and shared through the OS page
+ * cache between every process that maps the same file. Each section is one mapping, which
+ * limits a file to about 536M edges.
+ */
+public class MappedGraph implements CompactGraph {
+    private final int V;
+    private final int E;
+    private final IntBuffer offsets;
+    private final IntBuffer targets;
+    private final IntBuffer weights;
+    private final long sizeBytes;
+
+    MappedGraph(int V, int E, IntBuffer offsets, IntBuffer targets, IntBuffer weights, long sizeBytes) {
+        this.V = V;
+        this.E = E;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.sizeBytes = sizeBytes;
+    }
+
+    @Override
+    public int getNumVertices() {
+        return V;
+    }
+
+    @Override
+    public int getNumEdges() {
+        return E;
+    }
+
+    @Override
+    public int firstEdge(int u) {
+        return offsets.get(u);
+    }
+
+    @Override
+    public int endEdge(int u) {
+        return offsets.get(u + 1);
+    }
+
+    @Override
+    public int target(int e) {
+        return targets.get(e);
+    }
+
+    @Override
+    public int weight(int e) {
+        return weights.get(e);
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+}
@@ -0,0 +1,230 @@
+package graph;
+
+/**
+ * CSR graph whose offsets, targets and weights live in direct memory, so a huge graph adds
+ * only a handful of objects to the heap and nothing for the collector to trace or copy.
+ * Storage is segmented and sized by {@code long}, but the {@link CompactGraph} edge indices the
+ * kernels use are {@code int}, which caps a graph at {@link Integer#MAX_VALUE} edges (16 GB of
+ * targets and weights). Call {@link #close()} to hand the memory back as soon as the graph is
+ * done with; it must not be read afterwards.
+ */
+public class OffHeapGraph implements CompactGraph, AutoCloseable {
+    private final int V;
+    private final int E;
+    private final IntSegments offsets;
+    private final IntSegments targets;
+    private final IntSegments weights;
+    private final int segmentShift;
+
+    OffHeapGraph(int V, int E, IntSegments offsets, IntSegments targets, IntSegments weights, int segmentShift) {
+        this.segmentShift = segmentShift;
+        this.V = V;
+        this.E = E;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /** Copies any graph off the heap, renumbering edges so they are contiguous per vertex. */
+    public static OffHeapGraph copyOf(CompactGraph graph) {
+        return copyOf(graph, IntSegments.DEFAULT_SEGMENT_SHIFT);
+    }
+
+    static OffHeapGraph copyOf(CompactGraph graph, int segmentShift) {
+        int V = graph.getNumVertices();
+        int E = graph.getNumEdges();
+        IntSegments offsets = new IntSegments(V + 1L, segmentShift);
+        IntSegments targets = new IntSegments(E, segmentShift);
+        IntSegments weights = new IntSegments(E, segmentShift);
+        int at = 0;
+        for (int u = 0; u < V; u++) {
+            offsets.set(u, at);
+            for (int e = graph.firstEdge(u), end = graph.endEdge(u); e < end; e++) {
+                targets.set(at, graph.target(e));
+                weights.set(at, graph.weight(e));
+                at++;
+            }
+        }
+        offsets.set(V, at);
+        return new OffHeapGraph(V, E, offsets, targets, weights, segmentShift);
+    }
+
+    @Override
+    public int getNumVertices() {
+        return V;
+    }
+
+    @Override
+    public int getNumEdges() {
+        return E;
+    }
+
+    @Override
+    public int firstEdge(int u) {
+        return offsets.get(u);
+    }
+
+    @Override
+    public int endEdge(int u) {
+        return offsets.get(u + 1L);
+    }
+
+    @Override
+    public int target(int e) {
+        return targets.get(e);
+    }
+
+    @Override
+    public int weight(int e) {
+        return weights.get(e);
+    }
+
+    /** Reverses the edges into a new off-heap graph with the same segment size. */
+    @Override
+    public OffHeapGraph transpose() {
+        return transpose(true);
+    }
+
+    @Override
+    public OffHeapGraph transposeStructure() {
+        return transpose(false);
+    }
+
+    @Override
+    public OffHeapGraph transposeStructure(Workspace workspace) {
+        return transpose(false);
+    }
+
+    private OffHeapGraph transpose(boolean withWeights) {
+        IntSegments tOffsets = new IntSegments(V + 1L, segmentShift);
+        for (int e = 0; e < E; e++) {
+            tOffsets.getAndAdd(targets.get(e) + 1L, 1);
+        }
+        for (int v = 0; v < V; v++) {
+            tOffsets.getAndAdd(v + 1L, tOffsets.get(v));
+        }
+        IntSegments cursor = new IntSegments(V, segmentShift);
+        for (int v = 0; v < V; v++) {
+            cursor.set(v, tOffsets.get(v));
+        }
+        IntSegments tTargets = new IntSegments(E, segmentShift);
+        IntSegments tWeights = new IntSegments(withWeights ? E : 0, segmentShift);
+        for (int u = 0; u < V; u++) {
+            for (int e = firstEdge(u), end = endEdge(u); e < end; e++) {
+                int slot = cursor.getAndAdd(targets.get(e), 1);
+                tTargets.set(slot, u);
+                if (withWeights) {
+                    tWeights.set(slot, weights.get(e));
+                }
+            }
+        }
+        cursor.free();
+        return new OffHeapGraph(V, E, tOffsets, tTargets, tWeights, segmentShift);
+    }
+
+    /** Direct memory held by the graph, in bytes. */
+    public long getSizeBytes() {
+        return offsets.sizeBytes() + targets.sizeBytes() + weights.sizeBytes();
+    }
+
+    @Override
+    public void close() {
+        offsets.free();
+        targets.free();
+        weights.free();
+    }
+
+    @Override
+    public void release() {
+        close();
+    }
+
+
+    /**
+     * Collects edges in any order into off-heap columns and freezes them with a counting sort
+     * by source, like {@link CsrGraph.Builder}. The staged edges are freed by {@link #build()},
+     * so building briefly needs about 20 bytes per edge of direct memory.
+     */
+    public static class Builder {
+        private final int V;
+        private final int segmentShift;
+        private IntSegments sources;
+        private IntSegments targets;
+        private IntSegments weights;
+        private long E;
+
+        public Builder(int V) {
+            this(V, IntSegments.DEFAULT_SEGMENT_SHIFT);
+        }
+
+        Builder(int V, int segmentShift) {
+            if (V < 0) {
+                throw new IllegalArgumentException("Vertex count must be non-negative: " + V);
+            }
+            this.V = V;
+            this.segmentShift = segmentShift;
+            sources = new IntSegments(0, segmentShift);
+            targets = new IntSegments(0, segmentShift);
+            weights = new IntSegments(0, segmentShift);
+        }
+
+        public Builder addEdge(int u, int v, int weight) {
+            if (u < 0 || u >= V || v < 0 || v >= V) {
+                throw new IndexOutOfBoundsException("Edge " + u + "->" + v + " out of range for " + V + " vertices");
+            }
+            if (E == Integer.MAX_VALUE) {
+                throw new IllegalStateException("A graph holds at most " + Integer.MAX_VALUE + " edges");
+            }
+            if (E == sources.capacity()) {
+                // The short last segment doubles, so appends stay amortised O(1).
+                sources.ensureCapacity(E + 1);
+                targets.ensureCapacity(E + 1);
+                weights.ensureCapacity(E + 1);
+            }
+            sources.set(E, u);
+            targets.set(E, v);
+            weights.set(E, weight);
+            E++;
+            return this;
+        }
+
+        public int getNumVertices() {
+            return V;
+        }
+
+        public int getNumEdges() {
+            return (int) E;
+        }
+
+        public OffHeapGraph build() {
+            IntSegments offsets = new IntSegments(V + 1L, segmentShift);
+            for (long i = 0; i < E; i++) {
+                offsets.getAndAdd(sources.get(i) + 1L, 1);
+            }
+            for (int u = 0; u < V; u++) {
+                offsets.getAndAdd(u + 1L, offsets.get(u));
+            }
+            IntSegments cursor = new IntSegments(V, segmentShift);
+            for (int u = 0; u < V; u++) {
+                cursor.set(u, offsets.get(u));
+            }
+            IntSegments sortedTargets = new IntSegments(E, segmentShift);
+            IntSegments sortedWeights = new IntSegments(E, segmentShift);
+            for (long i = 0; i < E; i++) {
+                int slot = cursor.getAndAdd(sources.get(i), 1);
+                sortedTargets.set(slot, targets.get(i));
+                sortedWeights.set(slot, weights.get(i));
+            }
+            cursor.free();
+            sources.free();
+            targets.free();
+            weights.free();
+            sources = new IntSegments(0, segmentShift);
+            targets = new IntSegments(0, segmentShift);
+            weights = new IntSegments(0, segmentShift);
+            int edges = (int) E;
+            E = 0;
+            return new OffHeapGraph(V, edges, offsets, sortedTargets, sortedWeights, segmentShift);
+        }
+    }
+}
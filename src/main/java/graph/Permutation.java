@@ -0,0 +1,104 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * A relabelling of the vertices {@code 0..n-1}: vertex {@code old} becomes {@code newId(old)}.
+ * {@link #apply} builds the relabelled graph; the {@code to...} methods move per-vertex arrays
+ * between the two numberings.
+ */
+public final class Permutation {
+    private final int[] newIdOf;
+    private final int[] oldIdOf;
+
+    private Permutation(int[] newIdOf, int[] oldIdOf) {
+        this.newIdOf = newIdOf;
+        this.oldIdOf = oldIdOf;
+    }
+
+    /** The permutation that puts {@code order[i]} at position {@code i}; the array is kept. */
+    public static Permutation fromOrder(int[] order) {
+        int[] newIdOf = new int[order.length];
+        Arrays.fill(newIdOf, -1);
+        for (int i = 0; i < order.length; i++) {
+            int old = order[i];
+            if (old < 0 || old >= order.length || newIdOf[old] != -1) {
+                throw new IllegalArgumentException("Not a permutation: vertex " + old + " at position " + i);
+            }
+            newIdOf[old] = i;
+        }
+        return new Permutation(newIdOf, order);
+    }
+
+    public static Permutation identity(int n) {
+        int[] ids = new int[n];
+        for (int v = 0; v < n; v++) {
+            ids[v] = v;
+        }
+        return new Permutation(ids, ids);
+    }
+
+    public int size() {
+        return newIdOf.length;
+    }
+
+    public int newId(int oldId) {
+        return newIdOf[oldId];
+    }
+
+    public int oldId(int newId) {
+        return oldIdOf[newId];
+    }
+
+    public boolean isIdentity() {
+        for (int v = 0; v < newIdOf.length; v++) {
+            if (newIdOf[v] != v) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /** The graph with every vertex renumbered; each vertex keeps its edges in their original order. */
+    public CsrGraph apply(CompactGraph graph) {
+        int V = graph.getNumVertices();
+        if (V != newIdOf.length) {
+            throw new IllegalArgumentException("Permutation of " + newIdOf.length + " vertices applied to " + V);
+        }
+        int[] offsets = new int[V + 1];
+        for (int v = 0; v < V; v++) {
+            int old = oldIdOf[v];
+            offsets[v + 1] = offsets[v] + graph.endEdge(old) - graph.firstEdge(old);
+        }
+        int[] targets = new int[offsets[V]];
+        int[] weights = new int[offsets[V]];
+        for (int v = 0; v < V; v++) {
+            int slot = offsets[v];
+            int old = oldIdOf[v];
+            for (int e = graph.firstEdge(old), end = graph.endEdge(old); e < end; e++, slot++) {
+                targets[slot] = newIdOf[graph.target(e)];
+                weights[slot] = graph.weight(e);
+            }
+        }
+        return new CsrGraph(V, offsets, targets, weights);
+    }
+
+    /** {@code result[old] = byNewId[newId(old)]}: per-vertex values back in the original numbering. */
+    public int[] toOriginal(int[] byNewId) {
+        int[] byOldId = new int[newIdOf.length];
+        for (int v = 0; v < byOldId.length; v++) {
+            byOldId[v] = byNewId[newIdOf[v]];
+        }
+        return byOldId;
+    }
+
+    /** {@code result[newId(old)] = byOldId[old]}. */
+    public int[] toRelabelled(int[] byOldId) {
+        int[] byNewId = new int[newIdOf.length];
+        for (int v = 0; v < byNewId.length; v++) {
+            byNewId[newIdOf[v]] = byOldId[v];
+        }
+        return byNewId;
+    }
+}
@@ -0,0 +1,29 @@
+package graph;
+
+/**
+ * A graph whose edges are read in order through an {@link EdgeCursor}, without random access
+ * to an edge. Every {@link CompactGraph} is one; {@link CompressedGraph} is only this.
+ */
+public interface SequentialGraph {
+
+    int getNumVertices();
+
+    int getNumEdges();
+
+    /** A new cursor; each thread needs its own. */
+    EdgeCursor edgeCursor();
+
+    /**
+     * The reversed edges without their weights, in the same kind of storage; it may draw scratch
+     * or, for heap CSR, its arrays from {@code workspace} and stays valid until the workspace is
+     * released below the current mark.
+     */
+    SequentialGraph transposeStructure(Workspace workspace);
+
+    /**
+     * Hands back storage held outside the heap, such as an off-heap transpose; a no-op for heap
+     * graphs. The graph must not be used afterwards.
+     */
+    default void release() {
+    }
+}
@@ -0,0 +1,200 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Relabellings that place vertices visited together next to each other in memory, so the
+ * per-vertex arrays of the traversals are read in nearby cache lines instead of all over the
+ * input's id order. Each strategy yields a {@link Permutation}; ties are broken by original id,
+ * so the result is deterministic.
+ *
+ * <ul>
+ * <li>{@link #BFS} and {@link #DFS} number vertices in breadth-first and depth-first preorder over
+ * the out-edges, restarting from the lowest unvisited id;</li>
+ * <li>{@link #DEGREE} sorts by total degree, highest first, so the hubs share cache lines;</li>
+ * <li>{@link #RCM} is reverse Cuthill–McKee over the edges taken as undirected, which keeps
+ * neighbours within a narrow band of ids.</li>
+ * </ul>
+ */
+public enum VertexOrder {
+    NONE, BFS, DFS, DEGREE, RCM;
+
+    /** Resolves the names accepted on the command line, case-insensitively. */
+    public static VertexOrder forName(String name) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown vertex order: " + name);
+        }
+    }
+
+    public Permutation permutation(CompactGraph graph) {
+        switch (this) {
+            case BFS:
+                return Permutation.fromOrder(bfs(graph));
+            case DFS:
+                return Permutation.fromOrder(dfs(graph));
+            case DEGREE:
+                return Permutation.fromOrder(byDegree(graph));
+            case RCM:
+                return Permutation.fromOrder(reverseCuthillMcKee(graph));
+            default:
+                return Permutation.identity(graph.getNumVertices());
+        }
+    }
+
+
+    private static int[] bfs(CompactGraph graph) {
+        int V = graph.getNumVertices();
+        int[] order = new int[V];
+        boolean[] visited = new boolean[V];
+        int tail = 0;
+        for (int s = 0; s < V; s++) {
+            if (visited[s]) {
+                continue;
+            }
+            visited[s] = true;
+            int head = tail;
+            order[tail++] = s;
+            while (head < tail) {
+                int u = order[head++];
+                for (int e = graph.firstEdge(u), end = graph.endEdge(u); e < end; e++) {
+                    int v = graph.target(e);
+                    if (!visited[v]) {
+                        visited[v] = true;
+                        order[tail++] = v;
+                    }
+                }
+            }
+        }
+        return order;
+    }
+
+    private static int[] dfs(CompactGraph graph) {
+        int V = graph.getNumVertices();
+        int[] order = new int[V];
+        boolean[] visited = new boolean[V];
+        int[] vertexStack = new int[V];
+        int[] edgeStack = new int[V];
+        int count = 0;
+        for (int s = 0; s < V; s++) {
+            if (visited[s]) {
+                continue;
+            }
+            visited[s] = true;
+            order[count++] = s;
+            int depth = 0;
+            vertexStack[0] = s;
+            edgeStack[0] = graph.firstEdge(s);
+            while (depth >= 0) {
+                int u = vertexStack[depth];
+                int e = edgeStack[depth];
+                if (e == graph.endEdge(u)) {
+                    depth--;
+                    continue;
+                }
+                edgeStack[depth] = e + 1;
+                int v = graph.target(e);
+                if (!visited[v]) {
+                    visited[v] = true;
+                    order[count++] = v;
+                    depth++;
+                    vertexStack[depth] = v;
+                    edgeStack[depth] = graph.firstEdge(v);
+                }
+            }
+        }
+        return order;
+    }
+
+    private static int[] byDegree(CompactGraph graph) {
+        int V = graph.getNumVertices();
+        int[] degree = totalDegrees(graph);
+        long[] keys = new long[V];
+        for (int v = 0; v < V; v++) {
+            keys[v] = (long) (Integer.MAX_VALUE - degree[v]) << 32 | v;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[V];
+        for (int i = 0; i < V; i++) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+
+    /**
+     * Cuthill–McKee breadth-first search from the lowest-degree unvisited vertex, visiting the
+     * neighbours of each vertex in increasing degree, then reversed.
+     */
+    private static int[] reverseCuthillMcKee(CompactGraph graph) {
+        int V = graph.getNumVertices();
+        int[] degree = totalDegrees(graph);
+        long[] keys = new long[V];
+        for (int v = 0; v < V; v++) {
+            keys[v] = (long) degree[v] << 32 | v;
+        }
+        long[] starts = keys.clone();
+        Arrays.sort(starts);
+
+        int[] order = new int[V];
+        boolean[] visited = new boolean[V];
+        long[] pending = new long[16];
+        int tail = 0;
+        CompactGraph incoming = graph.transposeStructure();
+        try {
+            for (long start : starts) {
+                int s = (int) start;
+                if (visited[s]) {
+                    continue;
+                }
+                visited[s] = true;
+                int head = tail;
+                order[tail++] = s;
+                while (head < tail) {
+                    int u = order[head++];
+                    if (pending.length < degree[u]) {
+                        pending = new long[Math.max(degree[u], pending.length * 2)];
+                    }
+                    int found = collect(graph, u, visited, keys, pending, 0);
+                    found = collect(incoming, u, visited, keys, pending, found);
+                    Arrays.sort(pending, 0, found);
+                    for (int i = 0; i < found; i++) {
+                        order[tail++] = (int) pending[i];
+                    }
+                }
+            }
+        } finally {
+            incoming.release();
+        }
+        for (int i = 0, j = V - 1; i < j; i++, j--) {
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return order;
+    }
+
+    private static int collect(CompactGraph graph, int u, boolean[] visited, long[] keys, long[] pending, int found) {
+        for (int e = graph.firstEdge(u), end = graph.endEdge(u); e < end; e++) {
+            int v = graph.target(e);
+            if (!visited[v]) {
+                visited[v] = true;
+                pending[found++] = keys[v];
+            }
+        }
+        return found;
+    }
+
+    private static int[] totalDegrees(CompactGraph graph) {
+        int V = graph.getNumVertices();
+        int[] degree = new int[V];
+        for (int u = 0; u < V; u++) {
+            degree[u] += graph.endEdge(u) - graph.firstEdge(u);
+            for (int e = graph.firstEdge(u), end = graph.endEdge(u); e < end; e++) {
+                degree[graph.target(e)]++;
+            }
+        }
+        return degree;
+    }
+}
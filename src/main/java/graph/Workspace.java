@@ -0,0 +1,145 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * Per-thread stacks of scratch arrays for the traversal kernels, so analysing many small graphs
+ * in a row stops allocating working memory once the arrays have grown to the largest graph
+ * seen. A kernel takes a {@link #mark()}, draws arrays in a fixed sequence and
+ * {@link #release(long) releases} back to the mark when done; the n-th array of a type drawn
+ * after the same mark is the same array each time, grown only when a graph needs more. Each
+ * element type has its own stack, so kernels drawing different types at the same depth do not
+ * evict each other. Arrays may be longer than requested and hold leftovers unless drawn zeroed.
+ * Arrays longer than {@value #MAX_RETAINED_LENGTH} elements are handed out but not kept, so one
+ * huge graph does not pin its working memory to the thread. Results that outlive the call must
+ * not come from here.
+ */
+public final class Workspace {
+    public static final int MAX_RETAINED_LENGTH = 1 << 18;
+
+    private static final int DEPTH_BITS = 21;
+    private static final long DEPTH_MASK = (1L << DEPTH_BITS) - 1;
+    private static final ThreadLocal<Workspace> PER_THREAD = ThreadLocal.withInitial(Workspace::new);
+
+    private int[][] intSlots = new int[8][];
+    private long[][] longSlots = new long[4][];
+    private boolean[][] booleanSlots = new boolean[4][];
+    private int intTop;
+    private int longTop;
+    private int booleanTop;
+    private long createdArrays;
+    private long createdBytes;
+    private long reusedArrays;
+
+    /** The calling thread's workspace. */
+    public static Workspace get() {
+        return PER_THREAD.get();
+    }
+
+    /** The current depth of every stack, for {@link #release(long)}. */
+    public long mark() {
+        return intTop | (long) longTop << DEPTH_BITS | (long) booleanTop << 2 * DEPTH_BITS;
+    }
+
+    /** Hands back every array drawn since {@code mark}. */
+    public void release(long mark) {
+        int ints = (int) (mark & DEPTH_MASK);
+        int longs = (int) (mark >>> DEPTH_BITS & DEPTH_MASK);
+        int booleans = (int) (mark >>> 2 * DEPTH_BITS & DEPTH_MASK);
+        if (mark < 0 || ints > intTop || longs > longTop || booleans > booleanTop) {
+            throw new IllegalStateException("Release to " + mark + " beyond the arrays drawn (mark " + mark() + ")");
+        }
+        intTop = ints;
+        longTop = longs;
+        booleanTop = booleans;
+    }
+
+    /** At least {@code length} ints with arbitrary contents. */
+    public int[] ints(int length) {
+        if (intTop == intSlots.length) {
+            intSlots = Arrays.copyOf(intSlots, intTop * 2);
+        }
+        int[] held = intSlots[intTop++];
+        if (held != null && held.length >= length) {
+            reusedArrays++;
+            return held;
+        }
+        int capacity = grow(held == null ? 0 : held.length, length);
+        int[] array = new int[capacity];
+        created(capacity * 4L);
+        if (length <= MAX_RETAINED_LENGTH) {
+            intSlots[intTop - 1] = array;
+        }
+        return array;
+    }
+
+    public int[] zeroedInts(int length) {
+        int[] array = ints(length);
+        Arrays.fill(array, 0, length, 0);
+        return array;
+    }
+
+    public long[] longs(int length) {
+        if (longTop == longSlots.length) {
+            longSlots = Arrays.copyOf(longSlots, longTop * 2);
+        }
+        long[] held = longSlots[longTop++];
+        if (held != null && held.length >= length) {
+            reusedArrays++;
+            return held;
+        }
+        int capacity = grow(held == null ? 0 : held.length, length);
+        long[] array = new long[capacity];
+        created(capacity * 8L);
+        if (length <= MAX_RETAINED_LENGTH) {
+            longSlots[longTop - 1] = array;
+        }
+        return array;
+    }
+
+    public boolean[] clearedBooleans(int length) {
+        if (booleanTop == booleanSlots.length) {
+            booleanSlots = Arrays.copyOf(booleanSlots, booleanTop * 2);
+        }
+        boolean[] held = booleanSlots[booleanTop++];
+        if (held != null && held.length >= length) {
+            reusedArrays++;
+            Arrays.fill(held, 0, length, false);
+            return held;
+        }
+        int capacity = grow(held == null ? 0 : held.length, length);
+        boolean[] array = new boolean[capacity];
+        created(capacity);
+        if (length <= MAX_RETAINED_LENGTH) {
+            booleanSlots[booleanTop - 1] = array;
+        }
+        return array;
+    }
+
+    /** Arrays created because none held was large enough, including unretained ones. */
+    public long getCreatedArrays() {
+        return createdArrays;
+    }
+
+    public long getCreatedBytes() {
+        return createdBytes;
+    }
+
+    public long getReusedArrays() {
+        return reusedArrays;
+    }
+
+
+    private void created(long bytes) {
+        createdArrays++;
+        createdBytes += bytes;
+    }
+
+    /** Headroom so graphs of slowly growing size do not reallocate every time. */
+    private static int grow(int held, int length) {
+        if (length > MAX_RETAINED_LENGTH) {
+            return length;
+        }
+        return Math.min(MAX_RETAINED_LENGTH, Math.max(length, Math.max(16, held + (held >> 1))));
+    }
+}
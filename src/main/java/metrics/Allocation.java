@@ -0,0 +1,32 @@
+package metrics;
+
+import java.lang.management.ManagementFactory;
+
+/** Bytes allocated by the current thread, where the JVM can report it (HotSpot and derivatives). */
+final class Allocation {
+    private static final com.sun.management.ThreadMXBean THREADS = lookup();
+
+    private Allocation() {
+    }
+
+    /** Running total for the calling thread, or -1 if allocation tracking is unavailable. */
+    static long currentThreadBytes() {
+        return THREADS == null ? -1 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static com.sun.management.ThreadMXBean lookup() {
+        try {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+                if (threads.isThreadAllocatedMemorySupported()) {
+                    threads.setThreadAllocatedMemoryEnabled(true);
+                    return threads;
+                }
+            }
+        } catch (LinkageError | RuntimeException e) {
+            // Not a HotSpot-style JVM.
+        }
+        return null;
+    }
+}
@@ -0,0 +1,114 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pre-registered counter handle obtained from {@link PerformanceTracker#counter(String)}.
+ * Hot loops should count into a local {@code long} and {@link #add(long)} it once per call;
+ * with a disabled tracker every handle is the shared no-op instance and the JIT drops the call.
+ */
+public abstract class Counter {
+    private final String name;
+
+    Counter(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public abstract void increment();
+
+    public abstract void add(long delta);
+
+    public abstract long get();
+
+    abstract void reset();
+
+
+    /** Single-threaded counter backed by a plain {@code long} slot. */
+    static final class Local extends Counter {
+        private long value;
+
+        Local(String name) {
+            super(name);
+        }
+
+        @Override
+        public void increment() {
+            value++;
+        }
+
+        @Override
+        public void add(long delta) {
+            value += delta;
+        }
+
+        @Override
+        public long get() {
+            return value;
+        }
+
+        @Override
+        void reset() {
+            value = 0;
+        }
+    }
+
+
+    /** Counter shared by worker threads, backed by a {@link LongAdder}. */
+    static final class Concurrent extends Counter {
+        private final LongAdder value = new LongAdder();
+
+        Concurrent(String name) {
+            super(name);
+        }
+
+        @Override
+        public void increment() {
+            value.increment();
+        }
+
+        @Override
+        public void add(long delta) {
+            value.add(delta);
+        }
+
+        @Override
+        public long get() {
+            return value.sum();
+        }
+
+        @Override
+        void reset() {
+            value.reset();
+        }
+    }
+
+
+    static final class NoOp extends Counter {
+        static final NoOp INSTANCE = new NoOp();
+
+        private NoOp() {
+            super("disabled");
+        }
+
+        @Override
+        public void increment() {
+        }
+
+        @Override
+        public void add(long delta) {
+        }
+
+        @Override
+        public long get() {
+            return 0;
+        }
+
+        @Override
+        void reset() {
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package metrics;
+
+/**
+ * Emits {@link PhaseEvent}s when the running JVM has JFR. The event class is only loaded
+ * after the check, so Java 8 builds without {@code jdk.jfr} still run.
+ */
+final class Jfr {
+    static final boolean AVAILABLE = detect();
+
+    private Jfr() {
+    }
+
+    /** Starts an event for {@code phase}, or returns null when JFR is missing or the event is disabled. */
+    static Object begin(String phase) {
+        if (!AVAILABLE) {
+            return null;
+        }
+        PhaseEvent event = new PhaseEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.phase = phase;
+        event.begin();
+        return event;
+    }
+
+    static void commit(Object handle, long allocatedBytes, long operations) {
+        PhaseEvent event = (PhaseEvent) handle;
+        event.end();
+        if (event.shouldCommit()) {
+            event.allocatedBytes = allocatedBytes;
+            event.operations = operations;
+            event.commit();
+        }
+    }
+
+    private static boolean detect() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
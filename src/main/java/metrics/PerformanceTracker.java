@@ -1,24 +1,126 @@
 package metrics;
 
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
+/**
+ * Times one run of a stage and holds its operation counters. A tracker created with a phase
+ * name also measures the bytes its thread allocated, emits a JFR event while a recording is
+ * running, and on {@link #stop()} records the run into {@link PhaseMetrics} if given one.
+ */
 public class PerformanceTracker {
+    private static final PerformanceTracker DISABLED = new Disabled();
+
+    private final String phase;
+    private final PhaseMetrics metrics;
     private long startTime;
     private long endTime;
-    private Map<String, Long> operations;
+    private long allocationStart = -1;
+    private long allocatedBytes = -1;
+    private Object jfrEvent;
+    private final Map<String, Counter> counters = new LinkedHashMap<>();
+
+    public PerformanceTracker() {
+        this(null, null);
+    }
+
+    /** @param metrics where each finished run is recorded, or null for the JFR event and allocation only */
+    public PerformanceTracker(String phase, PhaseMetrics metrics) {
+        this.phase = phase;
+        this.metrics = metrics;
+    }
+
+
+    /** Shared tracker that records nothing; timing and every counter handle are no-ops. */
+    public static PerformanceTracker disabled() {
+        return DISABLED;
+    }
+
+    public boolean isEnabled() {
+        return true;
+    }
 
     public void start() {
+        for (Counter counter : counters.values()) {
+            counter.reset();
+        }
+        if (phase != null) {
+            allocationStart = Allocation.currentThreadBytes();
+            jfrEvent = Jfr.begin(phase);
+        }
         startTime = System.nanoTime();
-        operations = new LinkedHashMap<>();
     }
 
     public void stop() {
         endTime = System.nanoTime();
+        if (phase == null) {
+            return;
+        }
+        allocatedBytes = allocationStart < 0 ? -1 : Allocation.currentThreadBytes() - allocationStart;
+        if (jfrEvent != null) {
+            long operations = 0;
+            for (Counter counter : counters.values()) {
+                operations += counter.get();
+            }
+            Jfr.commit(jfrEvent, allocatedBytes, operations);
+            jfrEvent = null;
+        }
+        if (metrics != null) {
+            metrics.record(phase, this);
+        }
+    }
+
+    public String getPhase() {
+        return phase;
+    }
+
+    /**
+     * Bytes allocated by the starting thread between {@link #start()} and {@link #stop()};
+     * -1 without a phase name or where the JVM cannot tell. Worker threads are not included.
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /** Marks the start of a named part of the run; pass the result to {@link #endPhase}. */
+    public long beginPhase() {
+        return System.nanoTime();
+    }
+
+    /** Adds the time since {@code begin} to the {@code <name>_ns} counter. */
+    public void endPhase(String name, long begin) {
+        counter(name + "_ns").add(System.nanoTime() - begin);
+    }
+
+    /** Returns the single-threaded counter registered under {@code name}, creating it on first use. */
+    public Counter counter(String name) {
+        Counter counter = counters.get(name);
+        if (counter == null) {
+            counter = new Counter.Local(name);
+            counters.put(name, counter);
+        }
+        return counter;
+    }
+
+    /** Like {@link #counter(String)}, but safe to update from several threads at once. */
+    public Counter concurrentCounter(String name) {
+        Counter counter = counters.get(name);
+        if (!(counter instanceof Counter.Concurrent)) {
+            long carried = counter == null ? 0 : counter.get();
+            counter = new Counter.Concurrent(name);
+            counter.add(carried);
+            counters.put(name, counter);
+        }
+        return counter;
     }
 
     public void incrementOperation(String name) {
-        operations.put(name, operations.getOrDefault(name, 0L) + 1);
+        counter(name).increment();
+    }
+
+    public void addOperations(String name, long count) {
+        counter(name).add(count);
     }
 
     public long getExecutionTimeNanos() {
@@ -26,6 +128,63 @@ public class PerformanceTracker {
     }
 
     public Map<String, Long> getOperations() {
+        Map<String, Long> operations = new LinkedHashMap<>();
+        for (Counter counter : counters.values()) {
+            operations.put(counter.getName(), counter.get());
+        }
         return operations;
     }
+
+
+    private static final class Disabled extends PerformanceTracker {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void stop() {
+        }
+
+        @Override
+        public Counter counter(String name) {
+            return Counter.NoOp.INSTANCE;
+        }
+
+        @Override
+        public Counter concurrentCounter(String name) {
+            return Counter.NoOp.INSTANCE;
+        }
+
+        @Override
+        public long beginPhase() {
+            return 0;
+        }
+
+        @Override
+        public void endPhase(String name, long begin) {
+        }
+
+        @Override
+        public void incrementOperation(String name) {
+        }
+
+        @Override
+        public void addOperations(String name, long count) {
+        }
+
+        @Override
+        public long getExecutionTimeNanos() {
+            return 0;
+        }
+
+        @Override
+        public Map<String, Long> getOperations() {
+            return Collections.emptyMap();
+        }
+    }
 }
@@ -0,0 +1,25 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** JFR event spanning one tracked pipeline phase. Only touched through {@link Jfr}. */
+@Name("graph.Phase")
+@Label("Pipeline Phase")
+@Category("Graph Pipeline")
+@Description("One run of a tracked pipeline phase")
+final class PhaseEvent extends jdk.jfr.Event {
+    @Label("Phase")
+    String phase;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+
+    @Label("Operations")
+    @Description("Sum of the phase's operation counters")
+    long operations;
+}
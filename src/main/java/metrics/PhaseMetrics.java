@@ -0,0 +1,157 @@
+package metrics;
+
+import com.google.gson.GsonBuilder;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Distributions of every pipeline phase across repeated runs: a latency histogram, an
+ * allocated-bytes histogram and summed operation counters per phase name. Trackers created
+ * with {@link PerformanceTracker#PerformanceTracker(String, PhaseMetrics)} record themselves
+ * on {@code stop()}; their {@code *_ns} sub-phase counters become phases named
+ * {@code phase/sub}. Safe for concurrent runs.
+ */
+public class PhaseMetrics {
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+    private static final String NANOS_SUFFIX = "_ns";
+
+    private final Map<String, Phase> phases = new LinkedHashMap<>();
+
+    /** One phase's distributions. */
+    public static final class Phase {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LatencyHistogram allocated = new LatencyHistogram();
+        private final Map<String, LongAdder> operations = new LinkedHashMap<>();
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        /** Empty when the JVM cannot report per-thread allocation. */
+        public LatencyHistogram getAllocatedBytes() {
+            return allocated;
+        }
+
+        public Map<String, Long> getOperations() {
+            Map<String, Long> totals = new LinkedHashMap<>();
+            synchronized (operations) {
+                for (Map.Entry<String, LongAdder> entry : operations.entrySet()) {
+                    totals.put(entry.getKey(), entry.getValue().sum());
+                }
+            }
+            return totals;
+        }
+
+        void addOperations(String name, long count) {
+            LongAdder adder;
+            synchronized (operations) {
+                adder = operations.computeIfAbsent(name, k -> new LongAdder());
+            }
+            adder.add(count);
+        }
+    }
+
+    public synchronized Phase phase(String name) {
+        return phases.computeIfAbsent(name, k -> new Phase());
+    }
+
+    public synchronized List<String> phaseNames() {
+        return new ArrayList<>(phases.keySet());
+    }
+
+    /** Records one finished run of {@code phase}. */
+    public void record(String phase, PerformanceTracker tracker) {
+        Phase target = phase(phase);
+        target.latency.record(tracker.getExecutionTimeNanos());
+        target.allocated.record(tracker.getAllocatedBytes());
+        for (Map.Entry<String, Long> operation : tracker.getOperations().entrySet()) {
+            String name = operation.getKey();
+            if (name.endsWith(NANOS_SUFFIX)) {
+                phase(phase + "/" + name.substring(0, name.length() - NANOS_SUFFIX.length())).latency.record(operation.getValue());
+            } else {
+                target.addOperations(name, operation.getValue());
+            }
+        }
+    }
+
+
+    /** Prometheus text exposition: latency and allocation summaries plus operation counters. */
+    public String toPrometheus() {
+        StringBuilder out = new StringBuilder();
+        List<String> names = phaseNames();
+        out.append("# HELP graph_phase_seconds Latency of one run of a pipeline phase.\n");
+        out.append("# TYPE graph_phase_seconds summary\n");
+        for (String name : names) {
+            summary(out, "graph_phase_seconds", name, phase(name).latency, 1e-9);
+        }
+        out.append("# HELP graph_phase_allocated_bytes Bytes allocated by the thread running a pipeline phase.\n");
+        out.append("# TYPE graph_phase_allocated_bytes summary\n");
+        for (String name : names) {
+            if (phase(name).allocated.getCount() > 0) {
+                summary(out, "graph_phase_allocated_bytes", name, phase(name).allocated, 1);
+            }
+        }
+        out.append("# HELP graph_phase_operations_total Operations counted by a pipeline phase.\n");
+        out.append("# TYPE graph_phase_operations_total counter\n");
+        for (String name : names) {
+            for (Map.Entry<String, Long> operation : phase(name).getOperations().entrySet()) {
+                out.append("graph_phase_operations_total{phase=\"").append(escape(name))
+                        .append("\",operation=\"").append(escape(operation.getKey())).append("\"} ")
+                        .append(operation.getValue()).append('\n');
+            }
+        }
+        return out.toString();
+    }
+
+    /** Per phase: run count, mean, p50/p90/p99 and max of latency (ns) and allocation (bytes), and operation totals. */
+    public String toJson() {
+        Map<String, Object> json = new LinkedHashMap<>();
+        for (String name : phaseNames()) {
+            Phase phase = phase(name);
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("runs", phase.latency.getCount());
+            entry.put("latency_ns", distribution(phase.latency));
+            if (phase.allocated.getCount() > 0) {
+                entry.put("allocated_bytes", distribution(phase.allocated));
+            }
+            entry.put("operations", phase.getOperations());
+            json.put(name, entry);
+        }
+        return new GsonBuilder().setPrettyPrinting().create().toJson(json);
+    }
+
+    private static Map<String, Object> distribution(LatencyHistogram histogram) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("mean", Math.round(histogram.getMean()));
+        for (double q : QUANTILES) {
+            values.put("p" + Math.round(q * 100), histogram.getPercentile(q));
+        }
+        values.put("max", histogram.getMax());
+        values.put("sum", histogram.getSum());
+        return values;
+    }
+
+    private static void summary(StringBuilder out, String metric, String phase, LatencyHistogram histogram, double scale) {
+        String label = "phase=\"" + escape(phase) + "\"";
+        for (double q : QUANTILES) {
+            out.append(metric).append('{').append(label).append(",quantile=\"").append(q).append("\"} ")
+                    .append(format(histogram.getPercentile(q) * scale)).append('\n');
+        }
+        out.append(metric).append("_sum{").append(label).append("} ").append(format(histogram.getSum() * scale)).append('\n');
+        out.append(metric).append("_count{").append(label).append("} ").append(histogram.getCount()).append('\n');
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) && Math.abs(value) < 1e15
+                ? String.valueOf((long) value)
+                : String.valueOf(value);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,171 @@
+package pipeline;
+
+import dagsp.CriticalPathMethod;
+import dagsp.CriticalPathSchedule;
+import dagsp.DagShortestPath;
+import dagsp.PathResult;
+import graph.CompactGraph;
+import graph.CsrGraph;
+import graph.Permutation;
+import graph.VertexOrder;
+import graph.Workspace;
+import metrics.PerformanceTracker;
+import metrics.PhaseMetrics;
+import scc.CondensationBuilder;
+import scc.KosarajuAlgorithm;
+import scc.SccAlgorithm;
+import scc.SccResult;
+import topo.KahnsAlgorithm;
+import topo.TopologicalLevels;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The whole analysis as one call: SCCs, condensation, topological levels, shortest paths from
+ * the first component in the order, longest paths and the critical-path schedule. Stages hand
+ * their primitive results straight to the next one and skip work an earlier stage has done:
+ *
+ * <ul>
+ * <li>the condensation builder counts in-degrees while it writes the edges, and Kahn starts
+ * from those instead of counting again;</li>
+ * <li>one FIFO Kahn pass gives both the order and the waves, as the queue releases vertices
+ * level by level;</li>
+ * <li>the longest paths are the earliest starts of the schedule, so the critical-path method
+ * only runs its backward pass, on the same arrays;</li>
+ * <li>the SCC transpose is built without weights;</li>
+ * <li>scratch arrays, including the in-degrees passed between the stages, come from the
+ * thread's {@link Workspace}, so a thread running graph after graph stops allocating them.</li>
+ * </ul>
+ *
+ * With a {@link #vertexOrder} set, a {@link #REORDER} stage first relabels the graph for cache
+ * locality, and the SCC search runs on the relabelled copy. Its components are mapped back to
+ * the original ids before the condensation is built from the graph as given. The condensation
+ * therefore keeps the same edge weights under {@link CondensationBuilder.WeightPolicy#FIRST},
+ * and the result is the one an unordered run gives up to component numbering. The numbering
+ * follows the relabelled discovery order, so Kahn and the path stages walk components in that
+ * order too.
+ *
+ * Every stage has its own tracker, named after the stage, so its time, allocation and
+ * counters are in the result; with {@link #phaseMetrics} set each run is also recorded there.
+ * A pipeline holds only its settings and can run on several threads at once.
+ */
+public class Pipeline {
+    public static final String REORDER = "reorder";
+    public static final String SCC = "scc";
+    public static final String CONDENSATION = "condensation";
+    public static final String TOPO = "topo";
+    public static final String SHORTEST_PATH = "shortest_path";
+    public static final String LONGEST_PATH = "longest_path";
+    public static final String CPM = "cpm";
+
+    private SccAlgorithm sccAlgorithm = new KosarajuAlgorithm();
+    private CondensationBuilder.WeightPolicy weightPolicy = CondensationBuilder.WeightPolicy.FIRST;
+    private VertexOrder vertexOrder = VertexOrder.NONE;
+    private boolean shortestPaths = true;
+    private boolean schedule = true;
+    private PhaseMetrics phaseMetrics;
+
+
+    public Pipeline sccAlgorithm(SccAlgorithm sccAlgorithm) {
+        this.sccAlgorithm = sccAlgorithm;
+        return this;
+    }
+
+    public Pipeline weightPolicy(CondensationBuilder.WeightPolicy weightPolicy) {
+        this.weightPolicy = weightPolicy;
+        return this;
+    }
+
+    /** Relabelling applied before the SCC stage; {@link VertexOrder#NONE} (the default) runs on the graph as given. */
+    public Pipeline vertexOrder(VertexOrder vertexOrder) {
+        this.vertexOrder = vertexOrder;
+        return this;
+    }
+
+    /** Whether to run the shortest-path stage; on by default. */
+    public Pipeline shortestPaths(boolean shortestPaths) {
+        this.shortestPaths = shortestPaths;
+        return this;
+    }
+
+    /** Whether to run the critical-path stage; on by default. */
+    public Pipeline schedule(boolean schedule) {
+        this.schedule = schedule;
+        return this;
+    }
+
+    /** Where every stage run is recorded, or null (the default) to keep the costs in the result only. */
+    public Pipeline phaseMetrics(PhaseMetrics phaseMetrics) {
+        this.phaseMetrics = phaseMetrics;
+        return this;
+    }
+
+    public SccAlgorithm getSccAlgorithm() {
+        return sccAlgorithm;
+    }
+
+    public CondensationBuilder.WeightPolicy getWeightPolicy() {
+        return weightPolicy;
+    }
+
+    public VertexOrder getVertexOrder() {
+        return vertexOrder;
+    }
+
+
+    public PipelineResult run(CompactGraph graph) {
+        Map<String, PerformanceTracker> stages = new LinkedHashMap<>();
+
+        Permutation permutation = null;
+        CompactGraph work = graph;
+        if (vertexOrder != VertexOrder.NONE) {
+            PerformanceTracker reorder = stage(stages, REORDER);
+            reorder.start();
+            permutation = vertexOrder.permutation(graph);
+            work = permutation.apply(graph);
+            reorder.addOperations("relabelled_edges", work.getNumEdges());
+            reorder.stop();
+        }
+
+        SccResult sccs = sccAlgorithm.findComponents(work, stage(stages, SCC));
+        if (permutation != null) {
+            sccs = new SccResult(permutation.toOriginal(sccs.getComponentOf()), sccs.getNumComponents());
+        }
+
+        Workspace workspace = Workspace.get();
+        long mark = workspace.mark();
+        CsrGraph condensation;
+        TopologicalLevels order;
+        try {
+            int[] inDegree = workspace.zeroedInts(sccs.getNumComponents());
+            condensation = new CondensationBuilder().weightPolicy(weightPolicy)
+                    .build(graph, sccs, inDegree, stage(stages, CONDENSATION));
+            order = new KahnsAlgorithm().sort(condensation, inDegree, stage(stages, TOPO));
+        } finally {
+            workspace.release(mark);
+        }
+        if (!order.isAcyclic()) {
+            return new PipelineResult(sccs, condensation, order, -1, null, null, null, stages);
+        }
+
+        DagShortestPath dagSp = new DagShortestPath();
+        int source = -1;
+        PathResult shortest = null;
+        if (shortestPaths && condensation.getNumVertices() > 0) {
+            source = order.getOrder()[0];
+            shortest = dagSp.shortestPaths(condensation, order, source, stage(stages, SHORTEST_PATH));
+        }
+        PathResult longest = dagSp.longestPaths(condensation, order, stage(stages, LONGEST_PATH));
+        CriticalPathSchedule criticalPath = schedule
+                ? new CriticalPathMethod().schedule(condensation, order, sccs, longest, stage(stages, CPM))
+                : null;
+        return new PipelineResult(sccs, condensation, order, source, shortest, longest, criticalPath, stages);
+    }
+
+    private PerformanceTracker stage(Map<String, PerformanceTracker> stages, String name) {
+        PerformanceTracker tracker = new PerformanceTracker(name, phaseMetrics);
+        stages.put(name, tracker);
+        return tracker;
+    }
+}
@@ -0,0 +1,119 @@
+package pipeline;
+
+import dagsp.CriticalPathSchedule;
+import dagsp.PathResult;
+import graph.CsrGraph;
+import metrics.PerformanceTracker;
+import scc.SccResult;
+import topo.TopologicalLevels;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Everything one {@link Pipeline} run produced, plus the tracker of every stage that ran, in
+ * run order. On a cyclic condensation, which only a broken SCC result can produce, the path
+ * and schedule stages do not run and their getters return null.
+ */
+public class PipelineResult {
+    private final SccResult components;
+    private final CsrGraph condensation;
+    private final TopologicalLevels order;
+    private final int sourceComponent;
+    private final PathResult shortestPaths;
+    private final PathResult longestPaths;
+    private final CriticalPathSchedule schedule;
+    private final Map<String, PerformanceTracker> stages;
+
+    PipelineResult(SccResult components, CsrGraph condensation, TopologicalLevels order, int sourceComponent,
+                   PathResult shortestPaths, PathResult longestPaths, CriticalPathSchedule schedule,
+                   Map<String, PerformanceTracker> stages) {
+        this.components = components;
+        this.condensation = condensation;
+        this.order = order;
+        this.sourceComponent = sourceComponent;
+        this.shortestPaths = shortestPaths;
+        this.longestPaths = longestPaths;
+        this.schedule = schedule;
+        this.stages = Collections.unmodifiableMap(stages);
+    }
+
+    public SccResult getComponents() {
+        return components;
+    }
+
+    public CsrGraph getCondensation() {
+        return condensation;
+    }
+
+    public TopologicalLevels getOrder() {
+        return order;
+    }
+
+    public boolean isAcyclic() {
+        return order.isAcyclic();
+    }
+
+    /** Component the shortest paths start from, or -1 if that stage did not run. */
+    public int getSourceComponent() {
+        return sourceComponent;
+    }
+
+    public PathResult getShortestPaths() {
+        return shortestPaths;
+    }
+
+    public PathResult getLongestPaths() {
+        return longestPaths;
+    }
+
+    /** Length of the longest path over the condensation; 0 without one. */
+    public long getCriticalPathLength() {
+        int farthest = longestPaths == null ? -1 : longestPaths.farthestVertex();
+        return farthest == -1 ? 0 : Math.max(0, longestPaths.getDistance(farthest));
+    }
+
+    public CriticalPathSchedule getSchedule() {
+        return schedule;
+    }
+
+    /** Trackers by stage name ({@link Pipeline#SCC} and so on), in the order the stages ran. */
+    public Map<String, PerformanceTracker> getStages() {
+        return stages;
+    }
+
+    /** The tracker of {@code stage}, or null if it did not run. */
+    public PerformanceTracker getStage(String stage) {
+        return stages.get(stage);
+    }
+
+    public long getStageNanos(String stage) {
+        PerformanceTracker tracker = stages.get(stage);
+        return tracker == null ? 0 : tracker.getExecutionTimeNanos();
+    }
+
+    public long getStageOperation(String stage, String operation) {
+        PerformanceTracker tracker = stages.get(stage);
+        return tracker == null ? 0 : tracker.getOperations().getOrDefault(operation, 0L);
+    }
+
+    public long getTotalNanos() {
+        long total = 0;
+        for (PerformanceTracker tracker : stages.values()) {
+            total += tracker.getExecutionTimeNanos();
+        }
+        return total;
+    }
+
+    /** Bytes allocated by the calling thread over all stages, or -1 where the JVM cannot tell. */
+    public long getAllocatedBytes() {
+        long total = 0;
+        for (PerformanceTracker tracker : stages.values()) {
+            if (tracker.getAllocatedBytes() < 0) {
+                return -1;
+            }
+            total += tracker.getAllocatedBytes();
+        }
+        return total;
+    }
+}
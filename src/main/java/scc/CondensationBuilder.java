@@ -0,0 +1,323 @@
+package scc;
+
+import graph.CompactGraph;
+import graph.CsrGraph;
+import graph.IntList;
+import graph.Workspace;
+import metrics.Counter;
+import metrics.PerformanceTracker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Builds the condensation DAG of an SCC partition: one vertex per component and one edge per
+ * distinct pair of components joined by at least one original edge.
+ *
+ * <p>Components are processed one at a time over their member vertices. The sequential path
+ * deduplicates with a per-target-component stamp array, so there is no hashing at all; the
+ * parallel path sorts packed {@code long} keys inside each component instead, which keeps its
+ * scratch memory proportional to the component rather than to the whole graph. Both produce
+ * the same graph, with every component's edges in the order their first original edge was met.
+ */
+public class CondensationBuilder {
+
+    /** How the weights of parallel edges between two components are combined. */
+    public enum WeightPolicy {
+        FIRST, MIN, MAX, SUM
+    }
+
+    private static final int PARALLEL_CHUNK_EDGES = 1 << 16;
+
+    private WeightPolicy weightPolicy = WeightPolicy.FIRST;
+    private ForkJoinPool pool;
+
+
+    public CondensationBuilder weightPolicy(WeightPolicy weightPolicy) {
+        this.weightPolicy = weightPolicy;
+        return this;
+    }
+
+    /** Builds on {@code pool}; pass {@code null} to build on the calling thread. */
+    public CondensationBuilder parallel(ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+
+    public CsrGraph build(CompactGraph graph, SccResult sccs, PerformanceTracker tracker) {
+        return build(graph, sccs, null, tracker);
+    }
+
+    /**
+     * @param inDegree if not null, receives the in-degree of every component in the condensation,
+     *                 counted while its edges are written; must hold at least one slot per component,
+     *                 zeroed (such as a {@link Workspace#zeroedInts} array)
+     */
+    public CsrGraph build(CompactGraph graph, SccResult sccs, int[] inDegree, PerformanceTracker tracker) {
+        if (inDegree != null && inDegree.length < sccs.getNumComponents()) {
+            throw new IllegalArgumentException("Expected at least " + sccs.getNumComponents() + " in-degree slots, got " + inDegree.length);
+        }
+        Workspace workspace = Workspace.get();
+        long mark = workspace.mark();
+        try {
+            return build(graph, sccs, inDegree, workspace, tracker);
+        } finally {
+            workspace.release(mark);
+        }
+    }
+
+    private CsrGraph build(CompactGraph graph, SccResult sccs, int[] inDegree, Workspace workspace, PerformanceTracker tracker) {
+        tracker.start();
+        Counter crossEdges = tracker.counter("cross_edges");
+        Counter condensationEdges = tracker.counter("condensation_edges");
+        int C = sccs.getNumComponents();
+        int[] componentOf = sccs.getComponentOf();
+
+        // Counting sort of the vertices by component; members stay in ascending vertex order.
+        int[] memberOffsets = workspace.zeroedInts(C + 1);
+        for (int c : componentOf) {
+            memberOffsets[c + 1]++;
+        }
+        for (int c = 0; c < C; c++) {
+            memberOffsets[c + 1] += memberOffsets[c];
+        }
+        int[] members = workspace.ints(componentOf.length);
+        int[] cursor = workspace.ints(C);
+        System.arraycopy(memberOffsets, 0, cursor, 0, C);
+        for (int v = 0; v < componentOf.length; v++) {
+            members[cursor[componentOf[v]]++] = v;
+        }
+
+        Part[] parts;
+        boolean inDegreeCounted = false;
+        if (pool == null || C < 2) {
+            // Scaled by the share of vertices that are components: a DAG fills the lists exactly,
+            // while one giant component does not reserve room for edges that stay inside it.
+            int expectedEdges = (int) ((long) graph.getNumEdges() * C / Math.max(1, componentOf.length));
+            parts = new Part[]{new Part(0, C, Math.max(16, expectedEdges), workspace.ints(C))};
+            parts[0].buildWithStamps(graph, componentOf, members, memberOffsets, C, weightPolicy, inDegree, workspace);
+            inDegreeCounted = true;
+        } else {
+            parts = split(graph, members, memberOffsets, C);
+            List<RecursiveAction> tasks = new ArrayList<>(parts.length);
+            for (Part part : parts) {
+                tasks.add(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        part.buildWithSort(graph, componentOf, members, memberOffsets, weightPolicy);
+                    }
+                });
+            }
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(tasks);
+                }
+            });
+        }
+
+        int[] offsets = new int[C + 1];
+        long cross = 0;
+        for (Part part : parts) {
+            for (int c = part.from; c < part.to; c++) {
+                offsets[c + 1] = offsets[c] + part.degree[c - part.from];
+            }
+            cross += part.crossEdges;
+        }
+        int[] targets;
+        int[] weights;
+        if (parts.length == 1) {
+            targets = parts[0].targets.detach();
+            weights = parts[0].weights.detach();
+        } else {
+            targets = new int[offsets[C]];
+            weights = new int[offsets[C]];
+            for (Part part : parts) {
+                int at = offsets[part.from];
+                for (int i = 0; i < part.targets.size(); i++) {
+                    targets[at + i] = part.targets.get(i);
+                    weights[at + i] = part.weights.get(i);
+                }
+            }
+        }
+        if (inDegree != null && !inDegreeCounted) {
+            for (int target : targets) {
+                inDegree[target]++;
+            }
+        }
+
+        crossEdges.add(cross);
+        condensationEdges.add(targets.length);
+        tracker.stop();
+        return CsrGraph.fromArrays(C, offsets, targets, weights);
+    }
+
+
+    /** Contiguous component ranges carrying roughly equal numbers of original edges. */
+    private Part[] split(CompactGraph graph, int[] members, int[] memberOffsets, int C) {
+        long total = graph.getNumEdges();
+        long chunk = Math.max(PARALLEL_CHUNK_EDGES, total / (pool.getParallelism() * 4L) + 1);
+        List<Part> parts = new ArrayList<>();
+        int from = 0;
+        long edges = 0;
+        for (int c = 0; c < C; c++) {
+            for (int i = memberOffsets[c]; i < memberOffsets[c + 1]; i++) {
+                edges += graph.endEdge(members[i]) - graph.firstEdge(members[i]);
+            }
+            if (edges >= chunk) {
+                parts.add(new Part(from, c + 1, 16, new int[c + 1 - from]));
+                from = c + 1;
+                edges = 0;
+            }
+        }
+        if (from < C) {
+            parts.add(new Part(from, C, 16, new int[C - from]));
+        }
+        return parts.toArray(new Part[0]);
+    }
+
+
+    private static final class Part {
+        final int from;
+        final int to;
+        final int[] degree;
+        final IntList targets;
+        final IntList weights;
+        long crossEdges;
+
+        /** @param degree scratch for the out-degree of each component in the range; may be longer */
+        Part(int from, int to, int expectedEdges, int[] degree) {
+            this.from = from;
+            this.to = to;
+            this.degree = degree;
+            this.targets = new IntList(expectedEdges);
+            this.weights = new IntList(expectedEdges);
+        }
+
+        void buildWithStamps(CompactGraph graph, int[] componentOf, int[] members, int[] memberOffsets,
+                             int C, WeightPolicy policy, int[] inDegree, Workspace workspace) {
+            int[] owner = workspace.ints(C);
+            int[] slot = workspace.ints(C);
+            // Sized by the widest component seen so far rather than by C, which would pin 8 C bytes
+            // in every thread's workspace.
+            long[] merged = new long[16];
+            Arrays.fill(owner, 0, C, -1);
+
+            for (int cu = from; cu < to; cu++) {
+                int start = targets.size();
+                int unique = 0;
+                for (int i = memberOffsets[cu]; i < memberOffsets[cu + 1]; i++) {
+                    int u = members[i];
+                    for (int e = graph.firstEdge(u), end = graph.endEdge(u); e < end; e++) {
+                        int cv = componentOf[graph.target(e)];
+                        if (cv == cu) {
+                            continue;
+                        }
+                        crossEdges++;
+                        int w = graph.weight(e);
+                        if (owner[cv] != cu) {
+                            if (unique == merged.length) {
+                                merged = Arrays.copyOf(merged, unique * 2);
+                            }
+                            owner[cv] = cu;
+                            slot[cv] = unique;
+                            merged[unique++] = w;
+                            targets.add(cv);
+                            if (inDegree != null) {
+                                inDegree[cv]++;
+                            }
+                        } else {
+                            merged[slot[cv]] = combine(policy, merged[slot[cv]], w);
+                        }
+                    }
+                }
+                for (int k = 0; k < unique; k++) {
+                    weights.add(saturate(merged[k]));
+                }
+                degree[cu - from] = targets.size() - start;
+            }
+        }
+
+        void buildWithSort(CompactGraph graph, int[] componentOf, int[] members, int[] memberOffsets,
+                           WeightPolicy policy) {
+            long[] keys = new long[16];
+            int[] edgeWeights = new int[16];
+            int[] uniqueTargets = new int[16];
+            long[] merged = new long[16];
+            long[] arrival = new long[16];
+
+            for (int cu = from; cu < to; cu++) {
+                int n = 0;
+                for (int i = memberOffsets[cu]; i < memberOffsets[cu + 1]; i++) {
+                    int u = members[i];
+                    for (int e = graph.firstEdge(u), end = graph.endEdge(u); e < end; e++) {
+                        int cv = componentOf[graph.target(e)];
+                        if (cv == cu) {
+                            continue;
+                        }
+                        if (n == keys.length) {
+                            keys = Arrays.copyOf(keys, n * 2);
+                            edgeWeights = Arrays.copyOf(edgeWeights, n * 2);
+                            uniqueTargets = Arrays.copyOf(uniqueTargets, n * 2);
+                            merged = Arrays.copyOf(merged, n * 2);
+                            arrival = Arrays.copyOf(arrival, n * 2);
+                        }
+                        // Target component in the high half, arrival index in the low half:
+                        // sorting groups each target with its first-seen edge in front.
+                        keys[n] = ((long) cv << 32) | n;
+                        edgeWeights[n] = graph.weight(e);
+                        n++;
+                    }
+                }
+                crossEdges += n;
+                Arrays.sort(keys, 0, n);
+
+                int unique = 0;
+                for (int i = 0; i < n; ) {
+                    int cv = (int) (keys[i] >>> 32);
+                    int first = (int) keys[i];
+                    long w = edgeWeights[first];
+                    int j = i + 1;
+                    for (; j < n && (int) (keys[j] >>> 32) == cv; j++) {
+                        w = combine(policy, w, edgeWeights[(int) keys[j]]);
+                    }
+                    uniqueTargets[unique] = cv;
+                    merged[unique] = w;
+                    arrival[unique] = ((long) first << 32) | unique;
+                    unique++;
+                    i = j;
+                }
+
+                // Back to first-arrival order so the output matches the sequential build.
+                Arrays.sort(arrival, 0, unique);
+                for (int k = 0; k < unique; k++) {
+                    int index = (int) arrival[k];
+                    targets.add(uniqueTargets[index]);
+                    weights.add(saturate(merged[index]));
+                }
+                degree[cu - from] = unique;
+            }
+        }
+    }
+
+    private static long combine(WeightPolicy policy, long current, int next) {
+        switch (policy) {
+            case MIN:
+                return Math.min(current, next);
+            case MAX:
+                return Math.max(current, next);
+            case SUM:
+                return current + next;
+            default:
+                return current;
+        }
+    }
+
+    private static int saturate(long value) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, value));
+    }
+}
@@ -0,0 +1,559 @@
+package scc;
+
+import graph.CsrGraph;
+import graph.DirectedGraph;
+import graph.IntList;
+import metrics.PerformanceTracker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Directed graph whose SCC partition and condensation DAG are kept up to date as edges are
+ * added and removed, so a small edit does not rerun the whole pipeline.
+ *
+ * <p>The components are kept in a topological order (Pearce-Kelly). An insertion
+ * {@code u -> v} between components that already respects the order costs nothing; otherwise
+ * only the components ordered between {@code v} and {@code u} are searched, the ones that
+ * now lie on a cycle are merged, and the searched region is reordered. A removal inside a
+ * component can only split that component, and only if {@code v} is no longer reachable from
+ * {@code u} inside it; that is checked with a bidirectional search, and only on failure is
+ * Tarjan run on the component alone. Edges between components just adjust a per-pair
+ * multiplicity.
+ *
+ * <p>Component ids returned by {@link #componentOf(int)} stay stable for components an edit
+ * does not touch; {@link #snapshot()} renumbers them densely.
+ */
+public class DynamicSccGraph {
+    private static final long ORDER_GAP = 1L << 20;
+
+    private final int V;
+    private final DirectedGraph graph;
+    private final DirectedGraph reverse;
+    private final int[] componentOf;
+    private final List<IntList> members = new ArrayList<>();
+    // Condensation edges with the number of graph edges behind each, by component id.
+    private final List<Map<Integer, Integer>> successors = new ArrayList<>();
+    private final List<Map<Integer, Integer>> predecessors = new ArrayList<>();
+    private final IntList freeIds = new IntList();
+    private int numComponents;
+    private long numCondensationEdges;
+    // Topological position of each component; gaps leave room for the pieces of a split.
+    private final long[] order;
+    private final TreeMap<Long, Integer> byOrder = new TreeMap<>();
+
+    // Scratch for the searches; a slot is "marked" when it equals the current epoch.
+    private final int[] mark;
+    private final int[] backMark;
+    private int epoch;
+    private final int[] localId;
+    private long visits;
+
+    public DynamicSccGraph(int V) {
+        this(new DirectedGraph(V), PerformanceTracker.disabled());
+    }
+
+    /** Takes ownership of {@code graph}; later edits must go through this class. */
+    public DynamicSccGraph(DirectedGraph graph, PerformanceTracker tracker) {
+        tracker.start();
+        this.V = graph.getNumVertices();
+        this.graph = graph;
+        this.reverse = graph.getTranspose();
+        this.componentOf = new int[V];
+        this.order = new long[V];
+        this.mark = new int[V];
+        this.backMark = new int[V];
+        this.localId = new int[V];
+
+        SccResult initial = new TarjanAlgorithm().findComponents(graph.toCsr(), PerformanceTracker.disabled());
+        int[] initialComponent = initial.getComponentOf();
+        // Tarjan numbers components in reverse topological order.
+        for (int c = 0; c < initial.getNumComponents(); c++) {
+            setOrder(newComponent(), (initial.getNumComponents() - 1 - c) * ORDER_GAP);
+        }
+        for (int v = 0; v < V; v++) {
+            componentOf[v] = initialComponent[v];
+            members.get(componentOf[v]).add(v);
+        }
+        for (int u = 0; u < V; u++) {
+            for (int[] edge : graph.getAdj(u)) {
+                addCrossEdge(componentOf[u], componentOf[edge[0]], 1);
+            }
+        }
+        tracker.stop();
+    }
+
+
+    /** Edits applied together by {@link #apply}; removals are applied before additions. */
+    public static class Batch {
+        private final IntList addSources = new IntList();
+        private final IntList addTargets = new IntList();
+        private final IntList addWeights = new IntList();
+        private final IntList removeSources = new IntList();
+        private final IntList removeTargets = new IntList();
+
+        public Batch addEdge(int u, int v, int weight) {
+            addSources.add(u);
+            addTargets.add(v);
+            addWeights.add(weight);
+            return this;
+        }
+
+        /** Removes one {@code u -> v} edge; removing an edge that does not exist is a no-op. */
+        public Batch removeEdge(int u, int v) {
+            removeSources.add(u);
+            removeTargets.add(v);
+            return this;
+        }
+    }
+
+    public void addEdge(int u, int v, int weight, PerformanceTracker tracker) {
+        apply(new Batch().addEdge(u, v, weight), tracker);
+    }
+
+    public void removeEdge(int u, int v, PerformanceTracker tracker) {
+        apply(new Batch().removeEdge(u, v), tracker);
+    }
+
+    public void apply(Batch batch, PerformanceTracker tracker) {
+        for (int i = 0; i < batch.addSources.size(); i++) {
+            checkRange(batch.addSources.get(i), batch.addTargets.get(i));
+        }
+        for (int i = 0; i < batch.removeSources.size(); i++) {
+            checkRange(batch.removeSources.get(i), batch.removeTargets.get(i));
+        }
+
+        tracker.start();
+        visits = 0;
+        long merged = 0;
+        long split = 0;
+        long removed = 0;
+
+        // Components that lost an internal edge, with the edges each one lost.
+        Map<Integer, IntList> damaged = new HashMap<>();
+        for (int i = 0; i < batch.removeSources.size(); i++) {
+            int u = batch.removeSources.get(i);
+            int v = batch.removeTargets.get(i);
+            if (!graph.removeEdge(u, v)) {
+                continue;
+            }
+            reverse.removeEdge(v, u);
+            removed++;
+            int cu = componentOf[u];
+            int cv = componentOf[v];
+            if (cu != cv) {
+                addCrossEdge(cu, cv, -1);
+            } else {
+                IntList lost = damaged.computeIfAbsent(cu, c -> new IntList());
+                lost.add(u);
+                lost.add(v);
+            }
+        }
+        for (Map.Entry<Integer, IntList> entry : damaged.entrySet()) {
+            int c = entry.getKey();
+            IntList lost = entry.getValue();
+            boolean intact = true;
+            for (int k = 0; k < lost.size() && intact; k += 2) {
+                intact = reachesWithin(lost.get(k), lost.get(k + 1), c);
+            }
+            if (!intact) {
+                visits += members.get(c).size();
+                split += splitComponent(c) - 1;
+            }
+        }
+
+        for (int i = 0; i < batch.addSources.size(); i++) {
+            int u = batch.addSources.get(i);
+            int v = batch.addTargets.get(i);
+            graph.addEdge(u, v, batch.addWeights.get(i));
+            reverse.addEdge(v, u, batch.addWeights.get(i));
+            int cu = componentOf[u];
+            int cv = componentOf[v];
+            // An existing condensation edge, or one that respects the order, closes no cycle.
+            if (cu != cv && addCrossEdge(cu, cv, 1) == 1 && order[cv] < order[cu]) {
+                merged += restoreOrder(cu, cv);
+            }
+        }
+
+        tracker.addOperations("edges_added", batch.addSources.size());
+        tracker.addOperations("edges_removed", removed);
+        tracker.addOperations("components_merged", merged);
+        tracker.addOperations("components_split", split);
+        tracker.addOperations("search_visits", visits);
+        tracker.stop();
+    }
+
+
+    public int getNumVertices() {
+        return V;
+    }
+
+    public DirectedGraph getGraph() {
+        return graph;
+    }
+
+    public int getNumComponents() {
+        return numComponents;
+    }
+
+    public long getNumCondensationEdges() {
+        return numCondensationEdges;
+    }
+
+    public int componentOf(int v) {
+        return componentOf[v];
+    }
+
+    /** Component ids with at least one edge from {@code component}. */
+    public int[] condensationSuccessors(int component) {
+        int[] result = new int[successors.get(component).size()];
+        int i = 0;
+        for (int d : successors.get(component).keySet()) {
+            result[i++] = d;
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    /** Current partition with components numbered densely by their smallest vertex. */
+    public SccResult snapshot() {
+        int[] renumber = new int[members.size()];
+        Arrays.fill(renumber, -1);
+        int[] result = new int[V];
+        int count = 0;
+        for (int v = 0; v < V; v++) {
+            int c = componentOf[v];
+            if (renumber[c] == -1) {
+                renumber[c] = count++;
+            }
+            result[v] = renumber[c];
+        }
+        return new SccResult(result, count);
+    }
+
+    public CsrGraph condensation(CondensationBuilder builder, PerformanceTracker tracker) {
+        return builder.build(graph.toCsr(), snapshot(), tracker);
+    }
+
+
+    private int newComponent() {
+        numComponents++;
+        if (freeIds.size() > 0) {
+            return freeIds.removeLast();
+        }
+        members.add(new IntList());
+        successors.add(new HashMap<>());
+        predecessors.add(new HashMap<>());
+        return members.size() - 1;
+    }
+
+    private int nextEpoch() {
+        if (epoch == Integer.MAX_VALUE) {
+            Arrays.fill(mark, 0);
+            Arrays.fill(backMark, 0);
+            epoch = 0;
+        }
+        return ++epoch;
+    }
+
+    private void setOrder(int c, long position) {
+        order[c] = position;
+        byOrder.put(position, c);
+    }
+
+    /** Spreads all components out again, {@code gap} apart, when a split finds no room in its gap. */
+    private void renumberOrder(long gap) {
+        int[] sequence = new int[byOrder.size()];
+        int i = 0;
+        for (int c : byOrder.values()) {
+            sequence[i++] = c;
+        }
+        byOrder.clear();
+        for (i = 0; i < sequence.length; i++) {
+            setOrder(sequence[i], i * gap);
+        }
+    }
+
+    private void releaseComponent(int c) {
+        numComponents--;
+        members.get(c).clear();
+        freeIds.add(c);
+    }
+
+    /** Adjusts the multiplicity of {@code a -> b} and returns the new value. */
+    private int addCrossEdge(int a, int b, int delta) {
+        if (a == b) {
+            return 0;
+        }
+        int count = successors.get(a).getOrDefault(b, 0) + delta;
+        if (count == 0) {
+            successors.get(a).remove(b);
+            predecessors.get(b).remove(a);
+            numCondensationEdges--;
+        } else {
+            if (count == delta) {
+                numCondensationEdges++;
+            }
+            successors.get(a).put(b, count);
+            predecessors.get(b).put(a, count);
+        }
+        return count;
+    }
+
+    private void detach(int c) {
+        for (int d : successors.get(c).keySet()) {
+            predecessors.get(d).remove(c);
+        }
+        for (int d : predecessors.get(c).keySet()) {
+            successors.get(d).remove(c);
+        }
+        numCondensationEdges -= successors.get(c).size() + predecessors.get(c).size();
+        successors.get(c).clear();
+        predecessors.get(c).clear();
+    }
+
+    /** Bidirectional search for a {@code from -> to} path that stays inside component {@code c}. */
+    private boolean reachesWithin(int from, int to, int c) {
+        int forward = nextEpoch();
+        int backward = forward;
+        IntList forwardStack = new IntList();
+        IntList backwardStack = new IntList();
+        forwardStack.add(from);
+        mark[from] = forward;
+        backwardStack.add(to);
+        backMark[to] = backward;
+        while (forwardStack.size() > 0 && backwardStack.size() > 0) {
+            visits++;
+            boolean expandForward = forwardStack.size() <= backwardStack.size();
+            int x = expandForward ? forwardStack.removeLast() : backwardStack.removeLast();
+            if (mark[x] == forward && backMark[x] == backward) {
+                return true;
+            }
+            for (int[] edge : (expandForward ? graph : reverse).getAdj(x)) {
+                int y = edge[0];
+                if (componentOf[y] != c) {
+                    continue;
+                }
+                if (expandForward && mark[y] != forward) {
+                    mark[y] = forward;
+                    forwardStack.add(y);
+                } else if (!expandForward && backMark[y] != backward) {
+                    backMark[y] = backward;
+                    backwardStack.add(y);
+                }
+                if (mark[y] == forward && backMark[y] == backward) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Repairs the order after a new condensation edge {@code x -> y} with {@code y} ordered
+     * before {@code x}. The affected region is what {@code y} reaches among components ordered
+     * up to {@code x}, and what reaches {@code x} among components ordered from {@code y}; the
+     * components in both lie on a new cycle and are merged. The region keeps its positions:
+     * the backward part takes the first ones, the forward part the last ones, and the merged
+     * component sits in between.
+     * Returns the number of components merged away.
+     */
+    private int restoreOrder(int x, int y) {
+        int forward = nextEpoch();
+        IntList forwardRegion = search(y, successors, mark, forward, Long.MIN_VALUE, order[x]);
+        int backward = nextEpoch();
+        IntList backwardRegion = search(x, predecessors, backMark, backward, order[y], Long.MAX_VALUE);
+
+        long[] slots = new long[forwardRegion.size() + backwardRegion.size()];
+        IntList before = new IntList();
+        IntList cycle = new IntList();
+        IntList after = new IntList();
+        int n = 0;
+        for (int i = 0; i < backwardRegion.size(); i++) {
+            int c = backwardRegion.get(i);
+            slots[n++] = order[c];
+            (mark[c] == forward ? cycle : before).add(c);
+        }
+        for (int i = 0; i < forwardRegion.size(); i++) {
+            int c = forwardRegion.get(i);
+            if (backMark[c] != backward) {
+                slots[n++] = order[c];
+                after.add(c);
+            }
+        }
+        sortByOrder(before);
+        sortByOrder(after);
+        slots = Arrays.copyOf(slots, n);
+        Arrays.sort(slots);
+        for (long slot : slots) {
+            byOrder.remove(slot);
+        }
+
+        // Backward components only move down and forward ones only move up, which keeps every
+        // edge leaving the region in order.
+        for (int i = 0; i < before.size(); i++) {
+            setOrder(before.get(i), slots[i]);
+        }
+        if (cycle.size() > 0) {
+            setOrder(mergeComponents(cycle), slots[before.size()]);
+        }
+        for (int i = 0; i < after.size(); i++) {
+            setOrder(after.get(i), slots[n - after.size() + i]);
+        }
+        return Math.max(0, cycle.size() - 1);
+    }
+
+    /** Components reachable from {@code start} whose position lies in {@code [low, high]}. */
+    private IntList search(int start, List<Map<Integer, Integer>> edges, int[] seen, int stamp, long low, long high) {
+        IntList region = new IntList();
+        IntList stack = new IntList();
+        stack.add(start);
+        seen[start] = stamp;
+        while (stack.size() > 0) {
+            int c = stack.removeLast();
+            visits++;
+            region.add(c);
+            for (int d : edges.get(c).keySet()) {
+                if (seen[d] != stamp && order[d] >= low && order[d] <= high) {
+                    seen[d] = stamp;
+                    stack.add(d);
+                }
+            }
+        }
+        return region;
+    }
+
+    private void sortByOrder(IntList components) {
+        long[] positions = new long[components.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = order[components.get(i)];
+        }
+        Arrays.sort(positions);
+        for (int i = 0; i < positions.length; i++) {
+            components.set(i, byOrder.get(positions[i]));
+        }
+    }
+
+    /** Merges the components into the largest of them and returns its id. */
+    private int mergeComponents(IntList cycle) {
+        int inCycle = nextEpoch();
+        for (int i = 0; i < cycle.size(); i++) {
+            mark[cycle.get(i)] = inCycle;
+        }
+        int target = cycle.get(0);
+        for (int i = 1; i < cycle.size(); i++) {
+            if (members.get(cycle.get(i)).size() > members.get(target).size()) {
+                target = cycle.get(i);
+            }
+        }
+
+        for (int i = 0; i < cycle.size(); i++) {
+            int c = cycle.get(i);
+            if (c == target) {
+                continue;
+            }
+            Map<Integer, Integer> out = new HashMap<>(successors.get(c));
+            Map<Integer, Integer> in = new HashMap<>(predecessors.get(c));
+            detach(c);
+            IntList moved = members.get(c);
+            for (int k = 0; k < moved.size(); k++) {
+                componentOf[moved.get(k)] = target;
+                members.get(target).add(moved.get(k));
+            }
+            releaseComponent(c);
+            // Edges into the merged set collapse once every member points at target.
+            for (Map.Entry<Integer, Integer> edge : out.entrySet()) {
+                addCrossEdge(target, mark[edge.getKey()] == inCycle ? target : edge.getKey(), edge.getValue());
+            }
+            for (Map.Entry<Integer, Integer> edge : in.entrySet()) {
+                addCrossEdge(mark[edge.getKey()] == inCycle ? target : edge.getKey(), target, edge.getValue());
+            }
+        }
+        return target;
+    }
+
+    /** Re-runs Tarjan on component {@code c} alone and returns the number of pieces. */
+    private int splitComponent(int c) {
+        IntList vertices = members.get(c);
+        int k = vertices.size();
+        for (int i = 0; i < k; i++) {
+            localId[vertices.get(i)] = i;
+        }
+        CsrGraph.Builder builder = new CsrGraph.Builder(k);
+        for (int i = 0; i < k; i++) {
+            for (int[] edge : graph.getAdj(vertices.get(i))) {
+                if (componentOf[edge[0]] == c) {
+                    builder.addEdge(i, localId[edge[0]], edge[1]);
+                }
+            }
+        }
+        SccResult pieces = new TarjanAlgorithm().findComponents(builder.build(), PerformanceTracker.disabled());
+        if (pieces.getNumComponents() == 1) {
+            return 1;
+        }
+
+        detach(c);
+        int[] vertexList = vertices.toArray();
+        int[] ids = new int[pieces.getNumComponents()];
+        ids[pieces.getComponentOf()[0]] = c;
+        vertices.clear();
+        for (int p = 0; p < ids.length; p++) {
+            if (p != pieces.getComponentOf()[0]) {
+                ids[p] = newComponent();
+            }
+        }
+        placePieces(c, ids);
+        int isPiece = nextEpoch();
+        for (int id : ids) {
+            mark[id] = isPiece;
+        }
+        for (int i = 0; i < k; i++) {
+            int x = vertexList[i];
+            componentOf[x] = ids[pieces.getComponentOf()[i]];
+            members.get(componentOf[x]).add(x);
+        }
+        // Out-edges cover edges between the pieces and edges leaving; in-edges from outside
+        // cover the rest.
+        for (int x : vertexList) {
+            for (int[] edge : graph.getAdj(x)) {
+                addCrossEdge(componentOf[x], componentOf[edge[0]], 1);
+            }
+            for (int[] edge : reverse.getAdj(x)) {
+                if (mark[componentOf[edge[0]]] != isPiece) {
+                    addCrossEdge(componentOf[edge[0]], componentOf[x], 1);
+                }
+            }
+        }
+        return ids.length;
+    }
+
+    /**
+     * Gives the pieces of split component {@code c} consecutive positions in the gap after
+     * {@code c}'s own. Tarjan numbers them in reverse topological order.
+     */
+    private void placePieces(int c, int[] ids) {
+        Long higher = byOrder.higherKey(order[c]);
+        long room = higher == null ? ORDER_GAP * ids.length : higher - order[c];
+        if (room < ids.length) {
+            renumberOrder(Math.max(ORDER_GAP, ids.length + 1L));
+            higher = byOrder.higherKey(order[c]);
+            room = higher == null ? ORDER_GAP * ids.length : higher - order[c];
+        }
+        long base = order[c];
+        long step = room / ids.length;
+        byOrder.remove(base);
+        for (int p = 0; p < ids.length; p++) {
+            setOrder(ids[ids.length - 1 - p], base + p * step);
+        }
+    }
+
+    private void checkRange(int u, int v) {
+        if (u < 0 || u >= V || v < 0 || v >= V) {
+            throw new IndexOutOfBoundsException("Edge " + u + "->" + v + " out of range for " + V + " vertices");
+        }
+    }
+}
@@ -1,67 +1,148 @@
 package scc;
 
+import graph.CompactGraph;
+import graph.CsrGraph;
 import graph.DirectedGraph;
+import graph.EdgeCursor;
+import graph.SequentialGraph;
+import graph.Workspace;
+import metrics.Counter;
 import metrics.PerformanceTracker;
 
 import java.util.*;
 
-public class KosarajuAlgorithm {
+/**
+ * Two-pass Kosaraju with explicit stacks, so recursion depth never depends on the
+ * length of the longest path. Components are numbered in discovery order, which is
+ * a topological order of the condensation.
+ */
+public class KosarajuAlgorithm implements SccAlgorithm {
 
 
     public List<List<Integer>> findSCCs(DirectedGraph graph, PerformanceTracker tracker) {
+        return findSCCs(graph.toCsr(), tracker);
+    }
+
+
+    public List<List<Integer>> findSCCs(CsrGraph graph, PerformanceTracker tracker) {
+        return findComponents(graph, tracker).toComponentLists();
+    }
+
+
+    @Override
+    public SccResult findComponents(CompactGraph graph, PerformanceTracker tracker) {
+        return findComponents((SequentialGraph) graph, tracker);
+    }
+
+
+    /** Works on any {@link SequentialGraph}, such as a {@link graph.CompressedGraph}. */
+    public SccResult findComponents(SequentialGraph graph, PerformanceTracker tracker) {
         tracker.start();
+        Counter dfsVisits = tracker.counter("dfs_visits");
         int V = graph.getNumVertices();
-        Stack<Integer> stack = new Stack<>();
-        boolean[] visited = new boolean[V];
-
-        for (int i = 0; i < V; i++) {
-            if (!visited[i]) {
-                fillOrder(i, visited, stack, graph, tracker);
-            }
-        }
+        Workspace workspace = Workspace.get();
+        long mark = workspace.mark();
+        int[] componentOf = new int[V];
+        int numComponents = 0;
+        try {
+            boolean[] visited = workspace.clearedBooleans(V);
+            int[] order = workspace.ints(V);
+            int[] stack = workspace.ints(V);
+            long[] positionStack = workspace.longs(V);
+            int orderSize = fillOrder(graph, visited, order, stack, positionStack, dfsVisits);
 
 
-        DirectedGraph transposedGraph = graph.getTranspose();
+            long transposeStart = tracker.beginPhase();
+            SequentialGraph transposedGraph = graph.transposeStructure(workspace);
+            tracker.endPhase("transpose", transposeStart);
 
 
-        Arrays.fill(visited, false);
-        List<List<Integer>> sccs = new ArrayList<>();
-        while (!stack.empty()) {
-            int v = stack.pop();
-            if (!visited[v]) {
-                List<Integer> component = new ArrayList<>();
-                collectSCC(v, visited, component, transposedGraph, tracker);
-                sccs.add(component);
+            try {
+                Arrays.fill(visited, 0, V, false);
+                EdgeCursor edges = transposedGraph.edgeCursor();
+                for (int i = orderSize - 1; i >= 0; i--) {
+                    int v = order[i];
+                    if (!visited[v]) {
+                        collectSCC(v, numComponents++, visited, componentOf, stack, edges, dfsVisits);
+                    }
+                }
+            } finally {
+                transposedGraph.release();
             }
+        } finally {
+            workspace.release(mark);
         }
 
         tracker.stop();
-        return sccs;
+        return new SccResult(componentOf, numComponents);
     }
 
 
-    private void fillOrder(int v, boolean[] visited, Stack<Integer> stack, DirectedGraph graph, PerformanceTracker tracker) {
-        visited[v] = true;
-        tracker.incrementOperation("dfs_visits");
-        for (int[] edge : graph.getAdj(v)) {
-            int neighbor = edge[0];
-            if (!visited[neighbor]) {
-                fillOrder(neighbor, visited, stack, graph, tracker);
+    private int fillOrder(SequentialGraph graph, boolean[] visited, int[] order, int[] vertexStack, long[] positionStack,
+                          Counter dfsVisits) {
+        int V = graph.getNumVertices();
+        EdgeCursor edges = graph.edgeCursor();
+        int orderSize = 0;
+        long visits = 0;
+
+        for (int root = 0; root < V; root++) {
+            if (visited[root]) {
+                continue;
+            }
+            int depth = 0;
+            visited[root] = true;
+            visits++;
+            vertexStack[0] = root;
+            positionStack[0] = edges.reset(root).position();
+
+            while (depth >= 0) {
+                int v = vertexStack[depth];
+                edges.resume(v, positionStack[depth]);
+                int next = -1;
+                while (edges.hasNext()) {
+                    int neighbor = edges.nextTarget();
+                    if (!visited[neighbor]) {
+                        next = neighbor;
+                        break;
+                    }
+                }
+                if (next == -1) {
+                    order[orderSize++] = v;
+                    depth--;
+                    continue;
+                }
+                positionStack[depth] = edges.position();
+                visited[next] = true;
+                visits++;
+                depth++;
+                vertexStack[depth] = next;
+                positionStack[depth] = edges.reset(next).position();
             }
         }
-        stack.push(v);
+        dfsVisits.add(visits);
+        return orderSize;
     }
 
 
-    private void collectSCC(int v, boolean[] visited, List<Integer> component, DirectedGraph graph, PerformanceTracker tracker) {
-        visited[v] = true;
-        component.add(v);
-        tracker.incrementOperation("dfs_visits");
-        for (int[] edge : graph.getAdj(v)) {
-            int neighbor = edge[0];
-            if (!visited[neighbor]) {
-                collectSCC(neighbor, visited, component, graph, tracker);
+    private void collectSCC(int root, int component, boolean[] visited, int[] componentOf, int[] stack,
+                            EdgeCursor transposed, Counter dfsVisits) {
+        int top = 0;
+        long visits = 0;
+        stack[top++] = root;
+        visited[root] = true;
+        while (top > 0) {
+            int v = stack[--top];
+            componentOf[v] = component;
+            visits++;
+            transposed.reset(v);
+            while (transposed.hasNext()) {
+                int neighbor = transposed.nextTarget();
+                if (!visited[neighbor]) {
+                    visited[neighbor] = true;
+                    stack[top++] = neighbor;
+                }
             }
         }
+        dfsVisits.add(visits);
     }
 }
@@ -0,0 +1,519 @@
+package scc;
+
+import graph.CompactGraph;
+import graph.IntList;
+import metrics.Counter;
+import metrics.PerformanceTracker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Multi-core SCC decomposition on a {@link ForkJoinPool}.
+ *
+ * <p>A parallel trimming pass first peels off every vertex whose in- or out-degree drops to
+ * zero (each is a singleton component). The rest is split by forward-backward search: the
+ * intersection of the vertices reachable from a pivot and the vertices reaching it is one
+ * component, and the three remaining parts are independent subproblems that are forked as
+ * separate tasks. Large BFS frontiers are expanded in parallel; small subproblems fall back
+ * to a Tarjan pass restricted to their colour.
+ *
+ * <p>Components are renumbered by their smallest vertex, so the output is deterministic
+ * regardless of scheduling.
+ */
+public class ParallelSccAlgorithm implements SccAlgorithm {
+    private static final int SEQUENTIAL_THRESHOLD = 2048;
+    private static final int FRONTIER_CHUNK = 1024;
+    private static final int PRODUCTIVE_FRACTION = 4;
+
+    private final ForkJoinPool pool;
+
+    public ParallelSccAlgorithm() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /** The caller owns {@code pool} and shuts it down; this class never does. */
+    public ParallelSccAlgorithm(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    @Override
+    public SccResult findComponents(CompactGraph graph, PerformanceTracker tracker) {
+        tracker.start();
+        long transposeStart = tracker.beginPhase();
+        CompactGraph transposed = graph.transposeStructure();
+        tracker.endPhase("transpose", transposeStart);
+        SccResult result;
+        try {
+            Run run = new Run(graph, transposed, tracker);
+            pool.invoke(run.new Trim());
+            int[] remaining = run.collectRemaining();
+            if (remaining.length > 0) {
+                pool.invoke(run.new Split(remaining, 0, true));
+            }
+            result = run.canonicalResult();
+        } finally {
+            transposed.release();
+        }
+        tracker.stop();
+        return result;
+    }
+
+
+    private static final class Run {
+        final CompactGraph graph;
+        final CompactGraph transposed;
+        final int V;
+        // Colour of the subproblem a vertex belongs to; -1 once its component is known.
+        final int[] color;
+        final int[] componentOf;
+        final AtomicIntegerArray forwardMark;
+        final AtomicIntegerArray backwardMark;
+        final AtomicInteger nextColor = new AtomicInteger(1);
+        final AtomicInteger nextComponent = new AtomicInteger();
+        final Counter trimmed;
+        final Counter pivots;
+        final Counter bfsVisits;
+        // Scratch for the restricted Tarjan fallback; subproblems own disjoint vertices.
+        final int[] index;
+        final int[] low;
+        final int[] parent;
+        final int[] groupSize;
+
+        Run(CompactGraph graph, CompactGraph transposed, PerformanceTracker tracker) {
+            this.graph = graph;
+            this.transposed = transposed;
+            trimmed = tracker.concurrentCounter("trimmed");
+            pivots = tracker.concurrentCounter("pivots");
+            bfsVisits = tracker.concurrentCounter("bfs_visits");
+            this.V = graph.getNumVertices();
+            color = new int[V];
+            componentOf = new int[V];
+            Arrays.fill(componentOf, -1);
+            forwardMark = new AtomicIntegerArray(V);
+            backwardMark = new AtomicIntegerArray(V);
+            index = new int[V];
+            low = new int[V];
+            parent = new int[V];
+            groupSize = new int[V];
+        }
+
+        int[] collectRemaining() {
+            IntList remaining = new IntList();
+            for (int v = 0; v < V; v++) {
+                if (color[v] == 0) {
+                    remaining.add(v);
+                }
+            }
+            return remaining.toArray();
+        }
+
+        SccResult canonicalResult() {
+            int[] renumber = new int[nextComponent.get()];
+            Arrays.fill(renumber, -1);
+            int count = 0;
+            for (int v = 0; v < V; v++) {
+                int c = componentOf[v];
+                if (renumber[c] == -1) {
+                    renumber[c] = count++;
+                }
+                componentOf[v] = renumber[c];
+            }
+            return new SccResult(componentOf, count);
+        }
+
+
+        /** Repeatedly removes vertices with no remaining in- or out-edges. */
+        final class Trim extends RecursiveAction {
+            @Override
+            protected void compute() {
+                AtomicIntegerArray inDegree = new AtomicIntegerArray(V);
+                AtomicIntegerArray outDegree = new AtomicIntegerArray(V);
+                for (int v = 0; v < V; v++) {
+                    outDegree.set(v, graph.endEdge(v) - graph.firstEdge(v));
+                    inDegree.set(v, transposed.endEdge(v) - transposed.firstEdge(v));
+                }
+                IntList frontier = new IntList();
+                for (int v = 0; v < V; v++) {
+                    if (inDegree.get(v) == 0 || outDegree.get(v) == 0) {
+                        claim(v, frontier);
+                    }
+                }
+                int[] current = frontier.toArray();
+                while (current.length > 0) {
+                    current = new TrimChunk(current, 0, current.length, inDegree, outDegree).invoke().toArray();
+                }
+            }
+        }
+
+        final class TrimChunk extends RecursiveTask<IntList> {
+            private final int[] frontier;
+            private final int from;
+            private final int to;
+            private final AtomicIntegerArray inDegree;
+            private final AtomicIntegerArray outDegree;
+
+            TrimChunk(int[] frontier, int from, int to, AtomicIntegerArray inDegree, AtomicIntegerArray outDegree) {
+                this.frontier = frontier;
+                this.from = from;
+                this.to = to;
+                this.inDegree = inDegree;
+                this.outDegree = outDegree;
+            }
+
+            @Override
+            protected IntList compute() {
+                if (to - from > FRONTIER_CHUNK) {
+                    int mid = (from + to) >>> 1;
+                    TrimChunk left = new TrimChunk(frontier, from, mid, inDegree, outDegree);
+                    left.fork();
+                    IntList right = new TrimChunk(frontier, mid, to, inDegree, outDegree).compute();
+                    IntList merged = left.join();
+                    for (int i = 0; i < right.size(); i++) {
+                        merged.add(right.get(i));
+                    }
+                    return merged;
+                }
+                IntList next = new IntList();
+                for (int i = from; i < to; i++) {
+                    int v = frontier[i];
+                    for (int e = graph.firstEdge(v), end = graph.endEdge(v); e < end; e++) {
+                        int w = graph.target(e);
+                        if (inDegree.decrementAndGet(w) == 0) {
+                            claim(w, next);
+                        }
+                    }
+                    for (int e = transposed.firstEdge(v), end = transposed.endEdge(v); e < end; e++) {
+                        int w = transposed.target(e);
+                        if (outDegree.decrementAndGet(w) == 0) {
+                            claim(w, next);
+                        }
+                    }
+                }
+                return next;
+            }
+        }
+
+
+        /** Both degree counters of a vertex can reach zero concurrently; the mark decides the owner. */
+        void claim(int v, IntList next) {
+            if (forwardMark.compareAndSet(v, 0, -1)) {
+                color[v] = -1;
+                componentOf[v] = nextComponent.getAndIncrement();
+                trimmed.increment();
+                next.add(v);
+            }
+        }
+
+
+        /**
+         * Forward-backward split of the vertices carrying colour {@code c}. Splitting only pays
+         * off while pivots land in large components; once a pivot's component is small the
+         * parts are handed to Tarjan instead, which keeps the total work linear on graphs made
+         * of many small components.
+         */
+        final class Split extends RecursiveAction {
+            private final int[] vertices;
+            private final int c;
+            private final boolean usePivot;
+
+            Split(int[] vertices, int c, boolean usePivot) {
+                this.vertices = vertices;
+                this.c = c;
+                this.usePivot = usePivot;
+            }
+
+            @Override
+            protected void compute() {
+                if (!usePivot || vertices.length <= SEQUENTIAL_THRESHOLD) {
+                    restrictedTarjan(vertices, c);
+                    return;
+                }
+                pivots.increment();
+                int pivot = choosePivot(vertices);
+                int stamp = nextColor.getAndIncrement();
+                IntList forward = reach(pivot, c, stamp, graph, forwardMark);
+                IntList backward = reach(pivot, c, stamp, transposed, backwardMark);
+
+                int component = nextComponent.getAndIncrement();
+                int componentSize = 0;
+                int forwardColor = nextColor.getAndIncrement();
+                int backwardColor = nextColor.getAndIncrement();
+                int restColor = nextColor.getAndIncrement();
+                IntList forwardOnly = new IntList();
+                IntList backwardOnly = new IntList();
+                IntList rest = new IntList();
+                for (int i = 0; i < forward.size(); i++) {
+                    int v = forward.get(i);
+                    if (backwardMark.get(v) == stamp) {
+                        color[v] = -1;
+                        componentOf[v] = component;
+                        componentSize++;
+                    } else {
+                        color[v] = forwardColor;
+                        forwardOnly.add(v);
+                    }
+                }
+                for (int i = 0; i < backward.size(); i++) {
+                    int v = backward.get(i);
+                    if (forwardMark.get(v) != stamp) {
+                        color[v] = backwardColor;
+                        backwardOnly.add(v);
+                    }
+                }
+                for (int v : vertices) {
+                    if (color[v] == c) {
+                        color[v] = restColor;
+                        rest.add(v);
+                    }
+                }
+
+                boolean productive = componentSize >= vertices.length / PRODUCTIVE_FRACTION;
+                List<Split> subtasks = new ArrayList<>();
+                addWeakComponents(forwardOnly.toArray(), forwardColor, productive, subtasks);
+                addWeakComponents(backwardOnly.toArray(), backwardColor, productive, subtasks);
+                addWeakComponents(rest.toArray(), restColor, productive, subtasks);
+                invokeAll(subtasks);
+            }
+        }
+
+
+        /** Highest in-degree times out-degree, the vertex most likely to sit in a large component. */
+        int choosePivot(int[] vertices) {
+            int best = vertices[0];
+            long bestScore = -1;
+            for (int v : vertices) {
+                long score = (long) (graph.endEdge(v) - graph.firstEdge(v)) * (transposed.endEdge(v) - transposed.firstEdge(v));
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = v;
+                }
+            }
+            return best;
+        }
+
+
+        /**
+         * Cuts a part (all vertices coloured {@code c}) into weakly connected pieces, which share
+         * no edges and can be solved independently. Small pieces are packed together into one
+         * task; each task gets a fresh colour.
+         */
+        void addWeakComponents(int[] part, int c, boolean usePivot, List<Split> subtasks) {
+            if (part.length == 0) {
+                return;
+            }
+            if (part.length <= SEQUENTIAL_THRESHOLD) {
+                subtasks.add(new Split(part, c, false));
+                return;
+            }
+            for (int v : part) {
+                parent[v] = v;
+            }
+            for (int v : part) {
+                for (int e = graph.firstEdge(v), end = graph.endEdge(v); e < end; e++) {
+                    int w = graph.target(e);
+                    if (color[w] == c) {
+                        int rv = find(v);
+                        int rw = find(w);
+                        if (rv != rw) {
+                            parent[rv] = rw;
+                        }
+                    }
+                }
+            }
+
+            IntList roots = new IntList();
+            for (int v : part) {
+                if (find(v) == v) {
+                    groupSize[v] = 0;
+                    roots.add(v);
+                }
+            }
+            for (int v : part) {
+                groupSize[find(v)]++;
+            }
+
+            IntList batch = new IntList();
+            int batchColor = nextColor.getAndIncrement();
+            for (int i = 0; i < roots.size(); i++) {
+                int root = roots.get(i);
+                int groupColor = groupSize[root] > SEQUENTIAL_THRESHOLD ? nextColor.getAndIncrement() : batchColor;
+                // Reuse groupSize of the root as the colour slot once its size has been read.
+                groupSize[root] = groupColor;
+            }
+            List<IntList> large = new ArrayList<>();
+            Map<Integer, IntList> largeByColor = new HashMap<>();
+            for (int v : part) {
+                int groupColor = groupSize[find(v)];
+                color[v] = groupColor;
+                if (groupColor == batchColor) {
+                    batch.add(v);
+                } else {
+                    IntList members = largeByColor.get(groupColor);
+                    if (members == null) {
+                        members = new IntList();
+                        largeByColor.put(groupColor, members);
+                        large.add(members);
+                    }
+                    members.add(v);
+                }
+            }
+            for (IntList members : large) {
+                subtasks.add(new Split(members.toArray(), color[members.get(0)], usePivot));
+            }
+            if (batch.size() > 0) {
+                subtasks.add(new Split(batch.toArray(), batchColor, false));
+            }
+        }
+
+        int find(int v) {
+            while (parent[v] != v) {
+                parent[v] = parent[parent[v]];
+                v = parent[v];
+            }
+            return v;
+        }
+
+
+        /** Level-synchronous BFS inside colour {@code c}; wide frontiers are expanded in parallel. */
+        IntList reach(int pivot, int c, int stamp, CompactGraph g, AtomicIntegerArray mark) {
+            IntList reached = new IntList();
+            mark.set(pivot, stamp);
+            reached.add(pivot);
+            int[] frontier = {pivot};
+            while (frontier.length > 0) {
+                IntList next = new Expand(g, mark, c, stamp, frontier, 0, frontier.length).invoke();
+                for (int i = 0; i < next.size(); i++) {
+                    reached.add(next.get(i));
+                }
+                frontier = next.toArray();
+            }
+            bfsVisits.add(reached.size());
+            return reached;
+        }
+
+        final class Expand extends RecursiveTask<IntList> {
+            private final CompactGraph g;
+            private final AtomicIntegerArray mark;
+            private final int c;
+            private final int stamp;
+            private final int[] frontier;
+            private final int from;
+            private final int to;
+
+            Expand(CompactGraph g, AtomicIntegerArray mark, int c, int stamp, int[] frontier, int from, int to) {
+                this.g = g;
+                this.mark = mark;
+                this.c = c;
+                this.stamp = stamp;
+                this.frontier = frontier;
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected IntList compute() {
+                if (to - from > FRONTIER_CHUNK) {
+                    int mid = (from + to) >>> 1;
+                    Expand left = new Expand(g, mark, c, stamp, frontier, from, mid);
+                    left.fork();
+                    IntList right = new Expand(g, mark, c, stamp, frontier, mid, to).compute();
+                    IntList merged = left.join();
+                    for (int i = 0; i < right.size(); i++) {
+                        merged.add(right.get(i));
+                    }
+                    return merged;
+                }
+                IntList next = new IntList();
+                for (int i = from; i < to; i++) {
+                    int v = frontier[i];
+                    for (int e = g.firstEdge(v), end = g.endEdge(v); e < end; e++) {
+                        int w = g.target(e);
+                        if (color[w] != c) {
+                            continue;
+                        }
+                        int seen = mark.get(w);
+                        if (seen != stamp && mark.compareAndSet(w, seen, stamp)) {
+                            next.add(w);
+                        }
+                    }
+                }
+                return next;
+            }
+        }
+
+
+        void restrictedTarjan(int[] vertices, int c) {
+            int n = vertices.length;
+            int[] callVertex = new int[n];
+            int[] callEdge = new int[n];
+            int[] sccStack = new int[n];
+            for (int v : vertices) {
+                index[v] = -1;
+            }
+            int sccTop = 0;
+            int nextIndex = 0;
+
+            for (int root : vertices) {
+                if (index[root] != -1) {
+                    continue;
+                }
+                int depth = 0;
+                callVertex[0] = root;
+                callEdge[0] = graph.firstEdge(root);
+                index[root] = low[root] = nextIndex++;
+                sccStack[sccTop++] = root;
+
+                while (depth >= 0) {
+                    int v = callVertex[depth];
+                    int e = callEdge[depth];
+                    if (e < graph.endEdge(v)) {
+                        callEdge[depth] = e + 1;
+                        int w = graph.target(e);
+                        if (color[w] != c) {
+                            continue;
+                        }
+                        if (index[w] == -1) {
+                            index[w] = low[w] = nextIndex++;
+                            sccStack[sccTop++] = w;
+                            depth++;
+                            callVertex[depth] = w;
+                            callEdge[depth] = graph.firstEdge(w);
+                        } else if (componentOf[w] == -1 && index[w] < low[v]) {
+                            low[v] = index[w];
+                        }
+                    } else {
+                        if (low[v] == index[v]) {
+                            int component = nextComponent.getAndIncrement();
+                            int w;
+                            do {
+                                w = sccStack[--sccTop];
+                                componentOf[w] = component;
+                            } while (w != v);
+                        }
+                        depth--;
+                        if (depth >= 0 && low[v] < low[callVertex[depth]]) {
+                            low[callVertex[depth]] = low[v];
+                        }
+                    }
+                }
+            }
+            // Colours are cleared only after the pass so the filter above stays stable.
+            for (int v : vertices) {
+                color[v] = -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package scc;
+
+import graph.CompactGraph;
+import graph.Workspace;
+import metrics.PerformanceTracker;
+
+import java.util.Arrays;
+
+/**
+ * Gabow's path-based SCC algorithm with explicit stacks. Instead of low-links it keeps
+ * a second stack of tentative component roots, so it needs only one int per vertex
+ * besides the component id. Components are numbered in reverse topological order.
+ */
+public class PathBasedSccAlgorithm implements SccAlgorithm {
+
+    @Override
+    public SccResult findComponents(CompactGraph graph, PerformanceTracker tracker) {
+        Workspace workspace = Workspace.get();
+        long mark = workspace.mark();
+        try {
+            return findComponents(graph, workspace, tracker);
+        } finally {
+            workspace.release(mark);
+        }
+    }
+
+    private SccResult findComponents(CompactGraph graph, Workspace workspace, PerformanceTracker tracker) {
+        tracker.start();
+        int V = graph.getNumVertices();
+        int[] preorder = workspace.ints(V);
+        int[] componentOf = new int[V];
+        Arrays.fill(preorder, 0, V, -1);
+        Arrays.fill(componentOf, -1);
+
+        int[] callVertex = workspace.ints(V);
+        int[] callEdge = workspace.ints(V);
+        int[] pathStack = workspace.ints(V);
+        int[] rootStack = workspace.ints(V);
+        int pathTop = 0;
+        int rootTop = 0;
+        int counter = 0;
+        int numComponents = 0;
+        long visits = 0;
+
+        for (int root = 0; root < V; root++) {
+            if (preorder[root] != -1) {
+                continue;
+            }
+            int depth = 0;
+            callVertex[0] = root;
+            callEdge[0] = graph.firstEdge(root);
+            preorder[root] = counter++;
+            pathStack[pathTop++] = root;
+            rootStack[rootTop++] = root;
+            visits++;
+
+            while (depth >= 0) {
+                int v = callVertex[depth];
+                int e = callEdge[depth];
+                if (e < graph.endEdge(v)) {
+                    callEdge[depth] = e + 1;
+                    int w = graph.target(e);
+                    if (preorder[w] == -1) {
+                        preorder[w] = counter++;
+                        pathStack[pathTop++] = w;
+                        rootStack[rootTop++] = w;
+                        visits++;
+                        depth++;
+                        callVertex[depth] = w;
+                        callEdge[depth] = graph.firstEdge(w);
+                    } else if (componentOf[w] == -1) {
+                        while (preorder[rootStack[rootTop - 1]] > preorder[w]) {
+                            rootTop--;
+                        }
+                    }
+                } else {
+                    if (rootStack[rootTop - 1] == v) {
+                        rootTop--;
+                        int w;
+                        do {
+                            w = pathStack[--pathTop];
+                            componentOf[w] = numComponents;
+                        } while (w != v);
+                        numComponents++;
+                    }
+                    depth--;
+                }
+            }
+        }
+
+        tracker.counter("dfs_visits").add(visits);
+        tracker.stop();
+        return new SccResult(componentOf, numComponents);
+    }
+}
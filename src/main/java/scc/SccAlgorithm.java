@@ -0,0 +1,27 @@
+package scc;
+
+import graph.CompactGraph;
+import metrics.PerformanceTracker;
+
+public interface SccAlgorithm {
+
+    SccResult findComponents(CompactGraph graph, PerformanceTracker tracker);
+
+
+    /** Resolves the engine names accepted on the command line: kosaraju, tarjan, path, parallel. */
+    static SccAlgorithm forName(String name) {
+        switch (name.toLowerCase()) {
+            case "kosaraju":
+                return new KosarajuAlgorithm();
+            case "tarjan":
+                return new TarjanAlgorithm();
+            case "path":
+            case "path-based":
+                return new PathBasedSccAlgorithm();
+            case "parallel":
+                return new ParallelSccAlgorithm();
+            default:
+                throw new IllegalArgumentException("Unknown SCC algorithm: " + name);
+        }
+    }
+}
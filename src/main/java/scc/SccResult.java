@@ -0,0 +1,69 @@
+package scc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Flat SCC partition: {@code componentOf[v]} is the component id of vertex {@code v},
+ * ids run from 0 to {@code getNumComponents() - 1}.
+ */
+public class SccResult {
+    private final int[] componentOf;
+    private final int numComponents;
+
+    public SccResult(int[] componentOf, int numComponents) {
+        this.componentOf = componentOf;
+        this.numComponents = numComponents;
+    }
+
+    public int[] getComponentOf() {
+        return componentOf;
+    }
+
+    public int getNumComponents() {
+        return numComponents;
+    }
+
+    public int[] getComponentSizes() {
+        int[] sizes = new int[numComponents];
+        for (int c : componentOf) {
+            sizes[c]++;
+        }
+        return sizes;
+    }
+
+    /** True when both results group the vertices identically, whatever the component numbering. */
+    public boolean samePartitionAs(SccResult other) {
+        if (other.componentOf.length != componentOf.length || other.numComponents != numComponents) {
+            return false;
+        }
+        int[] mapping = new int[numComponents];
+        int[] reverse = new int[numComponents];
+        Arrays.fill(mapping, -1);
+        Arrays.fill(reverse, -1);
+        for (int v = 0; v < componentOf.length; v++) {
+            int a = componentOf[v];
+            int b = other.componentOf[v];
+            if (mapping[a] == -1 && reverse[b] == -1) {
+                mapping[a] = b;
+                reverse[b] = a;
+            } else if (mapping[a] != b || reverse[b] != a) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public List<List<Integer>> toComponentLists() {
+        List<List<Integer>> sccs = new ArrayList<>(numComponents);
+        int[] sizes = getComponentSizes();
+        for (int c = 0; c < numComponents; c++) {
+            sccs.add(new ArrayList<>(sizes[c]));
+        }
+        for (int v = 0; v < componentOf.length; v++) {
+            sccs.get(componentOf[v]).add(v);
+        }
+        return sccs;
+    }
+}
@@ -0,0 +1,108 @@
+package scc;
+
+import graph.CompactGraph;
+import graph.EdgeCursor;
+import graph.SequentialGraph;
+import graph.Workspace;
+import metrics.PerformanceTracker;
+
+import java.util.Arrays;
+
+/**
+ * Single-pass Tarjan SCC with an explicit call stack. No transpose is built.
+ * Components are numbered in the order they complete, i.e. reverse topological order.
+ */
+public class TarjanAlgorithm implements SccAlgorithm {
+
+    @Override
+    public SccResult findComponents(CompactGraph graph, PerformanceTracker tracker) {
+        return findComponents((SequentialGraph) graph, tracker);
+    }
+
+    /** Works on any {@link SequentialGraph}, such as a {@link graph.CompressedGraph}. */
+    public SccResult findComponents(SequentialGraph graph, PerformanceTracker tracker) {
+        Workspace workspace = Workspace.get();
+        long mark = workspace.mark();
+        try {
+            return findComponents(graph, workspace, tracker);
+        } finally {
+            workspace.release(mark);
+        }
+    }
+
+    private SccResult findComponents(SequentialGraph graph, Workspace workspace, PerformanceTracker tracker) {
+        tracker.start();
+        int V = graph.getNumVertices();
+        EdgeCursor edges = graph.edgeCursor();
+        int[] index = workspace.ints(V);
+        int[] low = workspace.ints(V);
+        int[] componentOf = new int[V];
+        Arrays.fill(index, 0, V, -1);
+        Arrays.fill(componentOf, -1);
+
+        int[] callVertex = workspace.ints(V);
+        long[] callPosition = workspace.longs(V);
+        int[] sccStack = workspace.ints(V);
+        int sccTop = 0;
+        int nextIndex = 0;
+        int numComponents = 0;
+        long visits = 0;
+
+        for (int root = 0; root < V; root++) {
+            if (index[root] != -1) {
+                continue;
+            }
+            int depth = 0;
+            callVertex[0] = root;
+            callPosition[0] = edges.reset(root).position();
+            index[root] = low[root] = nextIndex++;
+            sccStack[sccTop++] = root;
+            visits++;
+
+            while (depth >= 0) {
+                int v = callVertex[depth];
+                edges.resume(v, callPosition[depth]);
+                int next = -1;
+                while (edges.hasNext()) {
+                    int w = edges.nextTarget();
+                    if (index[w] == -1) {
+                        next = w;
+                        break;
+                    }
+                    if (componentOf[w] == -1 && index[w] < low[v]) {
+                        low[v] = index[w];
+                    }
+                }
+                if (next != -1) {
+                    callPosition[depth] = edges.position();
+                    index[next] = low[next] = nextIndex++;
+                    sccStack[sccTop++] = next;
+                    visits++;
+                    depth++;
+                    callVertex[depth] = next;
+                    callPosition[depth] = edges.reset(next).position();
+                } else {
+                    if (low[v] == index[v]) {
+                        int w;
+                        do {
+                            w = sccStack[--sccTop];
+                            componentOf[w] = numComponents;
+                        } while (w != v);
+                        numComponents++;
+                    }
+                    depth--;
+                    if (depth >= 0) {
+                        int parent = callVertex[depth];
+                        if (low[v] < low[parent]) {
+                            low[parent] = low[v];
+                        }
+                    }
+                }
+            }
+        }
+
+        tracker.counter("dfs_visits").add(visits);
+        tracker.stop();
+        return new SccResult(componentOf, numComponents);
+    }
+}
@@ -0,0 +1,331 @@
+package service;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dagsp.PathResult;
+import graph.BinaryGraphFormat;
+import graph.CompactGraph;
+import graph.EdgeListLoader;
+import graph.JsonGraphLoader;
+import metrics.PerformanceTracker;
+import metrics.PhaseMetrics;
+import scc.SccAlgorithm;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Long-running analysis service on the loopback interface. Graphs are loaded once, analysed
+ * and kept in a {@link GraphRegistry}; queries are then answered from the resident results.
+ *
+ * <pre>
+ * GET    /graphs                          resident graphs
+ * POST   /graphs/{id}                     load the graph JSON in the body
+ * GET    /graphs/{id}                     summary
+ * DELETE /graphs/{id}                     unload
+ * GET    /graphs/{id}/scc                 component of every vertex
+ * GET    /graphs/{id}/topo                topological order of the components
+ * GET    /graphs/{id}/shortest?source=v   distances from v's component [&amp;target=w for one path]
+ * GET    /graphs/{id}/reaches?source=v&amp;target=w  whether v reaches w
+ * GET    /graphs/{id}/critical-path       longest path over the condensation
+ * GET    /metrics                         Prometheus text: analysis stages and request latency
+ * </pre>
+ *
+ * Every response carries {@code nanos}, the time spent answering inside the server.
+ */
+public class AnalysisServer {
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final GraphRegistry registry = new GraphRegistry();
+    private final SccAlgorithm sccAlgorithm;
+    private final PhaseMetrics phaseMetrics = new PhaseMetrics();
+    private final Gson gson = new GsonBuilder().serializeNulls().create();
+
+    public AnalysisServer(int port, SccAlgorithm sccAlgorithm) throws IOException {
+        this.sccAlgorithm = sccAlgorithm;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = createExecutor();
+        server.setExecutor(executor);
+        server.createContext("/graphs", this::handle);
+        server.createContext("/metrics", this::handleMetrics);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public GraphRegistry getRegistry() {
+        return registry;
+    }
+
+    public PhaseMetrics getPhaseMetrics() {
+        return phaseMetrics;
+    }
+
+    /**
+     * Loads and analyses a graph file under {@code id}. Only the command line reaches this: HTTP clients
+     * send the graph in the request body, so a cross-site request cannot make the server open local files.
+     */
+    public GraphAnalysis load(String id, File file) throws IOException {
+        GraphAnalysis analysis = GraphAnalysis.of(loadFile(file), sccAlgorithm, phaseMetrics);
+        registry.put(id, analysis);
+        return analysis;
+    }
+
+
+    private static ExecutorService createExecutor() {
+        try {
+            // Virtual threads where the JVM has them; looked up reflectively to keep Java 8 support.
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        Map<String, Object> body = new LinkedHashMap<>();
+        int status;
+        try {
+            status = route(exchange, body);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            status = 400;
+            body.clear();
+            body.put("error", e.getMessage());
+        } catch (IOException e) {
+            status = 422;
+            body.clear();
+            body.put("error", e.getMessage());
+        } catch (RuntimeException e) {
+            status = 500;
+            body.clear();
+            body.put("error", e.toString());
+        }
+        long nanos = System.nanoTime() - start;
+        body.put("nanos", nanos);
+        // Unknown paths and methods share one series each so that stray requests cannot grow the
+        // metrics without bound; the method is client-controlled.
+        String method = exchange.getRequestMethod();
+        String endpoint = status == 404 ? "not_found"
+                : status == 405 || !isRoutedMethod(method) ? "method_not_allowed"
+                : method + " " + endpoint(exchange);
+        phaseMetrics.phase("request/" + endpoint).getLatency().record(nanos);
+
+        byte[] bytes = gson.toJson(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        byte[] bytes = phaseMetrics.toPrometheus().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static boolean isRoutedMethod(String method) {
+        return "GET".equals(method) || "POST".equals(method) || "DELETE".equals(method);
+    }
+
+    /** The request path with the graph id replaced, so every graph shares one latency series per resource. */
+    private static String endpoint(HttpExchange exchange) {
+        String[] path = exchange.getRequestURI().getPath().replaceAll("/+$", "").split("/");
+        if (path.length <= 2) {
+            return "/graphs";
+        }
+        return path.length == 3 ? "/graphs/{id}" : "/graphs/{id}/" + path[3];
+    }
+
+    private int route(HttpExchange exchange, Map<String, Object> body) throws IOException {
+        String method = exchange.getRequestMethod();
+        String[] path = exchange.getRequestURI().getPath().replaceAll("/+$", "").split("/");
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        // path[0] is empty and path[1] is "graphs".
+        if (path.length == 2) {
+            if (!"GET".equals(method)) {
+                return methodNotAllowed(body);
+            }
+            List<Map<String, Object>> graphs = new ArrayList<>();
+            for (String id : registry.ids()) {
+                GraphAnalysis analysis = registry.get(id);
+                if (analysis != null) {
+                    graphs.add(summary(id, analysis));
+                }
+            }
+            body.put("graphs", graphs);
+            return 200;
+        }
+
+        String id = path[2];
+        if (path.length == 3 && "POST".equals(method)) {
+            GraphAnalysis analysis = loadBody(id, exchange);
+            body.putAll(summary(id, analysis));
+            return 201;
+        }
+        if (path.length == 3 && "DELETE".equals(method)) {
+            if (!registry.remove(id)) {
+                return notFound(id, body);
+            }
+            body.put("id", id);
+            return 200;
+        }
+
+        GraphAnalysis analysis = registry.get(id);
+        if (analysis == null) {
+            return notFound(id, body);
+        }
+        if (!"GET".equals(method)) {
+            return methodNotAllowed(body);
+        }
+        String resource = path.length == 3 ? "" : path.length == 4 ? path[3] : "/";
+        switch (resource) {
+            case "":
+                body.putAll(summary(id, analysis));
+                return 200;
+            case "scc":
+                body.put("components", analysis.getComponents().getNumComponents());
+                body.put("componentOf", analysis.getComponents().getComponentOf());
+                return 200;
+            case "topo":
+                body.put("acyclic", analysis.getOrder().isAcyclic());
+                body.put("order", analysis.getOrder().getOrder());
+                return 200;
+            case "shortest":
+                shortest(analysis, query, body);
+                return 200;
+            case "reaches":
+                body.put("reaches", analysis.getReachability().reaches(
+                        vertexParameter(analysis, query, "source"), vertexParameter(analysis, query, "target")));
+                return 200;
+            case "critical-path":
+                body.put("length", analysis.getCriticalPathLength());
+                body.put("path", analysis.getCriticalPath());
+                return 200;
+            default:
+                body.put("error", "Unknown resource: " + resource);
+                return 404;
+        }
+    }
+
+    private void shortest(GraphAnalysis analysis, Map<String, String> query, Map<String, Object> body) {
+        int source = vertexParameter(analysis, query, "source");
+        PathResult paths = analysis.shortestPathsFrom(source, PerformanceTracker.disabled());
+        body.put("sourceComponent", analysis.componentOf(source));
+        if (query.containsKey("target")) {
+            int target = analysis.componentOf(vertexParameter(analysis, query, "target"));
+            body.put("targetComponent", target);
+            body.put("distance", paths.isReachable(target) ? paths.getDistance(target) : null);
+            body.put("path", paths.pathTo(target));
+            return;
+        }
+        Long[] distances = new Long[analysis.getCondensation().getNumVertices()];
+        for (int c = 0; c < distances.length; c++) {
+            distances[c] = paths.isReachable(c) ? paths.getDistance(c) : null;
+        }
+        body.put("distances", distances);
+    }
+
+    private GraphAnalysis loadBody(String id, HttpExchange exchange) throws IOException {
+        CompactGraph graph;
+        try (Reader in = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+            graph = new JsonGraphLoader().load(in);
+        } catch (IllegalStateException e) {
+            // JsonReader reports unexpected tokens this way.
+            throw new IOException(e.getMessage(), e);
+        }
+        GraphAnalysis analysis = GraphAnalysis.of(graph, sccAlgorithm, phaseMetrics);
+        registry.put(id, analysis);
+        return analysis;
+    }
+
+    private static CompactGraph loadFile(File file) throws IOException {
+        if (file.getName().toLowerCase().endsWith(".bin")) {
+            return BinaryGraphFormat.map(file);
+        }
+        if (EdgeListLoader.isEdgeList(file)) {
+            return new EdgeListLoader().load(file, PerformanceTracker.disabled());
+        }
+        return new JsonGraphLoader().load(file, PerformanceTracker.disabled());
+    }
+
+    private static Map<String, Object> summary(String id, GraphAnalysis analysis) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("id", id);
+        summary.put("vertices", analysis.getGraph().getNumVertices());
+        summary.put("edges", analysis.getGraph().getNumEdges());
+        summary.put("components", analysis.getComponents().getNumComponents());
+        summary.put("condensationEdges", analysis.getCondensation().getNumEdges());
+        summary.put("criticalPathLength", analysis.getCriticalPathLength());
+        summary.put("reachabilityBytes", analysis.getReachability().memoryBytes());
+        summary.put("analysisNanos", analysis.getAnalysisNanos());
+        return summary;
+    }
+
+    private static int vertexParameter(GraphAnalysis analysis, Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing parameter: " + name);
+        }
+        int vertex = Integer.parseInt(value);
+        if (vertex < 0 || vertex >= analysis.getGraph().getNumVertices()) {
+            throw new IllegalArgumentException("Vertex " + vertex + " out of range for "
+                    + analysis.getGraph().getNumVertices() + " vertices");
+        }
+        return vertex;
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) throws UnsupportedEncodingException {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                query.put(URLDecoder.decode(pair.substring(0, eq), "UTF-8"), URLDecoder.decode(pair.substring(eq + 1), "UTF-8"));
+            }
+        }
+        return query;
+    }
+
+    private static int notFound(String id, Map<String, Object> body) {
+        body.put("error", "No graph with id " + id);
+        return 404;
+    }
+
+    private static int methodNotAllowed(Map<String, Object> body) {
+        body.put("error", "Method not allowed");
+        return 405;
+    }
+}
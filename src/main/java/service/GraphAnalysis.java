@@ -0,0 +1,102 @@
+package service;
+
+import dagsp.DagShortestPath;
+import dagsp.PathResult;
+import graph.CompactGraph;
+import graph.CsrGraph;
+import metrics.PerformanceTracker;
+import metrics.PhaseMetrics;
+import pipeline.Pipeline;
+import pipeline.PipelineResult;
+import scc.SccAlgorithm;
+import scc.SccResult;
+import topo.ReachabilityIndex;
+import topo.TopologicalOrder;
+
+/**
+ * A resident graph with the pipeline already run on it: SCCs, condensation, topological order
+ * of the components, a reachability index and the longest paths. Queries read these results; only shortest paths,
+ * which depend on the source, are computed per request on the condensation.
+ */
+public class GraphAnalysis {
+    private final CompactGraph graph;
+    private final SccResult components;
+    private final CsrGraph condensation;
+    private final TopologicalOrder order;
+    private final PathResult longestPaths;
+    private final ReachabilityIndex reachability;
+    private final long analysisNanos;
+
+    private GraphAnalysis(CompactGraph graph, SccResult components, CsrGraph condensation,
+                          TopologicalOrder order, PathResult longestPaths, ReachabilityIndex reachability, long analysisNanos) {
+        this.graph = graph;
+        this.components = components;
+        this.condensation = condensation;
+        this.order = order;
+        this.longestPaths = longestPaths;
+        this.reachability = reachability;
+        this.analysisNanos = analysisNanos;
+    }
+
+    public static GraphAnalysis of(CompactGraph graph, SccAlgorithm sccAlgorithm) {
+        return of(graph, sccAlgorithm, null);
+    }
+
+    /** @param phaseMetrics receives one run of every stage, or null to skip tracking */
+    public static GraphAnalysis of(CompactGraph graph, SccAlgorithm sccAlgorithm, PhaseMetrics phaseMetrics) {
+        long start = System.nanoTime();
+        PipelineResult run = new Pipeline().sccAlgorithm(sccAlgorithm).shortestPaths(false).schedule(false)
+                .phaseMetrics(phaseMetrics).run(graph);
+        SccResult components = run.getComponents();
+        CsrGraph condensation = run.getCondensation();
+        TopologicalOrder order = run.getOrder();
+        PathResult longestPaths = run.getLongestPaths();
+        ReachabilityIndex reachability = ReachabilityIndex.build(components, condensation, order,
+                phaseMetrics == null ? PerformanceTracker.disabled() : new PerformanceTracker("reachability", phaseMetrics));
+        return new GraphAnalysis(graph, components, condensation, order, longestPaths, reachability, System.nanoTime() - start);
+    }
+
+    public CompactGraph getGraph() {
+        return graph;
+    }
+
+    public SccResult getComponents() {
+        return components;
+    }
+
+    public CsrGraph getCondensation() {
+        return condensation;
+    }
+
+    public TopologicalOrder getOrder() {
+        return order;
+    }
+
+    public ReachabilityIndex getReachability() {
+        return reachability;
+    }
+
+    public long getAnalysisNanos() {
+        return analysisNanos;
+    }
+
+    public int componentOf(int vertex) {
+        return components.getComponentOf()[vertex];
+    }
+
+    /** Shortest distances over the condensation from the component holding {@code vertex}. */
+    public PathResult shortestPathsFrom(int vertex, PerformanceTracker tracker) {
+        return new DagShortestPath().shortestPaths(condensation, order, componentOf(vertex), tracker);
+    }
+
+    public long getCriticalPathLength() {
+        int farthest = longestPaths.farthestVertex();
+        return farthest == -1 ? 0 : Math.max(0, longestPaths.getDistance(farthest));
+    }
+
+    /** Components on the critical path, first to last. */
+    public int[] getCriticalPath() {
+        int farthest = longestPaths.farthestVertex();
+        return farthest == -1 ? new int[0] : longestPaths.pathTo(farthest);
+    }
+}
@@ -0,0 +1,29 @@
+package service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** Resident graphs by id. Safe for concurrent requests; a new load replaces the old entry. */
+public class GraphRegistry {
+    private final ConcurrentHashMap<String, GraphAnalysis> graphs = new ConcurrentHashMap<>();
+
+    public void put(String id, GraphAnalysis analysis) {
+        graphs.put(id, analysis);
+    }
+
+    public GraphAnalysis get(String id) {
+        return graphs.get(id);
+    }
+
+    public boolean remove(String id) {
+        return graphs.remove(id) != null;
+    }
+
+    public List<String> ids() {
+        List<String> ids = new ArrayList<>(graphs.keySet());
+        Collections.sort(ids);
+        return ids;
+    }
+}
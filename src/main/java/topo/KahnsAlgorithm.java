@@ -1,67 +1,333 @@
 package topo;
 
+import graph.CompactGraph;
 import graph.DirectedGraph;
+import graph.EdgeCursor;
+import graph.IntList;
+import graph.SequentialGraph;
+import graph.Workspace;
+import metrics.Counter;
 import metrics.PerformanceTracker;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Queue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 
 public class KahnsAlgorithm {
+    private static final int LEVEL_CHUNK = 1024;
 
 
     public List<Integer> topologicalSort(DirectedGraph dag, PerformanceTracker tracker) {
+        return topologicalSort(dag.toCsr(), tracker);
+    }
+
+
+    public List<Integer> topologicalSort(CompactGraph dag, PerformanceTracker tracker) {
+        TopologicalOrder result = sort(dag, tracker);
+
+        if (!result.isAcyclic()) {
+            System.err.println("Error: Graph contains a cycle, topological sort not possible.");
+            return null;
+        }
+
+        List<Integer> topOrder = new ArrayList<>(result.getOrder().length);
+        for (int v : result.getOrder()) {
+            topOrder.add(v);
+        }
+        return topOrder;
+    }
+
+
+    /** Works on any {@link SequentialGraph}, such as a {@link graph.CompressedGraph}. */
+    public TopologicalOrder sort(SequentialGraph dag, PerformanceTracker tracker) {
+        Workspace workspace = Workspace.get();
+        long mark = workspace.mark();
+        try {
+            return sortCounting(dag, workspace.zeroedInts(dag.getNumVertices()), tracker);
+        } finally {
+            workspace.release(mark);
+        }
+    }
+
+    /** {@link #sort(SequentialGraph, PerformanceTracker)} with a zeroed in-degree array of at least V slots. */
+    private TopologicalOrder sortCounting(SequentialGraph dag, int[] inDegree, PerformanceTracker tracker) {
         tracker.start();
+        Counter queuePushes = tracker.counter("queue_pushes");
+        Counter queuePops = tracker.counter("queue_pops");
         int V = dag.getNumVertices();
-        int[] inDegree = new int[V];
+        EdgeCursor edges = dag.edgeCursor();
 
 
-        for (int i = 0; i < V; i++) {
-            for (int[] edge : dag.getAdj(i)) {
-                inDegree[edge[0]]++;
+        for (int u = 0; u < V; u++) {
+            edges.reset(u);
+            while (edges.hasNext()) {
+                inDegree[edges.nextTarget()]++;
             }
         }
 
 
-        Queue<Integer> queue = new LinkedList<>();
+        // Array-backed FIFO: every vertex is enqueued at most once, so V slots suffice.
+        // The consumed prefix of the queue is the topological order itself.
+        int[] queue = new int[V];
+        int head = 0;
+        int tail = 0;
         for (int i = 0; i < V; i++) {
             if (inDegree[i] == 0) {
-                queue.add(i);
-                tracker.incrementOperation("queue_pushes");
+                queue[tail++] = i;
             }
         }
-
-        List<Integer> topOrder = new ArrayList<>();
-        int visitedCount = 0;
+        int sourceCount = tail;
 
 
-        while (!queue.isEmpty()) {
-            int u = queue.poll();
-            tracker.incrementOperation("queue_pops");
-            topOrder.add(u);
-            visitedCount++;
+        while (head < tail) {
+            edges.reset(queue[head++]);
 
 
-            for (int[] edge : dag.getAdj(u)) {
-                int v = edge[0];
+            while (edges.hasNext()) {
+                int v = edges.nextTarget();
                 inDegree[v]--;
                 if (inDegree[v] == 0) {
-                    queue.add(v);
-                    tracker.incrementOperation("queue_pushes");
+                    queue[tail++] = v;
                 }
             }
         }
 
+        // Every vertex is pushed and popped exactly once, so the queue cursors are the counts.
+        queuePushes.add(tail);
+        queuePops.add(head);
         tracker.stop();
 
+        return new TopologicalOrder(head == V ? queue : Arrays.copyOf(queue, head), sourceCount, V);
+    }
 
-        if (visitedCount != V) {
-            System.err.println("Error: Graph contains a cycle, topological sort not possible.");
-            return null;
+
+    /**
+     * FIFO Kahn from in-degrees the caller already has, such as those counted while building the
+     * condensation; {@code inDegree} is consumed. The queue releases vertices one level after
+     * another, so the level boundaries come for free: the order is the one {@link #sort} gives,
+     * grouped into the levels of {@link #sortByLevels} but not sorted by id within them.
+     */
+    public TopologicalLevels sort(CompactGraph dag, int[] inDegree, PerformanceTracker tracker) {
+        if (inDegree.length < dag.getNumVertices()) {
+            throw new IllegalArgumentException("Expected at least " + dag.getNumVertices() + " in-degrees, got " + inDegree.length);
         }
+        tracker.start();
+        Counter queuePushes = tracker.counter("queue_pushes");
+        Counter queuePops = tracker.counter("queue_pops");
+        Counter levels = tracker.counter("levels");
+        int V = dag.getNumVertices();
+        int[] queue = new int[V];
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < V; i++) {
+            if (inDegree[i] == 0) {
+                queue[tail++] = i;
+            }
+        }
+        IntList offsets = new IntList();
+        offsets.add(0);
+        int levelEnd = tail;
 
-        return topOrder;
+        while (head < tail) {
+            if (head == levelEnd) {
+                offsets.add(levelEnd);
+                levelEnd = tail;
+            }
+            int u = queue[head++];
+            for (int e = dag.firstEdge(u), end = dag.endEdge(u); e < end; e++) {
+                if (--inDegree[dag.target(e)] == 0) {
+                    queue[tail++] = dag.target(e);
+                }
+            }
+        }
+        if (head > 0) {
+            offsets.add(head);
+        }
+
+        queuePushes.add(tail);
+        queuePops.add(head);
+        levels.add(offsets.size() - 1);
+        tracker.stop();
+        return new TopologicalLevels(head == V ? queue : Arrays.copyOf(queue, head), offsets.toArray(), V);
+    }
+
+
+    public TopologicalLevels sortByLevels(CompactGraph dag, PerformanceTracker tracker) {
+        return sortByLevels(dag, null, tracker);
+    }
+
+    /**
+     * Level-synchronous Kahn: each frontier is expanded as a whole, and the vertices whose
+     * in-degree it drives to zero form the next level. With a pool, frontiers wider than
+     * {@value #LEVEL_CHUNK} vertices are split across its workers; in-degrees are then
+     * decremented atomically. Levels are sorted, so the result does not depend on scheduling.
+     */
+    public TopologicalLevels sortByLevels(CompactGraph dag, ForkJoinPool pool, PerformanceTracker tracker) {
+        tracker.start();
+        Counter queuePushes = tracker.counter("queue_pushes");
+        Counter queuePops = tracker.counter("queue_pops");
+        Counter levels = tracker.counter("levels");
+        int V = dag.getNumVertices();
+        int[] order = new int[V];
+        IntList offsets = new IntList();
+        offsets.add(0);
+        int ordered;
+        if (pool == null) {
+            Workspace workspace = Workspace.get();
+            long mark = workspace.mark();
+            try {
+                ordered = levelsSequential(dag, workspace.zeroedInts(V), order, offsets);
+            } finally {
+                workspace.release(mark);
+            }
+        } else {
+            ordered = levelsParallel(dag, pool, order, offsets);
+        }
+
+        queuePushes.add(ordered);
+        queuePops.add(ordered);
+        levels.add(offsets.size() - 1);
+        tracker.stop();
+
+        return new TopologicalLevels(ordered == V ? order : Arrays.copyOf(order, ordered), offsets.toArray(), V);
+    }
+
+    /** Fills {@code order} level by level and appends each level's end to {@code offsets}. */
+    private static int levelsSequential(CompactGraph dag, int[] inDegree, int[] order, IntList offsets) {
+        int V = dag.getNumVertices();
+        for (int e = 0, E = dag.getNumEdges(); e < E; e++) {
+            inDegree[dag.target(e)]++;
+        }
+        int tail = 0;
+        for (int v = 0; v < V; v++) {
+            if (inDegree[v] == 0) {
+                order[tail++] = v;
+            }
+        }
+
+        int start = 0;
+        while (start < tail) {
+            int end = tail;
+            offsets.add(end);
+            for (int i = start; i < end; i++) {
+                int u = order[i];
+                for (int e = dag.firstEdge(u), stop = dag.endEdge(u); e < stop; e++) {
+                    if (--inDegree[dag.target(e)] == 0) {
+                        order[tail++] = dag.target(e);
+                    }
+                }
+            }
+            Arrays.sort(order, end, tail);
+            start = end;
+        }
+        return start;
+    }
+
+    private static int levelsParallel(CompactGraph dag, ForkJoinPool pool, int[] order, IntList offsets) {
+        int V = dag.getNumVertices();
+        AtomicIntegerArray inDegree = new AtomicIntegerArray(V);
+        if (V > 0) {
+            pool.invoke(new CountInDegrees(dag, inDegree, 0, V));
+        }
+        AtomicInteger tail = new AtomicInteger();
+        for (int v = 0; v < V; v++) {
+            if (inDegree.get(v) == 0) {
+                order[tail.getAndIncrement()] = v;
+            }
+        }
+
+        int start = 0;
+        while (start < tail.get()) {
+            int end = tail.get();
+            offsets.add(end);
+            if (end - start <= LEVEL_CHUNK) {
+                expand(dag, inDegree, order, tail, start, end);
+            } else {
+                pool.invoke(new Expand(dag, inDegree, order, tail, start, end));
+            }
+            Arrays.sort(order, end, tail.get());
+            start = end;
+        }
+        return start;
+    }
+
+
+    private static final class CountInDegrees extends RecursiveAction {
+        private final CompactGraph dag;
+        private final AtomicIntegerArray inDegree;
+        private final int from;
+        private final int to;
+
+        CountInDegrees(CompactGraph dag, AtomicIntegerArray inDegree, int from, int to) {
+            this.dag = dag;
+            this.inDegree = inDegree;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (dag.endEdge(to - 1) - dag.firstEdge(from) > LEVEL_CHUNK * 16 && to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new CountInDegrees(dag, inDegree, from, mid), new CountInDegrees(dag, inDegree, mid, to));
+                return;
+            }
+            for (int e = dag.firstEdge(from), end = dag.endEdge(to - 1); e < end; e++) {
+                inDegree.incrementAndGet(dag.target(e));
+            }
+        }
+    }
+
+    private static final class Expand extends RecursiveAction {
+        private final CompactGraph dag;
+        private final AtomicIntegerArray inDegree;
+        private final int[] order;
+        private final AtomicInteger tail;
+        private final int from;
+        private final int to;
+
+        Expand(CompactGraph dag, AtomicIntegerArray inDegree, int[] order, AtomicInteger tail, int from, int to) {
+            this.dag = dag;
+            this.inDegree = inDegree;
+            this.order = order;
+            this.tail = tail;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEVEL_CHUNK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Expand(dag, inDegree, order, tail, from, mid),
+                        new Expand(dag, inDegree, order, tail, mid, to));
+            } else {
+                expand(dag, inDegree, order, tail, from, to);
+            }
+        }
+    }
+
+    /** Expands {@code order[from .. to)} and appends the vertices it releases at {@code tail}. */
+    private static void expand(CompactGraph dag, AtomicIntegerArray inDegree, int[] order, AtomicInteger tail,
+                               int from, int to) {
+        IntList released = new IntList();
+        for (int i = from; i < to; i++) {
+            int u = order[i];
+            for (int e = dag.firstEdge(u), end = dag.endEdge(u); e < end; e++) {
+                if (inDegree.decrementAndGet(dag.target(e)) == 0) {
+                    released.add(dag.target(e));
+                }
+            }
+        }
+        // One reservation per chunk keeps contention on the shared cursor low.
+        int at = tail.getAndAdd(released.size());
+        for (int k = 0; k < released.size(); k++) {
+            order[at + k] = released.get(k);
+        }
     }
 }
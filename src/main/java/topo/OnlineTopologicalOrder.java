@@ -0,0 +1,263 @@
+package topo;
+
+import graph.CompactGraph;
+import graph.IntList;
+import metrics.PerformanceTracker;
+
+import java.util.Arrays;
+
+/**
+ * Topological order of a DAG kept valid while edges are inserted (Pearce-Kelly). An edge that
+ * already agrees with the order is accepted in constant time. Otherwise only the vertices
+ * positioned between its endpoints are searched: those reachable from the head and those
+ * reaching the tail are reordered among their own positions, and the rest of the order is
+ * left alone. The two searches advance in turn, so a cycle is usually found long before
+ * either region is exhausted. An edge that would close a cycle is rejected and the cycle is reported through
+ * {@link #getRejectedCycle()}; the graph is left unchanged.
+ */
+public class OnlineTopologicalOrder {
+    private final int V;
+    private final IntList[] successors;
+    private final IntList[] predecessors;
+    // position[v] is v's index in the order, vertexAt is its inverse.
+    private final int[] position;
+    private final int[] vertexAt;
+
+    private final int[] forwardMark;
+    private final int[] backwardMark;
+    private final int[] forwardParent;
+    private final int[] backwardParent;
+    private int epoch;
+    private int[] rejectedCycle;
+
+    public OnlineTopologicalOrder(int V) {
+        this.V = V;
+        successors = new IntList[V];
+        predecessors = new IntList[V];
+        position = new int[V];
+        vertexAt = new int[V];
+        forwardMark = new int[V];
+        backwardMark = new int[V];
+        forwardParent = new int[V];
+        backwardParent = new int[V];
+        for (int v = 0; v < V; v++) {
+            successors[v] = new IntList(4);
+            predecessors[v] = new IntList(4);
+            position[v] = v;
+            vertexAt[v] = v;
+        }
+    }
+
+    /** Starts from the order Kahn's algorithm gives {@code dag}; a cyclic graph is rejected. */
+    public OnlineTopologicalOrder(CompactGraph dag, PerformanceTracker tracker) {
+        this(dag.getNumVertices());
+        TopologicalOrder initial = new KahnsAlgorithm().sort(dag, tracker);
+        if (!initial.isAcyclic()) {
+            throw new IllegalArgumentException("Graph contains a cycle; "
+                    + (V - initial.getOrder().length) + " vertices could not be ordered");
+        }
+        int[] order = initial.getOrder();
+        for (int i = 0; i < V; i++) {
+            vertexAt[i] = order[i];
+            position[order[i]] = i;
+        }
+        for (int u = 0; u < V; u++) {
+            for (int e = dag.firstEdge(u), end = dag.endEdge(u); e < end; e++) {
+                successors[u].add(dag.target(e));
+                predecessors[dag.target(e)].add(u);
+            }
+        }
+    }
+
+
+    /**
+     * Inserts {@code u -> v} unless it would close a cycle. Returns false in that case, and
+     * {@link #getRejectedCycle()} then holds the existing path from {@code v} back to {@code u}.
+     */
+    public boolean tryAddEdge(int u, int v, PerformanceTracker tracker) {
+        checkRange(u, v);
+        tracker.start();
+        long visits = 0;
+        long reordered = 0;
+        rejectedCycle = null;
+
+        if (position[u] > position[v]) {
+            int lower = position[v];
+            int upper = position[u];
+            int stamp = nextEpoch();
+            IntList forwardRegion = new IntList();
+            IntList backwardRegion = new IntList();
+            IntList forwardStack = new IntList();
+            IntList backwardStack = new IntList();
+            forwardStack.add(v);
+            forwardMark[v] = stamp;
+            forwardParent[v] = -1;
+            backwardStack.add(u);
+            backwardMark[u] = stamp;
+            backwardParent[u] = -1;
+
+            // Alternate the two searches so a cycle is found where they meet, without first
+            // exhausting either region.
+            while ((forwardStack.size() > 0 || backwardStack.size() > 0) && rejectedCycle == null) {
+                visits++;
+                boolean expandForward = backwardStack.size() == 0
+                        || (forwardStack.size() > 0 && forwardRegion.size() <= backwardRegion.size());
+                if (expandForward) {
+                    int x = forwardStack.removeLast();
+                    forwardRegion.add(x);
+                    IntList out = successors[x];
+                    for (int i = 0; i < out.size() && rejectedCycle == null; i++) {
+                        int y = out.get(i);
+                        if (forwardMark[y] != stamp && position[y] <= upper) {
+                            forwardMark[y] = stamp;
+                            forwardParent[y] = x;
+                            if (backwardMark[y] == stamp) {
+                                rejectedCycle = cycleThrough(y);
+                            }
+                            forwardStack.add(y);
+                        }
+                    }
+                } else {
+                    int x = backwardStack.removeLast();
+                    backwardRegion.add(x);
+                    IntList in = predecessors[x];
+                    for (int i = 0; i < in.size() && rejectedCycle == null; i++) {
+                        int y = in.get(i);
+                        if (backwardMark[y] != stamp && position[y] >= lower) {
+                            backwardMark[y] = stamp;
+                            backwardParent[y] = x;
+                            if (forwardMark[y] == stamp) {
+                                rejectedCycle = cycleThrough(y);
+                            }
+                            backwardStack.add(y);
+                        }
+                    }
+                }
+            }
+
+            if (rejectedCycle == null) {
+                reorder(backwardRegion, forwardRegion);
+                reordered = backwardRegion.size() + forwardRegion.size();
+            }
+        } else if (u == v) {
+            rejectedCycle = new int[]{u};
+        }
+
+        if (rejectedCycle == null) {
+            successors[u].add(v);
+            predecessors[v].add(u);
+        }
+        tracker.addOperations("search_visits", visits);
+        tracker.addOperations("reordered", reordered);
+        tracker.addOperations("cycles_rejected", rejectedCycle == null ? 0 : 1);
+        tracker.stop();
+        return rejectedCycle == null;
+    }
+
+    /** Removes one {@code u -> v} edge; the order stays valid without any work. */
+    public boolean removeEdge(int u, int v) {
+        checkRange(u, v);
+        return remove(successors[u], v) && remove(predecessors[v], u);
+    }
+
+    /**
+     * The path {@code v, ..., u} that made the last {@link #tryAddEdge} call reject
+     * {@code u -> v}, or null if the last call succeeded.
+     */
+    public int[] getRejectedCycle() {
+        return rejectedCycle;
+    }
+
+    public int getNumVertices() {
+        return V;
+    }
+
+    public int positionOf(int v) {
+        return position[v];
+    }
+
+    public boolean precedes(int u, int v) {
+        return position[u] < position[v];
+    }
+
+    public int[] getOrder() {
+        return vertexAt.clone();
+    }
+
+
+    /**
+     * Reassigns the positions held by both regions: vertices that reach the new edge's tail
+     * first, then those reachable from its head, each group keeping its relative order.
+     */
+    private void reorder(IntList backwardRegion, IntList forwardRegion) {
+        int[] backward = sortedPositions(backwardRegion);
+        int[] forward = sortedPositions(forwardRegion);
+        int[] vertices = new int[backward.length + forward.length];
+        for (int i = 0; i < backward.length; i++) {
+            vertices[i] = vertexAt[backward[i]];
+        }
+        for (int i = 0; i < forward.length; i++) {
+            vertices[backward.length + i] = vertexAt[forward[i]];
+        }
+
+        int[] slots = new int[vertices.length];
+        System.arraycopy(backward, 0, slots, 0, backward.length);
+        System.arraycopy(forward, 0, slots, backward.length, forward.length);
+        Arrays.sort(slots);
+        for (int i = 0; i < vertices.length; i++) {
+            position[vertices[i]] = slots[i];
+            vertexAt[slots[i]] = vertices[i];
+        }
+    }
+
+    private int[] sortedPositions(IntList vertices) {
+        int[] positions = new int[vertices.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = position[vertices.get(i)];
+        }
+        Arrays.sort(positions);
+        return positions;
+    }
+
+    /** The path {@code v, ..., meet, ..., u} joining the two search trees at {@code meet}. */
+    private int[] cycleThrough(int meet) {
+        IntList head = new IntList();
+        for (int x = meet; x != -1; x = forwardParent[x]) {
+            head.add(x);
+        }
+        IntList path = new IntList(head.size() * 2);
+        for (int i = head.size() - 1; i >= 0; i--) {
+            path.add(head.get(i));
+        }
+        for (int x = backwardParent[meet]; x != -1; x = backwardParent[x]) {
+            path.add(x);
+        }
+        return path.toArray();
+    }
+
+    private static boolean remove(IntList list, int value) {
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == value) {
+                list.set(i, list.get(list.size() - 1));
+                list.removeLast();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int nextEpoch() {
+        if (epoch == Integer.MAX_VALUE) {
+            Arrays.fill(forwardMark, 0);
+            Arrays.fill(backwardMark, 0);
+            epoch = 0;
+        }
+        return ++epoch;
+    }
+
+    private void checkRange(int u, int v) {
+        if (u < 0 || u >= V || v < 0 || v >= V) {
+            throw new IndexOutOfBoundsException("Edge " + u + "->" + v + " out of range for " + V + " vertices");
+        }
+    }
+}
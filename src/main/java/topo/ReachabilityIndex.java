@@ -0,0 +1,249 @@
+package topo;
+
+import graph.CompactGraph;
+import metrics.Counter;
+import metrics.PerformanceTracker;
+import scc.SccResult;
+
+import java.util.Arrays;
+
+/**
+ * Answers "does {@code u} reach {@code v}" for vertices of the original graph from its SCCs,
+ * condensation and topological order.
+ *
+ * <p>Vertices in one component reach each other, and a component never reaches one that comes
+ * earlier in the order. Past those two checks the answer comes from the transitive closure of
+ * the condensation: one bitset row per component, indexed by topological position and built in
+ * reverse order as the OR of the successors' rows. A row only stores the words at or after its
+ * own position, which roughly halves the closure. When the closure would exceed the memory
+ * budget it is skipped, and queries fall back to DFS interval labels (a quick positive for
+ * spanning-tree descendants) and a search pruned by topological position.
+ *
+ * <p>Queries are safe from any number of threads.
+ */
+public class ReachabilityIndex {
+    public static final long DEFAULT_MAX_CLOSURE_BYTES = 64L << 20;
+
+    private final int[] componentOf;
+    private final CompactGraph condensation;
+    private final int[] position;
+    private final int[] preorder;
+    private final int[] lastDescendant;
+    // Word i of position p's row is closure[rowBase[p] + i]; null when over budget.
+    private final long[] closure;
+    private final int[] rowBase;
+    private final ThreadLocal<SearchState> searchState;
+
+    private ReachabilityIndex(int[] componentOf, CompactGraph condensation, int[] position,
+                              int[] preorder, int[] lastDescendant, long[] closure, int[] rowBase) {
+        this.componentOf = componentOf;
+        this.condensation = condensation;
+        this.position = position;
+        this.preorder = preorder;
+        this.lastDescendant = lastDescendant;
+        this.closure = closure;
+        this.rowBase = rowBase;
+        int C = condensation.getNumVertices();
+        this.searchState = ThreadLocal.withInitial(() -> new SearchState(C));
+    }
+
+    public static ReachabilityIndex build(SccResult sccs, CompactGraph condensation, TopologicalOrder order,
+                                          PerformanceTracker tracker) {
+        return build(sccs, condensation, order, DEFAULT_MAX_CLOSURE_BYTES, tracker);
+    }
+
+    /** @param maxClosureBytes budget for the bitset closure; 0 always uses the labels and search */
+    public static ReachabilityIndex build(SccResult sccs, CompactGraph condensation, TopologicalOrder order,
+                                          long maxClosureBytes, PerformanceTracker tracker) {
+        if (!order.isAcyclic() || order.getNumVertices() != condensation.getNumVertices()) {
+            throw new IllegalArgumentException("Reachability needs a complete topological order of the condensation");
+        }
+        tracker.start();
+        int C = condensation.getNumVertices();
+        int[] position = order.positions();
+        int[] preorder = new int[C];
+        int[] lastDescendant = new int[C];
+        labelIntervals(condensation, order.getOrder(), preorder, lastDescendant, tracker.counter("dfs_visits"));
+
+        long[] closure = null;
+        int[] rowBase = null;
+        long words = closureWords(C);
+        if (words * 8 <= maxClosureBytes && words <= Integer.MAX_VALUE - 8) {
+            rowBase = new int[C];
+            closure = new long[(int) words];
+            buildClosure(condensation, order.getOrder(), position, closure, rowBase, tracker.counter("closure_word_ors"));
+        }
+        tracker.stop();
+        return new ReachabilityIndex(sccs.getComponentOf(), condensation, position, preorder, lastDescendant, closure, rowBase);
+    }
+
+    public boolean reaches(int u, int v) {
+        return componentReaches(componentOf[u], componentOf[v]);
+    }
+
+    /** Whether component {@code a} reaches component {@code b} in the condensation (always for {@code a == b}). */
+    public boolean componentReaches(int a, int b) {
+        if (a == b) {
+            return true;
+        }
+        int pa = position[a];
+        int pb = position[b];
+        if (pa > pb) {
+            return false;
+        }
+        if (closure != null) {
+            return (closure[rowBase[pa] + (pb >>> 6)] & (1L << pb)) != 0;
+        }
+        if (isTreeDescendant(a, b)) {
+            return true;
+        }
+        return search(a, b, pb);
+    }
+
+    public boolean hasClosure() {
+        return closure != null;
+    }
+
+    /** Bytes held by the index itself; the component mapping and condensation are shared, not counted. */
+    public long memoryBytes() {
+        long bytes = 4L * (position.length + preorder.length + lastDescendant.length);
+        if (closure != null) {
+            bytes += 8L * closure.length + 4L * rowBase.length;
+        }
+        return bytes;
+    }
+
+    /** Words a closure over {@code C} components needs; row {@code p} starts at word {@code (p + 1) / 64}. */
+    static long closureWords(int C) {
+        long rowWords = (C + 63L) >>> 6;
+        long words = 0;
+        for (int p = 0; p < C; p++) {
+            words += rowWords - ((p + 1) >>> 6);
+        }
+        return words;
+    }
+
+
+    private static void buildClosure(CompactGraph dag, int[] order, int[] position, long[] closure, int[] rowBase,
+                                     Counter wordOrs) {
+        int C = order.length;
+        int rowWords = (C + 63) >>> 6;
+        int offset = 0;
+        for (int p = 0; p < C; p++) {
+            int start = (p + 1) >>> 6;
+            rowBase[p] = offset - start;
+            offset += rowWords - start;
+        }
+
+        int[] successors = new int[16];
+        for (int p = C - 1; p >= 0; p--) {
+            int u = order[p];
+            int count = 0;
+            for (int e = dag.firstEdge(u), end = dag.endEdge(u); e < end; e++) {
+                if (count == successors.length) {
+                    successors = Arrays.copyOf(successors, count * 2);
+                }
+                successors[count++] = position[dag.target(e)];
+            }
+            // Nearest successors first: their rows tend to cover the farther ones, which are then skipped.
+            Arrays.sort(successors, 0, count);
+            int base = rowBase[p];
+            for (int i = 0; i < count; i++) {
+                int q = successors[i];
+                if ((closure[base + (q >>> 6)] & (1L << q)) != 0) {
+                    continue;
+                }
+                closure[base + (q >>> 6)] |= 1L << q;
+                int from = (q + 1) >>> 6;
+                int source = rowBase[q];
+                for (int w = from; w < rowWords; w++) {
+                    closure[base + w] |= closure[source + w];
+                }
+                wordOrs.add(rowWords - from);
+            }
+        }
+    }
+
+    /** Pre-order number and the last pre-order number in the subtree of a DFS spanning forest. */
+    private static void labelIntervals(CompactGraph dag, int[] order, int[] preorder, int[] lastDescendant,
+                                       Counter dfsVisits) {
+        int C = order.length;
+        Arrays.fill(preorder, -1);
+        int[] stack = new int[C];
+        int[] cursor = new int[C];
+        int counter = 0;
+        for (int root : order) {
+            if (preorder[root] != -1) {
+                continue;
+            }
+            int top = 0;
+            stack[0] = root;
+            cursor[0] = dag.firstEdge(root);
+            preorder[root] = counter++;
+            dfsVisits.increment();
+            while (top >= 0) {
+                int u = stack[top];
+                if (cursor[top] < dag.endEdge(u)) {
+                    int w = dag.target(cursor[top]++);
+                    if (preorder[w] == -1) {
+                        preorder[w] = counter++;
+                        dfsVisits.increment();
+                        stack[++top] = w;
+                        cursor[top] = dag.firstEdge(w);
+                    }
+                } else {
+                    lastDescendant[u] = counter - 1;
+                    top--;
+                }
+            }
+        }
+    }
+
+    private boolean isTreeDescendant(int a, int b) {
+        return preorder[a] <= preorder[b] && preorder[b] <= lastDescendant[a];
+    }
+
+    private boolean search(int a, int b, int limit) {
+        SearchState state = searchState.get();
+        int epoch = state.nextEpoch();
+        int[] mark = state.mark;
+        int[] stack = state.stack;
+        int top = 0;
+        stack[top++] = a;
+        mark[a] = epoch;
+        while (top > 0) {
+            int u = stack[--top];
+            for (int e = condensation.firstEdge(u), end = condensation.endEdge(u); e < end; e++) {
+                int w = condensation.target(e);
+                if (w == b || isTreeDescendant(w, b)) {
+                    return true;
+                }
+                // Anything placed after b cannot lead back to it.
+                if (mark[w] != epoch && position[w] < limit) {
+                    mark[w] = epoch;
+                    stack[top++] = w;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static final class SearchState {
+        final int[] mark;
+        final int[] stack;
+        int epoch;
+
+        SearchState(int C) {
+            this.mark = new int[C];
+            this.stack = new int[C];
+        }
+
+        int nextEpoch() {
+            if (++epoch == 0) {
+                Arrays.fill(mark, 0);
+                epoch = 1;
+            }
+            return epoch;
+        }
+    }
+}
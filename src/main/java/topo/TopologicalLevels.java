@@ -0,0 +1,61 @@
+package topo;
+
+import java.util.Arrays;
+
+/**
+ * Topological order grouped into levels ("waves"). Level 0 holds the sources and every other
+ * vertex sits one level after its deepest predecessor, so the vertices of one level have no
+ * edges between them and can run concurrently. Level {@code i} is the slice
+ * {@code order[levelStart(i) .. levelEnd(i))}; {@link KahnsAlgorithm#sortByLevels} sorts each
+ * slice by vertex id, while the FIFO {@link KahnsAlgorithm#sort(graph.CompactGraph, int[], metrics.PerformanceTracker)}
+ * leaves it in queue order.
+ */
+public class TopologicalLevels extends TopologicalOrder {
+    private final int[] levelOffsets;
+
+    public TopologicalLevels(int[] order, int[] levelOffsets, int numVertices) {
+        super(order, levelOffsets.length > 1 ? levelOffsets[1] : 0, numVertices);
+        this.levelOffsets = levelOffsets;
+    }
+
+    /** Number of levels, i.e. the number of vertices on the longest path. */
+    public int getDepth() {
+        return levelOffsets.length - 1;
+    }
+
+    public int getMaxWidth() {
+        int width = 0;
+        for (int i = 0; i < getDepth(); i++) {
+            width = Math.max(width, levelEnd(i) - levelStart(i));
+        }
+        return width;
+    }
+
+    public int levelStart(int level) {
+        return levelOffsets[level];
+    }
+
+    public int levelEnd(int level) {
+        return levelOffsets[level + 1];
+    }
+
+    /** The vertices of {@code level}, sorted by id. */
+    public int[] getLevel(int level) {
+        int[] vertices = Arrays.copyOfRange(getOrder(), levelStart(level), levelEnd(level));
+        Arrays.sort(vertices);
+        return vertices;
+    }
+
+    /** {@code level[v]} is the wave {@code v} belongs to, or -1 if it lies on or behind a cycle. */
+    public int[] levels() {
+        int[] level = new int[getNumVertices()];
+        Arrays.fill(level, -1);
+        int[] order = getOrder();
+        for (int i = 0; i < getDepth(); i++) {
+            for (int k = levelStart(i); k < levelEnd(i); k++) {
+                level[order[k]] = i;
+            }
+        }
+        return level;
+    }
+}
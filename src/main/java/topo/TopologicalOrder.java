@@ -0,0 +1,44 @@
+package topo;
+
+/**
+ * Output of Kahn's algorithm on a primitive graph. The first {@code sourceCount} entries of
+ * {@code order} are the vertices that had in-degree zero, so later stages can find the
+ * sources without recounting in-degrees. On a cyclic graph {@code order} holds only the
+ * vertices that could be ordered and {@link #isAcyclic()} is false.
+ */
+public class TopologicalOrder {
+    private final int[] order;
+    private final int sourceCount;
+    private final int numVertices;
+
+    public TopologicalOrder(int[] order, int sourceCount, int numVertices) {
+        this.order = order;
+        this.sourceCount = sourceCount;
+        this.numVertices = numVertices;
+    }
+
+    public int[] getOrder() {
+        return order;
+    }
+
+    public int getSourceCount() {
+        return sourceCount;
+    }
+
+    public int getNumVertices() {
+        return numVertices;
+    }
+
+    public boolean isAcyclic() {
+        return order.length == numVertices;
+    }
+
+    /** {@code position[v]} is the index of {@code v} in the order. */
+    public int[] positions() {
+        int[] position = new int[numVertices];
+        for (int i = 0; i < order.length; i++) {
+            position[order[i]] = i;
+        }
+        return position;
+    }
+}
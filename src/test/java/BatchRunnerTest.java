@@ -0,0 +1,78 @@
+import metrics.PhaseMetrics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pipeline.Pipeline;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchRunnerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private File writeChain(String name, int vertices) throws IOException {
+        File file = new File(tempDir.toFile(), name);
+        try (Writer out = new FileWriter(file)) {
+            out.write("{ \"vertices\": " + vertices + ", \"edges\": [");
+            for (int v = 0; v + 1 < vertices; v++) {
+                out.write((v == 0 ? "" : ",") + "[" + v + "," + (v + 1) + ",1]");
+            }
+            out.write("]}");
+        }
+        return file;
+    }
+
+    @Test
+    void testRowsKeepFileOrderAndFailuresAreIsolated() throws Exception {
+        // Larger graphs first, so later files tend to finish earlier.
+        File[] files = new File[8];
+        for (int i = 0; i < files.length; i++) {
+            files[i] = writeChain("graph" + i + ".json", 20_000 >> i);
+        }
+        File broken = new File(tempDir.toFile(), "graph3.json");
+        try (Writer out = new FileWriter(broken)) {
+            out.write("{ \"vertices\": 3, \"edges\": [[0, 7, 1]");
+        }
+
+        BatchRunner.Settings settings = new BatchRunner.Settings(new Pipeline(), null, null, false, new PhaseMetrics());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int attempt = 0; attempt < 3; attempt++) {
+                List<Map<String, Object>> rows = BatchRunner.processAll(files, settings, executor, 4);
+                assertEquals(files.length - 1, rows.size());
+                int row = 0;
+                for (int i = 0; i < files.length; i++) {
+                    if (i == 3) {
+                        continue;
+                    }
+                    assertEquals(files[i].getName(), rows.get(row).get("Filename"));
+                    assertEquals(20_000 >> i, rows.get(row).get("Vertices"));
+                    row++;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testDefaultMaxInFlightFollowsExecutor() {
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        ExecutorService perTask = Executors.newWorkStealingPool(2);
+        try {
+            assertEquals(3, BatchRunner.defaultMaxInFlight(pool, 3));
+            assertTrue(BatchRunner.defaultMaxInFlight(perTask, 1) > 1);
+        } finally {
+            pool.shutdownNow();
+            perTask.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package cache;
+
+import graph.CsrGraph;
+import metrics.PerformanceTracker;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import scc.CondensationBuilder;
+import scc.SccResult;
+import scc.TarjanAlgorithm;
+import topo.KahnsAlgorithm;
+import topo.TopologicalOrder;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Collections;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static CsrGraph sample(int extraWeight) {
+        return new CsrGraph.Builder(5)
+                .addEdge(0, 1, 2)
+                .addEdge(1, 2, 3)
+                .addEdge(2, 0, 1)
+                .addEdge(2, 3, 4)
+                .addEdge(3, 4, extraWeight)
+                .build();
+    }
+
+    private static AnalysisResult analyse(CsrGraph graph) {
+        SccResult sccs = new TarjanAlgorithm().findComponents(graph, PerformanceTracker.disabled());
+        CsrGraph condensation = new CondensationBuilder().build(graph, sccs, PerformanceTracker.disabled());
+        TopologicalOrder order = new KahnsAlgorithm().sort(condensation, PerformanceTracker.disabled());
+        return new AnalysisResult(GraphHash.fingerprint(graph), sccs, condensation, order,
+                Collections.singletonMap("Num_SCCs", (long) sccs.getNumComponents()));
+    }
+
+    @Test
+    void testHashDependsOnContents() {
+        assertEquals(GraphHash.of(sample(5)), GraphHash.of(sample(5)));
+        assertNotEquals(GraphHash.of(sample(5)), GraphHash.of(sample(6)));
+        long hash = GraphHash.of(sample(5));
+        assertNotEquals(GraphHash.withVariant(hash, "a"), GraphHash.withVariant(hash, "b"));
+        GraphHash.Fingerprint fingerprint = GraphHash.fingerprint(sample(5));
+        assertEquals(hash, fingerprint.getHash());
+        assertEquals(5, fingerprint.getVertices());
+        assertEquals(5, fingerprint.getEdges());
+        assertNotEquals(fingerprint.getCheck(), GraphHash.fingerprint(sample(6)).getCheck());
+        assertNotEquals(fingerprint.withVariant("a").getCheck(), fingerprint.withVariant("b").getCheck());
+    }
+
+    @Test
+    void testMemoryHitAndMiss() {
+        ResultCache cache = new ResultCache(1 << 20, null);
+        AnalysisResult result = analyse(sample(5));
+        assertNull(cache.get(result.getFingerprint()));
+        cache.put(result);
+        assertSame(result, cache.get(result.getFingerprint()));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsed() {
+        AnalysisResult first = analyse(sample(5));
+        AnalysisResult second = analyse(sample(6));
+        AnalysisResult third = analyse(sample(7));
+        ResultCache cache = new ResultCache(2 * first.sizeBytes(), null);
+        cache.put(first);
+        cache.put(second);
+        cache.get(first.getFingerprint());
+        cache.put(third);
+
+        assertEquals(1, cache.getEvictions());
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(first.getFingerprint()));
+        assertNull(cache.get(second.getFingerprint()));
+        assertNotNull(cache.get(third.getFingerprint()));
+    }
+
+    @Test
+    void testDiskTierSurvivesNewCache() {
+        File directory = tempDir.toFile();
+        AnalysisResult result = analyse(sample(5));
+        new ResultCache(1 << 20, directory).put(result);
+
+        ResultCache fresh = new ResultCache(1 << 20, directory);
+        AnalysisResult loaded = fresh.get(result.getFingerprint());
+        assertNotNull(loaded);
+        assertEquals(1, fresh.getDiskHits());
+        assertTrue(loaded.getComponents().samePartitionAs(result.getComponents()));
+        assertArrayEquals(result.getCondensation().targets(), loaded.getCondensation().targets());
+        assertArrayEquals(result.getCondensation().weights(), loaded.getCondensation().weights());
+        assertArrayEquals(result.getOrder().getOrder(), loaded.getOrder().getOrder());
+        assertEquals(result.getMetrics(), loaded.getMetrics());
+
+        assertEquals(result.getFingerprint(), loaded.getFingerprint());
+
+        assertSame(loaded, fresh.get(result.getFingerprint()));
+        assertEquals(1, fresh.getHits());
+    }
+
+    @Test
+    void testCollidingKeyIsAMiss() {
+        File directory = tempDir.toFile();
+        AnalysisResult result = analyse(sample(5));
+        GraphHash.Fingerprint stored = result.getFingerprint();
+        GraphHash.Fingerprint colliding = new GraphHash.Fingerprint(stored.getVertices(), stored.getEdges() + 1,
+                stored.getHash(), stored.getCheck());
+        GraphHash.Fingerprint otherCheck = new GraphHash.Fingerprint(stored.getVertices(), stored.getEdges(),
+                stored.getHash(), stored.getCheck() + 1);
+
+        ResultCache cache = new ResultCache(1 << 20, directory);
+        cache.put(result);
+        assertNull(cache.get(colliding));
+        assertNull(cache.get(otherCheck));
+        assertEquals(2, cache.getMismatches());
+
+        ResultCache fresh = new ResultCache(1 << 20, directory);
+        assertNull(fresh.get(otherCheck), "A stale file for the same key is not returned");
+        assertEquals(0, fresh.getDiskHits());
+        assertEquals(0, fresh.size());
+        assertNotNull(fresh.get(stored));
+    }
+}
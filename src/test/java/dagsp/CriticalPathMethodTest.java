@@ -0,0 +1,88 @@
+package dagsp;
+
+import graph.CsrGraph;
+import metrics.PerformanceTracker;
+import org.junit.jupiter.api.Test;
+import scc.CondensationBuilder;
+import scc.SccResult;
+import scc.TarjanAlgorithm;
+import topo.KahnsAlgorithm;
+import topo.TopologicalOrder;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CriticalPathMethodTest {
+
+    private static CriticalPathSchedule schedule(CsrGraph graph, PerformanceTracker tracker) {
+        SccResult sccs = new TarjanAlgorithm().findComponents(graph, PerformanceTracker.disabled());
+        CsrGraph condensation = new CondensationBuilder().build(graph, sccs, PerformanceTracker.disabled());
+        TopologicalOrder order = new KahnsAlgorithm().sort(condensation, PerformanceTracker.disabled());
+        return new CriticalPathMethod().schedule(condensation, order, sccs, tracker);
+    }
+
+    @Test
+    void testSlackOnOriginalVertices() {
+        CsrGraph graph = new CsrGraph.Builder(5)
+                .addEdge(0, 1, 1)
+                .addEdge(1, 0, 1)
+                .addEdge(1, 2, 3)
+                .addEdge(0, 3, 1)
+                .addEdge(3, 2, 1)
+                .addEdge(2, 4, 2)
+                .build();
+        PerformanceTracker tracker = new PerformanceTracker();
+        CriticalPathSchedule schedule = schedule(graph, tracker);
+
+        assertEquals(5, schedule.getProjectLength());
+        assertEquals(0, schedule.getEarliestStart(1));
+        assertEquals(1, schedule.getEarliestStart(3));
+        assertEquals(2, schedule.getLatestStart(3));
+        assertEquals(1, schedule.getSlack(3));
+        assertEquals(3, schedule.getEarliestStart(2));
+        assertEquals(5, schedule.getLatestStart(4));
+        assertArrayEquals(new int[]{0, 1, 2, 4}, schedule.getCriticalTasks());
+        assertFalse(schedule.isCritical(3));
+        assertTrue(tracker.getOperations().get("relaxations_backward") > 0);
+    }
+
+    @Test
+    void testAgreesWithLongestPaths() {
+        Random random = new Random(3);
+        int V = 400;
+        CsrGraph.Builder builder = new CsrGraph.Builder(V);
+        for (int i = 0; i < 1200; i++) {
+            int u = random.nextInt(V);
+            int v = random.nextInt(V);
+            if (u < v) {
+                builder.addEdge(u, v, random.nextInt(20) - 5);
+            }
+        }
+        CsrGraph dag = builder.build();
+        TopologicalOrder order = new KahnsAlgorithm().sort(dag, PerformanceTracker.disabled());
+        int[] identity = new int[V];
+        for (int v = 0; v < V; v++) {
+            identity[v] = v;
+        }
+        CriticalPathSchedule schedule = new CriticalPathMethod().schedule(dag, order, new SccResult(identity, V),
+                new PerformanceTracker());
+        PathResult longest = new DagShortestPath().longestPaths(dag, order, new PerformanceTracker());
+
+        long length = Math.max(0, longest.getDistance(longest.farthestVertex()));
+        assertEquals(length, schedule.getProjectLength());
+        for (int v = 0; v < V; v++) {
+            assertEquals(longest.getDistance(v), schedule.getEarliestStart(v));
+            assertTrue(schedule.getSlack(v) >= 0);
+            for (int e = dag.firstEdge(v); e < dag.endEdge(v); e++) {
+                assertTrue(schedule.getLatestStart(v) + dag.weight(e) <= schedule.getLatestStart(dag.target(e)));
+            }
+        }
+        assertTrue(schedule.getCriticalTasks().length > 0);
+    }
+
+    @Test
+    void testEmptyGraph() {
+        CriticalPathSchedule schedule = schedule(new CsrGraph.Builder(0).build(), new PerformanceTracker());
+        assertEquals(0, schedule.getProjectLength());
+        assertEquals(0, schedule.getCriticalTasks().length);
+    }
+}
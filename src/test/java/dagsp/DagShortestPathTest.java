@@ -1,9 +1,12 @@
 package dagsp;
 
+import graph.CsrGraph;
 import graph.DirectedGraph;
 import metrics.PerformanceTracker;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import topo.KahnsAlgorithm;
+import topo.TopologicalOrder;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -65,4 +68,36 @@ class DagShortestPathTest {
         assertEquals(13, distances.get(4));
         assertEquals(15, distances.get(5));
     }
+
+
+    @Test
+    void testPrimitivePathsAndReconstruction() {
+        CsrGraph csr = dag.toCsr();
+        TopologicalOrder order = new KahnsAlgorithm().sort(csr, new PerformanceTracker());
+        DagShortestPath dagSp = new DagShortestPath();
+
+        PathResult shortest = dagSp.shortestPaths(csr, order, 0, new PerformanceTracker());
+        assertEquals(10, shortest.getDistance(3));
+        assertArrayEquals(new int[]{0, 2, 3}, shortest.pathTo(3));
+        assertArrayEquals(new int[]{0, 2, 5}, shortest.pathTo(5));
+
+        PathResult longest = dagSp.longestPaths(csr, order, new PerformanceTracker());
+        assertEquals(5, longest.farthestVertex());
+        assertEquals(15, longest.getDistance(5));
+        assertArrayEquals(new int[]{0, 1, 2, 3, 5}, longest.pathTo(5));
+    }
+
+    @Test
+    void testUnreachableAndLargeWeightsDoNotOverflow() {
+        CsrGraph csr = new CsrGraph.Builder(4)
+                .addEdge(0, 1, Integer.MAX_VALUE)
+                .addEdge(1, 2, Integer.MAX_VALUE)
+                .build();
+        TopologicalOrder order = new KahnsAlgorithm().sort(csr, new PerformanceTracker());
+        PathResult shortest = new DagShortestPath().shortestPaths(csr, order, 0, new PerformanceTracker());
+
+        assertEquals(2L * Integer.MAX_VALUE, shortest.getDistance(2));
+        assertFalse(shortest.isReachable(3));
+        assertEquals(0, shortest.pathTo(3).length);
+    }
 }
@@ -0,0 +1,100 @@
+package gen;
+
+import graph.BinaryGraphFormat;
+import graph.CompactGraph;
+import graph.CsrGraph;
+import graph.JsonGraphLoader;
+import metrics.PerformanceTracker;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import scc.SccResult;
+import scc.TarjanAlgorithm;
+import topo.KahnsAlgorithm;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphGeneratorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static void assertSameGraph(CompactGraph expected, CompactGraph actual) {
+        assertEquals(expected.getNumVertices(), actual.getNumVertices());
+        assertEquals(expected.getNumEdges(), actual.getNumEdges());
+        for (int u = 0; u < expected.getNumVertices(); u++) {
+            assertEquals(expected.firstEdge(u), actual.firstEdge(u));
+            assertEquals(expected.endEdge(u), actual.endEdge(u));
+        }
+        for (int e = 0; e < expected.getNumEdges(); e++) {
+            assertEquals(expected.target(e), actual.target(e));
+            assertEquals(expected.weight(e), actual.weight(e));
+        }
+    }
+
+    @Test
+    void testSameSeedSameGraphInSourceOrder() throws IOException {
+        for (String kind : new String[]{"dag", "cyclic", "powerlaw", "layered"}) {
+            GraphGenerator generator = GraphGenerator.forName(kind, 500, 3.5, 7, null);
+            assertSameGraph(generator.toCsr(), GraphGenerator.forName(kind, 500, 3.5, 7, null).toCsr());
+            int[] last = {0};
+            generator.generate((u, v, w) -> {
+                assertTrue(u >= last[0], kind + " emitted " + u + " after " + last[0]);
+                assertTrue(w >= 1 && w <= 100);
+                last[0] = u;
+            });
+        }
+        assertTrue(GraphGenerator.dag(500, 3, 1).toCsr().getNumEdges() > 0);
+    }
+
+    @Test
+    void testCyclicPlantsExactComponents() {
+        CsrGraph graph = GraphGenerator.cyclic(1000, 4, ComponentSizes.fixed(8), 3).toCsr();
+        SccResult sccs = new TarjanAlgorithm().findComponents(graph, new PerformanceTracker());
+        assertEquals(125, sccs.getNumComponents());
+        for (int size : sccs.getComponentSizes()) {
+            assertEquals(8, size);
+        }
+
+        CsrGraph skewed = GraphGenerator.cyclic(5000, 4, ComponentSizes.parse("powerlaw:2.0:200"), 3).toCsr();
+        int[] sizes = new TarjanAlgorithm().findComponents(skewed, new PerformanceTracker()).getComponentSizes();
+        int singletons = 0;
+        int largest = 0;
+        for (int size : sizes) {
+            singletons += size == 1 ? 1 : 0;
+            largest = Math.max(largest, size);
+        }
+        assertTrue(singletons > sizes.length / 3, "Most planted components should be small");
+        assertTrue(largest > 20 && largest <= 200);
+    }
+
+    @Test
+    void testDagKindsAreAcyclic() {
+        assertTrue(new KahnsAlgorithm().sort(GraphGenerator.dag(2000, 4, 5).toCsr(), new PerformanceTracker()).isAcyclic());
+        CsrGraph layered = GraphGenerator.layered(2000, 3, 20, 5).toCsr();
+        assertTrue(new KahnsAlgorithm().sortByLevels(layered, new PerformanceTracker()).getDepth() <= 20);
+    }
+
+    @Test
+    void testStreamsToBinaryAndJson() throws IOException {
+        GraphGenerator generator = GraphGenerator.powerLaw(300, 4, 2.5, 9);
+        CsrGraph expected = generator.toCsr();
+
+        File bin = tempDir.resolve("g.bin").toFile();
+        assertEquals(expected.getNumEdges(), GraphFiles.write(generator, bin));
+        assertSameGraph(expected, BinaryGraphFormat.map(bin));
+        assertFalse(new File(bin.getPath() + ".weights.tmp").exists());
+
+        File json = tempDir.resolve("g.json").toFile();
+        GraphFiles.write(generator, json);
+        assertSameGraph(expected, new JsonGraphLoader().load(json, new PerformanceTracker()));
+    }
+
+    @Test
+    void testRejectsBadSpecs() {
+        assertThrows(IllegalArgumentException.class, () -> ComponentSizes.parse("zipf:2"));
+        assertThrows(IllegalArgumentException.class, () -> ComponentSizes.parse("fixed:0"));
+        assertThrows(IllegalArgumentException.class, () -> GraphGenerator.forName("tree", 10, 1, 1, null));
+    }
+}
@@ -0,0 +1,121 @@
+package graph;
+
+import metrics.PerformanceTracker;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import scc.KosarajuAlgorithm;
+import scc.SccResult;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryGraphFormatTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRoundTripThroughMappedFile() throws IOException {
+        CsrGraph g = new CsrGraph.Builder(5)
+                .addEdge(1, 0, 1)
+                .addEdge(0, 2, -3)
+                .addEdge(2, 1, 4)
+                .addEdge(0, 3, 1)
+                .addEdge(3, 4, 9)
+                .build();
+        File file = tempDir.resolve("g.bin").toFile();
+        BinaryGraphFormat.write(g, file);
+
+        MappedGraph mapped = BinaryGraphFormat.map(file);
+        assertEquals(g.getNumVertices(), mapped.getNumVertices());
+        assertEquals(g.getNumEdges(), mapped.getNumEdges());
+        for (int u = 0; u < g.getNumVertices(); u++) {
+            assertEquals(g.firstEdge(u), mapped.firstEdge(u));
+            assertEquals(g.endEdge(u), mapped.endEdge(u));
+        }
+        for (int e = 0; e < g.getNumEdges(); e++) {
+            assertEquals(g.target(e), mapped.target(e));
+            assertEquals(g.weight(e), mapped.weight(e));
+        }
+
+        SccResult expected = new KosarajuAlgorithm().findComponents(g, new PerformanceTracker());
+        SccResult actual = new KosarajuAlgorithm().findComponents(mapped, new PerformanceTracker());
+        assertArrayEquals(expected.getComponentOf(), actual.getComponentOf());
+    }
+
+    @Test
+    void testRejectsForeignAndTruncatedFiles() throws IOException {
+        File foreign = tempDir.resolve("foreign.bin").toFile();
+        Files.write(foreign.toPath(), "{\"vertices\": 1, \"edges\": []}".getBytes("UTF-8"));
+        assertThrows(IOException.class, () -> BinaryGraphFormat.map(foreign));
+
+        File full = tempDir.resolve("full.bin").toFile();
+        BinaryGraphFormat.write(new CsrGraph.Builder(3).addEdge(0, 1, 1).addEdge(1, 2, 1).build(), full);
+        File truncated = tempDir.resolve("truncated.bin").toFile();
+        byte[] bytes = Files.readAllBytes(full.toPath());
+        Files.write(truncated.toPath(), java.util.Arrays.copyOf(bytes, bytes.length - 4));
+        assertThrows(IOException.class, () -> BinaryGraphFormat.map(truncated));
+
+        File padded = tempDir.resolve("padded.bin").toFile();
+        Files.write(padded.toPath(), java.util.Arrays.copyOf(bytes, bytes.length + 4));
+        assertThrows(IOException.class, () -> BinaryGraphFormat.map(padded));
+    }
+
+    @Test
+    void testRejectsNegativeCountsWithFileName() throws IOException {
+        File full = tempDir.resolve("full.bin").toFile();
+        BinaryGraphFormat.write(new CsrGraph.Builder(3).addEdge(0, 1, 1).addEdge(1, 2, 1).build(), full);
+        byte[] bytes = Files.readAllBytes(full.toPath());
+        for (int field : new int[]{8, 12}) {
+            byte[] corrupt = bytes.clone();
+            ByteBuffer.wrap(corrupt).order(ByteOrder.LITTLE_ENDIAN).putInt(field, -5);
+            File file = tempDir.resolve("corrupt" + field + ".bin").toFile();
+            Files.write(file.toPath(), corrupt);
+            IOException mapped = assertThrows(IOException.class, () -> BinaryGraphFormat.map(file));
+            assertTrue(mapped.getMessage().contains(file.getName()), mapped.getMessage());
+            IOException offHeap = assertThrows(IOException.class, () -> BinaryGraphFormat.readOffHeap(file));
+            assertTrue(offHeap.getMessage().contains(file.getName()), offHeap.getMessage());
+        }
+    }
+
+    @Test
+    void testValidationCatchesCorruptBody() throws IOException {
+        File full = tempDir.resolve("full.bin").toFile();
+        BinaryGraphFormat.write(new CsrGraph.Builder(3).addEdge(0, 1, 1).addEdge(1, 2, 1).build(), full);
+        assertEquals(2, BinaryGraphFormat.map(full, true).getNumEdges());
+
+        byte[] bytes = Files.readAllBytes(full.toPath());
+        int targetsAt = BinaryGraphFormat.HEADER_BYTES + 4 * 4;
+        byte[] badTarget = bytes.clone();
+        ByteBuffer.wrap(badTarget).order(ByteOrder.LITTLE_ENDIAN).putInt(targetsAt, 7);
+        File target = tempDir.resolve("target.bin").toFile();
+        Files.write(target.toPath(), badTarget);
+        BinaryGraphFormat.map(target);
+        IOException e = assertThrows(IOException.class, () -> BinaryGraphFormat.map(target, true));
+        assertTrue(e.getMessage().contains(target.getName()), e.getMessage());
+
+        byte[] badOffset = bytes.clone();
+        ByteBuffer.wrap(badOffset).order(ByteOrder.LITTLE_ENDIAN).putInt(BinaryGraphFormat.HEADER_BYTES + 4, 5);
+        File offset = tempDir.resolve("offset.bin").toFile();
+        Files.write(offset.toPath(), badOffset);
+        assertThrows(IOException.class, () -> BinaryGraphFormat.map(offset, true));
+    }
+
+    @Test
+    void testWriterRejectsNegativeSource() throws IOException {
+        File file = tempDir.resolve("negative.bin").toFile();
+        try (BinaryGraphWriter writer = new BinaryGraphWriter(file, 3)) {
+            assertThrows(IllegalArgumentException.class, () -> writer.addEdge(-1, 1, 1));
+            writer.addEdge(0, 1, 1);
+            assertThrows(IllegalArgumentException.class, () -> writer.addEdge(-1, 2, 1));
+            writer.addEdge(1, 2, 1);
+        }
+        MappedGraph graph = BinaryGraphFormat.map(file, true);
+        assertEquals(0, graph.firstEdge(0));
+        assertEquals(2, graph.getNumEdges());
+    }
+}
@@ -0,0 +1,130 @@
+package graph;
+
+import dagsp.DagShortestPath;
+import dagsp.PathResult;
+import gen.ComponentSizes;
+import gen.GraphGenerator;
+import metrics.PerformanceTracker;
+import org.junit.jupiter.api.Test;
+import scc.KosarajuAlgorithm;
+import scc.SccResult;
+import scc.TarjanAlgorithm;
+import topo.KahnsAlgorithm;
+import topo.TopologicalOrder;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedGraphTest {
+
+    @Test
+    void testRoundTripSortsEachList() {
+        CsrGraph graph = new CsrGraph.Builder(4).addEdge(0, 3, 7).addEdge(0, 1, -5).addEdge(0, 3, 2)
+                .addEdge(2, 0, 1000000).addEdge(3, 2, Integer.MIN_VALUE).build();
+        CompressedGraph compressed = CompressedGraph.of(graph);
+        assertFalse(compressed.hasUniformWeights());
+        assertEquals(5, compressed.getNumEdges());
+
+        CsrGraph decoded = compressed.toCsr();
+        int[][] expected = {{1, -5}, {3, 2}, {3, 7}, {0, 1000000}, {2, Integer.MIN_VALUE}};
+        assertEquals(3, decoded.endEdge(0) - decoded.firstEdge(0));
+        assertEquals(0, decoded.endEdge(1) - decoded.firstEdge(1));
+        for (int e = 0; e < expected.length; e++) {
+            assertEquals(expected[e][0], decoded.target(e));
+            assertEquals(expected[e][1], decoded.weight(e));
+        }
+    }
+
+    @Test
+    void testUniformWeightsStoreNoStream() {
+        CsrGraph graph = GraphGenerator.layered(5000, 4, 20, 3).toCsr();
+        CsrGraph.Builder builder = new CsrGraph.Builder(graph.getNumVertices());
+        for (int u = 0; u < graph.getNumVertices(); u++) {
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                builder.addEdge(u, graph.target(e), 3);
+            }
+        }
+        CompressedGraph compressed = CompressedGraph.of(builder.build());
+        assertTrue(compressed.hasUniformWeights());
+        assertEquals(0, compressed.weightBitsPerEdge());
+        assertEquals(compressed.targetBitsPerEdge() + 32.0 * (graph.getNumVertices() + 1) / graph.getNumEdges(),
+                compressed.bitsPerEdge(), 1e-9);
+        assertTrue(compressed.bitsPerEdge() < 32 + 32.0 * graph.getNumVertices() / graph.getNumEdges());
+        CompressedGraph.Decoder edges = compressed.edgeCursor().reset(0);
+        while (edges.hasNext()) {
+            edges.nextTarget();
+            assertEquals(3, edges.weight());
+        }
+    }
+
+    @Test
+    void testKosarajuMatchesCsr() {
+        CsrGraph graph = GraphGenerator.cyclic(4000, 3, ComponentSizes.parse("uniform:25"), 11).toCsr();
+        SccResult expected = new KosarajuAlgorithm().findComponents(graph, PerformanceTracker.disabled());
+        PerformanceTracker tracker = new PerformanceTracker();
+        SccResult actual = new KosarajuAlgorithm().findComponents(CompressedGraph.of(graph), tracker);
+        assertEquals(expected.getNumComponents(), actual.getNumComponents());
+        assertTrue(expected.samePartitionAs(actual));
+        assertEquals(2L * graph.getNumVertices(), (long) tracker.getOperations().get("dfs_visits"));
+
+        SccResult tarjan = new TarjanAlgorithm().findComponents(CompressedGraph.of(graph), PerformanceTracker.disabled());
+        assertTrue(expected.samePartitionAs(tarjan));
+    }
+
+    @Test
+    void testCursorsResumeWhereTheyStopped() {
+        CsrGraph graph = new CsrGraph.Builder(3).addEdge(0, 2, 5).addEdge(0, 1, 6).addEdge(0, 0, 7).addEdge(1, 2, 8).build();
+        for (SequentialGraph view : new SequentialGraph[]{graph, CompressedGraph.of(graph)}) {
+            EdgeCursor edges = view.edgeCursor().reset(0);
+            int first = edges.nextTarget();
+            long parked = edges.position();
+            edges.reset(1);
+            assertEquals(2, edges.nextTarget());
+            assertFalse(edges.hasNext());
+            edges.resume(0, parked);
+            int second = edges.nextTarget();
+            int third = edges.nextTarget();
+            assertFalse(edges.hasNext());
+            assertEquals(3, first + second + third);
+            assertNotEquals(first, second);
+        }
+    }
+
+    @Test
+    void testTransposeStructure() {
+        CsrGraph graph = GraphGenerator.dag(800, 4, 5).toCsr();
+        CompactGraph expected = graph.transposeStructure();
+        CsrGraph transposed = CompressedGraph.of(graph).transposeStructure().toCsr();
+        for (int v = 0; v < graph.getNumVertices(); v++) {
+            assertEquals(expected.endEdge(v) - expected.firstEdge(v), transposed.endEdge(v) - transposed.firstEdge(v));
+            for (int e = transposed.firstEdge(v) + 1; e < transposed.endEdge(v); e++) {
+                assertTrue(transposed.target(e - 1) <= transposed.target(e));
+            }
+        }
+    }
+
+    @Test
+    void testKahnAndPathsMatchDecodedCsr() {
+        CompressedGraph dag = CompressedGraph.of(GraphGenerator.dag(3000, 4, 7).toCsr());
+        CsrGraph csr = dag.toCsr();
+        TopologicalOrder expected = new KahnsAlgorithm().sort(csr, PerformanceTracker.disabled());
+        TopologicalOrder order = new KahnsAlgorithm().sort(dag, PerformanceTracker.disabled());
+        assertTrue(order.isAcyclic());
+        assertArrayEquals(expected.getOrder(), order.getOrder());
+        assertEquals(expected.getSourceCount(), order.getSourceCount());
+
+        DagShortestPath paths = new DagShortestPath();
+        PathResult shortest = paths.shortestPaths(dag, order, order.getOrder()[0], PerformanceTracker.disabled());
+        PathResult longest = paths.longestPaths(dag, order, PerformanceTracker.disabled());
+        assertArrayEquals(paths.shortestPaths(csr, expected, order.getOrder()[0], PerformanceTracker.disabled()).getDistances(),
+                shortest.getDistances());
+        assertArrayEquals(paths.longestPaths(csr, expected, PerformanceTracker.disabled()).getDistances(),
+                longest.getDistances());
+    }
+
+    @Test
+    void testEmptyGraph() {
+        CompressedGraph empty = CompressedGraph.of(new CsrGraph.Builder(0).build());
+        assertEquals(0, empty.bitsPerEdge());
+        assertEquals(0, new KosarajuAlgorithm().findComponents(empty, PerformanceTracker.disabled()).getNumComponents());
+        assertEquals(0, empty.toCsr().getNumVertices());
+    }
+}
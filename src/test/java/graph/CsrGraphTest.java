@@ -0,0 +1,65 @@
+package graph;
+
+import metrics.PerformanceTracker;
+import org.junit.jupiter.api.Test;
+import scc.KosarajuAlgorithm;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsrGraphTest {
+
+    @Test
+    void testBuilderKeepsInsertionOrderPerVertex() {
+        CsrGraph g = new CsrGraph.Builder(4)
+                .addEdge(2, 3, 7)
+                .addEdge(0, 2, 1)
+                .addEdge(0, 1, 4)
+                .addEdge(2, 0, 5)
+                .build();
+
+        assertEquals(4, g.getNumEdges());
+        assertArrayEquals(new int[]{0, 2, 2, 4, 4}, g.offsets());
+        assertArrayEquals(new int[]{2, 1, 3, 0}, g.targets());
+        assertArrayEquals(new int[]{1, 4, 7, 5}, g.weights());
+    }
+
+    @Test
+    void testFromDirectedGraphAndTranspose() {
+        DirectedGraph dg = new DirectedGraph(3);
+        dg.addEdge(0, 1, 2);
+        dg.addEdge(0, 2, 3);
+        dg.addEdge(1, 2, 4);
+
+        CsrGraph g = dg.toCsr();
+        for (int u = 0; u < 3; u++) {
+            assertEquals(dg.getAdj(u).size(), g.outDegree(u));
+            int e = g.firstEdge(u);
+            for (int[] edge : dg.getAdj(u)) {
+                assertEquals(edge[0], g.target(e));
+                assertEquals(edge[1], g.weight(e));
+                e++;
+            }
+        }
+
+        CsrGraph t = g.getTranspose();
+        assertEquals(0, t.outDegree(0));
+        assertEquals(1, t.outDegree(1));
+        assertEquals(2, t.outDegree(2));
+        assertEquals(0, t.target(t.firstEdge(2)));
+        assertEquals(3, t.weight(t.firstEdge(2)));
+        assertEquals(1, t.target(t.firstEdge(2) + 1));
+    }
+
+    @Test
+    void testAlgorithmsAgreeOnCsrAndListGraph() {
+        DirectedGraph dg = new DirectedGraph(5);
+        dg.addEdge(1, 0, 1);
+        dg.addEdge(0, 2, 1);
+        dg.addEdge(2, 1, 1);
+        dg.addEdge(0, 3, 1);
+        dg.addEdge(3, 4, 1);
+
+        KosarajuAlgorithm kosaraju = new KosarajuAlgorithm();
+        assertEquals(kosaraju.findSCCs(dg, new PerformanceTracker()),
+                kosaraju.findSCCs(dg.toCsr(), new PerformanceTracker()));
+    }
+}
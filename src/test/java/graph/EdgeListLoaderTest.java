@@ -0,0 +1,101 @@
+package graph;
+
+import metrics.PerformanceTracker;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EdgeListLoaderTest {
+
+    @TempDir
+    File dir;
+
+    @Test
+    void testLoadsEdgesInFileOrder() throws IOException {
+        File file = write("edges.txt", "# comment\n0 1 5\n2\t3  7\r\n\n% other comment\n0 2 3 extra\n1 0\n");
+        CsrGraph g = new EdgeListLoader().load(file, PerformanceTracker.disabled());
+
+        assertEquals(4, g.getNumVertices());
+        assertEquals(4, g.getNumEdges());
+        assertArrayEquals(new int[]{0, 2, 3, 4, 4}, g.offsets());
+        assertArrayEquals(new int[]{1, 2, 0, 3}, g.targets());
+        assertArrayEquals(new int[]{5, 3, 1, 7}, g.weights());
+    }
+
+    @Test
+    void testChunkedParallelLoadMatchesBuilder() throws IOException {
+        SplittableRandom random = new SplittableRandom(11);
+        int V = 20_000;
+        CsrGraph.Builder builder = new CsrGraph.Builder(V);
+        File file = new File(dir, "large.edges");
+        try (Writer out = new BufferedWriter(new FileWriter(file))) {
+            for (int i = 0; i < 300_000; i++) {
+                int u = random.nextInt(V);
+                int v = i == 0 ? V - 1 : random.nextInt(V);
+                int w = random.nextInt(-50, 1000);
+                builder.addEdge(u, v, w);
+                out.write(u + " " + v + " " + w + "\n");
+            }
+        }
+        CsrGraph expected = builder.build();
+
+        PerformanceTracker tracker = new PerformanceTracker();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            CsrGraph parallel = new EdgeListLoader().parallel(pool).load(file, tracker);
+            assertArrayEquals(expected.offsets(), parallel.offsets());
+            assertArrayEquals(expected.targets(), parallel.targets());
+            assertArrayEquals(expected.weights(), parallel.weights());
+        } finally {
+            pool.shutdown();
+        }
+        assertTrue(tracker.getOperations().get("chunks") > 1);
+        assertEquals(300_000L, tracker.getOperations().get("edges_read"));
+        assertEquals(file.length(), tracker.getOperations().get("bytes_read"));
+
+        CsrGraph sequential = new EdgeListLoader().parallel(null).load(file, PerformanceTracker.disabled());
+        assertArrayEquals(expected.targets(), sequential.targets());
+    }
+
+    @Test
+    void testEmptyFileAndMissingTrailingNewline() throws IOException {
+        assertEquals(0, new EdgeListLoader().load(write("empty.txt", ""), PerformanceTracker.disabled()).getNumVertices());
+        CsrGraph g = new EdgeListLoader().load(write("last.txt", "0 1 2\n1 2 -4"), PerformanceTracker.disabled());
+        assertEquals(3, g.getNumVertices());
+        assertEquals(-4, g.weight(g.firstEdge(1)));
+    }
+
+    @Test
+    void testRejectsMalformedLines() throws IOException {
+        EdgeListLoader loader = new EdgeListLoader();
+        File letters = write("letters.txt", "0 1 1\n0 x 1\n");
+        IOException e = assertThrows(IOException.class, () -> loader.load(letters, PerformanceTracker.disabled()));
+        assertTrue(e.getMessage().contains("byte 6"));
+        assertThrows(IOException.class, () -> loader.load(write("single.txt", "4\n"), PerformanceTracker.disabled()));
+        assertThrows(IOException.class, () -> loader.load(write("negative.txt", "-1 2 3\n"), PerformanceTracker.disabled()));
+        assertThrows(IOException.class, () -> loader.load(write("huge.txt", "0 1 99999999999\n"), PerformanceTracker.disabled()));
+    }
+
+    @Test
+    void testRecognisesEdgeListNames() {
+        assertTrue(EdgeListLoader.isEdgeList(new File("web.TXT")));
+        assertTrue(EdgeListLoader.isEdgeList(new File("a.edges")));
+        assertFalse(EdgeListLoader.isEdgeList(new File("a.json")));
+    }
+
+    private File write(String name, String content) throws IOException {
+        File file = new File(dir, name);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.US_ASCII));
+        return file;
+    }
+}
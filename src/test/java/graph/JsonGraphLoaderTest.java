@@ -0,0 +1,37 @@
+package graph;
+
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.io.StringReader;
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonGraphLoaderTest {
+
+    @Test
+    void testLoadsEdgesInFileOrder() throws IOException {
+        CsrGraph g = new JsonGraphLoader().load(new StringReader(
+                "{ \"vertices\": 4, \"edges\": [ [0,1,5], [2,3,7], [0,2,3] ] }"));
+
+        assertEquals(4, g.getNumVertices());
+        assertEquals(3, g.getNumEdges());
+        assertArrayEquals(new int[]{0, 2, 2, 3, 3}, g.offsets());
+        assertArrayEquals(new int[]{1, 2, 3}, g.targets());
+        assertArrayEquals(new int[]{5, 3, 7}, g.weights());
+    }
+
+    @Test
+    void testEdgesBeforeVerticesAndUnknownFields() throws IOException {
+        CsrGraph g = new JsonGraphLoader().load(new StringReader(
+                "{ \"edges\": [[1,0,2]], \"name\": {\"x\": [1,2]}, \"vertices\": 2 }"));
+
+        assertEquals(2, g.getNumVertices());
+        assertEquals(0, g.target(g.firstEdge(1)));
+        assertEquals(2, g.weight(g.firstEdge(1)));
+    }
+
+    @Test
+    void testRejectsOutOfRangeEdge() {
+        assertThrows(IOException.class, () -> new JsonGraphLoader().load(new StringReader(
+                "{ \"vertices\": 2, \"edges\": [[0,5,1]] }")));
+    }
+}
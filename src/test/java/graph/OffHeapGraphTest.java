@@ -0,0 +1,91 @@
+package graph;
+
+import metrics.PerformanceTracker;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import scc.KosarajuAlgorithm;
+import scc.SccResult;
+import scc.TarjanAlgorithm;
+import topo.KahnsAlgorithm;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapGraphTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static void assertSameGraph(CompactGraph expected, CompactGraph actual) {
+        assertEquals(expected.getNumVertices(), actual.getNumVertices());
+        assertEquals(expected.getNumEdges(), actual.getNumEdges());
+        for (int u = 0; u < expected.getNumVertices(); u++) {
+            assertEquals(expected.firstEdge(u), actual.firstEdge(u));
+            assertEquals(expected.endEdge(u), actual.endEdge(u));
+        }
+        for (int e = 0; e < expected.getNumEdges(); e++) {
+            assertEquals(expected.target(e), actual.target(e));
+            assertEquals(expected.weight(e), actual.weight(e));
+        }
+    }
+
+    @Test
+    void testBuilderMatchesCsrAcrossSegments() {
+        Random random = new Random(9);
+        int V = 200;
+        CsrGraph.Builder csr = new CsrGraph.Builder(V);
+        // Eight-int segments, so every column spans many of them.
+        OffHeapGraph.Builder offHeap = new OffHeapGraph.Builder(V, 3);
+        for (int i = 0; i < 1000; i++) {
+            int u = random.nextInt(V);
+            int v = random.nextInt(V);
+            int w = random.nextInt(100) - 50;
+            csr.addEdge(u, v, w);
+            offHeap.addEdge(u, v, w);
+        }
+        CsrGraph expected = csr.build();
+        try (OffHeapGraph graph = offHeap.build()) {
+            assertSameGraph(expected, graph);
+
+            SccResult onHeap = new TarjanAlgorithm().findComponents(expected, new PerformanceTracker());
+            SccResult offHeapSccs = new TarjanAlgorithm().findComponents(graph, new PerformanceTracker());
+            assertTrue(onHeap.samePartitionAs(offHeapSccs));
+            assertTrue(onHeap.samePartitionAs(new KosarajuAlgorithm().findComponents(graph, new PerformanceTracker())));
+            try (OffHeapGraph transposed = graph.transpose()) {
+                assertSameGraph(expected.getTranspose(), transposed);
+            }
+            assertArrayEquals(new KahnsAlgorithm().sort(expected, new PerformanceTracker()).getOrder(),
+                    new KahnsAlgorithm().sort(graph, new PerformanceTracker()).getOrder());
+        }
+    }
+
+    @Test
+    void testCopyAndReadFromFile() throws IOException {
+        CsrGraph g = new CsrGraph.Builder(4)
+                .addEdge(2, 0, 7)
+                .addEdge(0, 1, -1)
+                .addEdge(1, 3, 2)
+                .addEdge(0, 3, 5)
+                .build();
+        try (OffHeapGraph copy = OffHeapGraph.copyOf(g, 2)) {
+            assertSameGraph(g, copy);
+        }
+
+        File file = tempDir.resolve("g.bin").toFile();
+        BinaryGraphFormat.write(g, file);
+        OffHeapGraph read = BinaryGraphFormat.readOffHeap(file);
+        assertSameGraph(g, read);
+        assertTrue(read.getSizeBytes() >= 4L * (5 + 2 * 4));
+        read.close();
+        assertEquals(0, read.getSizeBytes());
+    }
+
+    @Test
+    void testRejectsOutOfRangeEdge() {
+        OffHeapGraph.Builder builder = new OffHeapGraph.Builder(2);
+        assertThrows(IndexOutOfBoundsException.class, () -> builder.addEdge(0, 2, 1));
+        assertEquals(0, builder.build().getNumEdges());
+    }
+}
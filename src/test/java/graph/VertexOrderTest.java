@@ -0,0 +1,90 @@
+package graph;
+
+import gen.ComponentSizes;
+import gen.GraphGenerator;
+import org.junit.jupiter.api.Test;
+import pipeline.Pipeline;
+import pipeline.PipelineResult;
+import static org.junit.jupiter.api.Assertions.*;
+
+class VertexOrderTest {
+
+    @Test
+    void testEveryOrderRelabelsConsistently() {
+        CsrGraph graph = GraphGenerator.cyclic(2000, 3, ComponentSizes.parse("uniform:10"), 5).toCsr();
+        for (VertexOrder order : VertexOrder.values()) {
+            Permutation permutation = order.permutation(graph);
+            CsrGraph relabelled = permutation.apply(graph);
+            assertEquals(graph.getNumEdges(), relabelled.getNumEdges(), order.name());
+            for (int u = 0; u < graph.getNumVertices(); u++) {
+                int nu = permutation.newId(u);
+                assertEquals(u, permutation.oldId(nu));
+                assertEquals(graph.endEdge(u) - graph.firstEdge(u), relabelled.endEdge(nu) - relabelled.firstEdge(nu));
+                for (int i = 0; i < graph.endEdge(u) - graph.firstEdge(u); i++) {
+                    assertEquals(permutation.newId(graph.target(graph.firstEdge(u) + i)), relabelled.target(relabelled.firstEdge(nu) + i));
+                    assertEquals(graph.weight(graph.firstEdge(u) + i), relabelled.weight(relabelled.firstEdge(nu) + i));
+                }
+            }
+        }
+        assertTrue(VertexOrder.NONE.permutation(graph).isIdentity());
+    }
+
+    @Test
+    void testSmallOrders() {
+        // Vertex 1 has degree 3; 0, 2 and 3 tie at 2 and keep their id order.
+        CsrGraph graph = new CsrGraph.Builder(5).addEdge(0, 2, 1).addEdge(0, 3, 1).addEdge(2, 1, 1)
+                .addEdge(3, 1, 1).addEdge(4, 1, 1).build();
+        assertOrder(new int[]{0, 2, 3, 1, 4}, VertexOrder.BFS.permutation(graph));
+        assertOrder(new int[]{0, 2, 1, 3, 4}, VertexOrder.DFS.permutation(graph));
+        assertOrder(new int[]{1, 0, 2, 3, 4}, VertexOrder.DEGREE.permutation(graph));
+    }
+
+    @Test
+    void testRcmNarrowsBandwidthOfShuffledPath() {
+        int V = 500;
+        int[] shuffle = new int[V];
+        for (int v = 0; v < V; v++) {
+            shuffle[v] = (int) ((v * 7919L) % V);
+        }
+        CsrGraph.Builder builder = new CsrGraph.Builder(V);
+        for (int i = 0; i + 1 < V; i++) {
+            builder.addEdge(shuffle[i], shuffle[i + 1], 1);
+        }
+        CsrGraph path = builder.build();
+        assertTrue(bandwidth(path) > 100);
+        assertEquals(1, bandwidth(VertexOrder.RCM.permutation(path).apply(path)));
+    }
+
+    @Test
+    void testPipelineMapsResultsBack() {
+        CsrGraph graph = GraphGenerator.cyclic(3000, 3, ComponentSizes.parse("uniform:20"), 9).toCsr();
+        PipelineResult plain = new Pipeline().run(graph);
+        for (VertexOrder order : new VertexOrder[]{VertexOrder.BFS, VertexOrder.DFS, VertexOrder.DEGREE, VertexOrder.RCM}) {
+            PipelineResult reordered = new Pipeline().vertexOrder(order).run(graph);
+            assertTrue(plain.getComponents().samePartitionAs(reordered.getComponents()), order.name());
+            assertEquals(plain.getCriticalPathLength(), reordered.getCriticalPathLength());
+            assertEquals(plain.getOrder().getDepth(), reordered.getOrder().getDepth());
+            for (int v = 0; v < graph.getNumVertices(); v++) {
+                assertEquals(plain.getSchedule().getSlack(v), reordered.getSchedule().getSlack(v));
+            }
+            assertEquals(graph.getNumEdges(), reordered.getStageOperation(Pipeline.REORDER, "relabelled_edges"));
+        }
+        assertNull(plain.getStage(Pipeline.REORDER));
+    }
+
+    private static void assertOrder(int[] expected, Permutation permutation) {
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], permutation.oldId(i), "position " + i);
+        }
+    }
+
+    private static int bandwidth(CompactGraph graph) {
+        int width = 0;
+        for (int u = 0; u < graph.getNumVertices(); u++) {
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                width = Math.max(width, Math.abs(u - graph.target(e)));
+            }
+        }
+        return width;
+    }
+}
@@ -0,0 +1,116 @@
+package graph;
+
+import gen.ComponentSizes;
+import gen.GraphGenerator;
+import metrics.PerformanceTracker;
+import org.junit.jupiter.api.Test;
+import pipeline.Pipeline;
+import pipeline.PipelineResult;
+import scc.KosarajuAlgorithm;
+import scc.PathBasedSccAlgorithm;
+import scc.SccAlgorithm;
+import scc.TarjanAlgorithm;
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkspaceTest {
+
+    @Test
+    void testReusesArraysAfterRelease() {
+        Workspace workspace = new Workspace();
+        long mark = workspace.mark();
+        int[] first = workspace.ints(100);
+        long[] second = workspace.longs(10);
+        workspace.release(mark);
+
+        assertSame(first, workspace.ints(50));
+        assertSame(second, workspace.longs(10));
+        assertEquals(2, workspace.getCreatedArrays());
+        assertEquals(2, workspace.getReusedArrays());
+
+        workspace.release(mark);
+        int[] grown = workspace.ints(1000);
+        assertNotSame(first, grown);
+        assertTrue(grown.length >= 1000);
+        workspace.release(mark);
+        assertSame(grown, workspace.ints(1000));
+    }
+
+    @Test
+    void testTypesHaveSeparateStacks() {
+        Workspace workspace = new Workspace();
+        boolean[] flags = workspace.clearedBooleans(10);
+        workspace.release(0);
+        int[] ints = workspace.ints(10);
+        boolean[] again = workspace.clearedBooleans(10);
+        assertSame(flags, again);
+        workspace.release(0);
+        assertSame(ints, workspace.ints(10));
+        assertEquals(2, workspace.getCreatedArrays());
+    }
+
+    @Test
+    void testZeroedAndClearedContents() {
+        Workspace workspace = new Workspace();
+        int[] ints = workspace.ints(8);
+        boolean[] flags = workspace.clearedBooleans(8);
+        ints[3] = 7;
+        flags[5] = true;
+        workspace.release(0);
+
+        int[] zeroed = workspace.zeroedInts(8);
+        boolean[] cleared = workspace.clearedBooleans(8);
+        assertSame(ints, zeroed);
+        assertSame(flags, cleared);
+        assertEquals(0, zeroed[3]);
+        assertFalse(cleared[5]);
+    }
+
+    @Test
+    void testLargeArraysAreNotRetained() {
+        Workspace workspace = new Workspace();
+        int[] large = workspace.ints(Workspace.MAX_RETAINED_LENGTH + 1);
+        assertEquals(Workspace.MAX_RETAINED_LENGTH + 1, large.length);
+        workspace.release(0);
+        assertNotSame(large, workspace.ints(Workspace.MAX_RETAINED_LENGTH + 1));
+        long mark = workspace.mark();
+        workspace.release(0);
+        assertThrows(IllegalStateException.class, () -> workspace.release(mark));
+    }
+
+    @Test
+    void testRepeatedRunsGiveSameResults() {
+        CsrGraph large = GraphGenerator.cyclic(400, 3, ComponentSizes.parse("uniform:8"), 1).toCsr();
+        CsrGraph small = GraphGenerator.cyclic(40, 2, ComponentSizes.parse("uniform:4"), 2).toCsr();
+        for (SccAlgorithm algorithm : new SccAlgorithm[]{new KosarajuAlgorithm(), new TarjanAlgorithm(), new PathBasedSccAlgorithm()}) {
+            int[] expectedLarge = algorithm.findComponents(large, PerformanceTracker.disabled()).getComponentOf();
+            int[] expectedSmall = algorithm.findComponents(small, PerformanceTracker.disabled()).getComponentOf();
+            for (int i = 0; i < 3; i++) {
+                // Alternating sizes leaves stale contents beyond the small graph in every array.
+                assertArrayEquals(expectedLarge, algorithm.findComponents(large, PerformanceTracker.disabled()).getComponentOf());
+                assertArrayEquals(expectedSmall, algorithm.findComponents(small, PerformanceTracker.disabled()).getComponentOf());
+            }
+        }
+
+        Pipeline pipeline = new Pipeline();
+        PipelineResult first = pipeline.run(large);
+        pipeline.run(small);
+        PipelineResult again = pipeline.run(large);
+        assertArrayEquals(first.getCondensation().targets(), again.getCondensation().targets());
+        assertArrayEquals(first.getOrder().getOrder(), again.getOrder().getOrder());
+        assertEquals(first.getCriticalPathLength(), again.getCriticalPathLength());
+    }
+
+    @Test
+    void testSteadyStateCreatesNoScratch() {
+        CsrGraph graph = GraphGenerator.cyclic(300, 3, ComponentSizes.parse("uniform:10"), 3).toCsr();
+        Pipeline pipeline = new Pipeline();
+        pipeline.run(graph);
+        Workspace workspace = Workspace.get();
+        long created = workspace.getCreatedArrays();
+        for (int i = 0; i < 10; i++) {
+            pipeline.run(graph);
+        }
+        assertEquals(created, workspace.getCreatedArrays());
+        assertEquals(0, workspace.mark());
+    }
+}
@@ -0,0 +1,63 @@
+package metrics;
+
+import org.junit.jupiter.api.Test;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerformanceTrackerTest {
+
+    @Test
+    void testCountersAreResetOnStartAndKeepRegistrationOrder() {
+        PerformanceTracker tracker = new PerformanceTracker();
+        tracker.start();
+        Counter pushes = tracker.counter("queue_pushes");
+        Counter pops = tracker.counter("queue_pops");
+        pushes.add(3);
+        pops.increment();
+        tracker.incrementOperation("queue_pushes");
+        tracker.stop();
+
+        Map<String, Long> operations = tracker.getOperations();
+        assertArrayEquals(new Object[]{"queue_pushes", "queue_pops"}, operations.keySet().toArray());
+        assertEquals(4L, operations.get("queue_pushes"));
+        assertEquals(1L, operations.get("queue_pops"));
+        assertSame(pushes, tracker.counter("queue_pushes"));
+
+        tracker.start();
+        assertEquals(0L, pushes.get());
+    }
+
+    @Test
+    void testConcurrentCounterSumsAcrossThreads() throws InterruptedException {
+        PerformanceTracker tracker = new PerformanceTracker();
+        tracker.start();
+        Counter visits = tracker.concurrentCounter("visits");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    visits.increment();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(40_000L, tracker.getOperations().get("visits"));
+    }
+
+    @Test
+    void testDisabledTrackerRecordsNothing() {
+        PerformanceTracker tracker = PerformanceTracker.disabled();
+        tracker.start();
+        tracker.counter("dfs_visits").add(10);
+        tracker.incrementOperation("dfs_visits");
+        tracker.stop();
+
+        assertFalse(tracker.isEnabled());
+        assertEquals(0, tracker.getExecutionTimeNanos());
+        assertTrue(tracker.getOperations().isEmpty());
+    }
+}
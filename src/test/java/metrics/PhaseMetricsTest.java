@@ -0,0 +1,72 @@
+package metrics;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PhaseMetricsTest {
+
+    @Test
+    void testHistogramPercentilesWithinBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 100_000; v++) {
+            histogram.record(v * 1000);
+        }
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(100_000_000L, histogram.getMax());
+        assertEquals(50_000_500.0, histogram.getMean(), 1e-6);
+        assertEquals(50_000_000, histogram.getPercentile(0.5), 50_000_000 * 0.04);
+        assertEquals(99_000_000, histogram.getPercentile(0.99), 99_000_000 * 0.04);
+        assertEquals(0, new LatencyHistogram().getPercentile(0.5));
+    }
+
+    @Test
+    void testBucketBoundsAreContiguous() {
+        for (int i = 0; i + 1 < 60 * 16; i++) {
+            assertEquals(i, LatencyHistogram.indexOf(LatencyHistogram.lowerBound(i)));
+            assertEquals(i, LatencyHistogram.indexOf(LatencyHistogram.lowerBound(i + 1) - 1));
+        }
+        assertEquals(60 * 16 - 1, LatencyHistogram.indexOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    void testTrackerRecordsRunsAndSubPhases() {
+        PhaseMetrics metrics = new PhaseMetrics();
+        for (int run = 0; run < 3; run++) {
+            PerformanceTracker tracker = new PerformanceTracker("scc", metrics);
+            tracker.start();
+            long begin = tracker.beginPhase();
+            long[] garbage = new long[1 << 16];
+            tracker.endPhase("transpose", begin);
+            tracker.counter("dfs_visits").add(garbage.length);
+            tracker.stop();
+            assertTrue(tracker.getAllocatedBytes() == -1 || tracker.getAllocatedBytes() >= 8L << 16);
+        }
+
+        assertEquals(3, metrics.phase("scc").getLatency().getCount());
+        assertEquals(3, metrics.phase("scc/transpose").getLatency().getCount());
+        assertEquals(3L << 16, metrics.phase("scc").getOperations().get("dfs_visits"));
+        assertFalse(metrics.phase("scc").getOperations().containsKey("transpose_ns"));
+
+        String prometheus = metrics.toPrometheus();
+        assertTrue(prometheus.contains("# TYPE graph_phase_seconds summary"));
+        assertTrue(prometheus.contains("graph_phase_seconds{phase=\"scc/transpose\",quantile=\"0.99\"}"));
+        assertTrue(prometheus.contains("graph_phase_seconds_count{phase=\"scc\"} 3"));
+        assertTrue(prometheus.contains("graph_phase_operations_total{phase=\"scc\",operation=\"dfs_visits\"} 196608"));
+
+        JsonObject json = new JsonParser().parse(metrics.toJson()).getAsJsonObject();
+        JsonObject scc = json.getAsJsonObject("scc");
+        assertEquals(3, scc.get("runs").getAsLong());
+        assertTrue(scc.getAsJsonObject("latency_ns").has("p99"));
+    }
+
+    @Test
+    void testUntrackedPhaseLeavesMetricsEmpty() {
+        PerformanceTracker tracker = new PerformanceTracker();
+        tracker.start();
+        tracker.stop();
+        assertNull(tracker.getPhase());
+        assertEquals(-1, tracker.getAllocatedBytes());
+    }
+}
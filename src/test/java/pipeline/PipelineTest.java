@@ -0,0 +1,88 @@
+package pipeline;
+
+import dagsp.CriticalPathMethod;
+import dagsp.CriticalPathSchedule;
+import dagsp.DagShortestPath;
+import dagsp.PathResult;
+import gen.ComponentSizes;
+import gen.GraphGenerator;
+import graph.CsrGraph;
+import metrics.PerformanceTracker;
+import metrics.PhaseMetrics;
+import org.junit.jupiter.api.Test;
+import scc.CondensationBuilder;
+import scc.KosarajuAlgorithm;
+import scc.SccResult;
+import scc.TarjanAlgorithm;
+import topo.KahnsAlgorithm;
+import topo.TopologicalLevels;
+import topo.TopologicalOrder;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelineTest {
+
+    @Test
+    void testMatchesStageByStage() {
+        for (long seed = 1; seed <= 5; seed++) {
+            CsrGraph graph = GraphGenerator.cyclic(3000, 3, ComponentSizes.parse("uniform:20"), seed).toCsr();
+            PipelineResult run = new Pipeline().run(graph);
+
+            PerformanceTracker off = PerformanceTracker.disabled();
+            SccResult sccs = new KosarajuAlgorithm().findComponents(graph, off);
+            CsrGraph condensation = new CondensationBuilder().build(graph, sccs, off);
+            TopologicalOrder order = new KahnsAlgorithm().sort(condensation, off);
+            TopologicalLevels levels = new KahnsAlgorithm().sortByLevels(condensation, off);
+            int source = order.getOrder()[0];
+            PathResult shortest = new DagShortestPath().shortestPaths(condensation, order, source, off);
+            PathResult longest = new DagShortestPath().longestPaths(condensation, order, off);
+            CriticalPathSchedule schedule = new CriticalPathMethod().schedule(condensation, order, sccs, off);
+
+            assertArrayEquals(sccs.getComponentOf(), run.getComponents().getComponentOf());
+            assertArrayEquals(condensation.targets(), run.getCondensation().targets());
+            assertArrayEquals(condensation.weights(), run.getCondensation().weights());
+            assertArrayEquals(order.getOrder(), run.getOrder().getOrder());
+            assertEquals(order.getSourceCount(), run.getOrder().getSourceCount());
+            assertEquals(levels.getDepth(), run.getOrder().getDepth());
+            for (int level = 0; level < levels.getDepth(); level++) {
+                assertArrayEquals(levels.getLevel(level), run.getOrder().getLevel(level));
+            }
+            assertEquals(source, run.getSourceComponent());
+            assertArrayEquals(shortest.getDistances(), run.getShortestPaths().getDistances());
+            assertArrayEquals(longest.getDistances(), run.getLongestPaths().getDistances());
+            assertEquals(schedule.getProjectLength(), run.getSchedule().getProjectLength());
+            assertArrayEquals(schedule.getCriticalTasks(), run.getSchedule().getCriticalTasks());
+            for (int v = 0; v < graph.getNumVertices(); v++) {
+                assertEquals(schedule.getSlack(v), run.getSchedule().getSlack(v));
+            }
+        }
+    }
+
+    @Test
+    void testReportsEveryStage() {
+        CsrGraph graph = GraphGenerator.dag(500, 4, 7).toCsr();
+        PhaseMetrics metrics = new PhaseMetrics();
+        PipelineResult run = new Pipeline().sccAlgorithm(new TarjanAlgorithm()).phaseMetrics(metrics).run(graph);
+
+        assertArrayEquals(new Object[]{Pipeline.SCC, Pipeline.CONDENSATION, Pipeline.TOPO, Pipeline.SHORTEST_PATH,
+                Pipeline.LONGEST_PATH, Pipeline.CPM}, run.getStages().keySet().toArray());
+        assertEquals(1000, run.getStageOperation(Pipeline.TOPO, "queue_pushes") + run.getStageOperation(Pipeline.TOPO, "queue_pops"));
+        assertFalse(run.getStage(Pipeline.CPM).getOperations().containsKey("relaxations_longest"));
+        assertTrue(run.getTotalNanos() > 0);
+        assertEquals(1, metrics.phase(Pipeline.CPM).getLatency().getCount());
+
+        PipelineResult lean = new Pipeline().shortestPaths(false).schedule(false).run(graph);
+        assertNull(lean.getShortestPaths());
+        assertNull(lean.getSchedule());
+        assertEquals(-1, lean.getSourceComponent());
+        assertEquals(run.getCriticalPathLength(), lean.getCriticalPathLength());
+    }
+
+    @Test
+    void testEmptyGraph() {
+        PipelineResult run = new Pipeline().run(new CsrGraph.Builder(0).build());
+        assertTrue(run.isAcyclic());
+        assertEquals(0, run.getOrder().getDepth());
+        assertEquals(0, run.getCriticalPathLength());
+        assertEquals(0, run.getSchedule().getProjectLength());
+    }
+}
@@ -0,0 +1,90 @@
+package scc;
+
+import graph.CsrGraph;
+import metrics.PerformanceTracker;
+import org.junit.jupiter.api.Test;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CondensationBuilderTest {
+
+    @Test
+    void testMergesParallelEdgesPerPolicy() {
+        // Components {0,1}, {2}, {3}; three edges from {0,1} into {2}.
+        CsrGraph g = new CsrGraph.Builder(4)
+                .addEdge(0, 1, 1)
+                .addEdge(1, 0, 1)
+                .addEdge(0, 2, 5)
+                .addEdge(1, 2, 2)
+                .addEdge(0, 2, 9)
+                .addEdge(2, 3, 4)
+                .build();
+        SccResult sccs = new KosarajuAlgorithm().findComponents(g, new PerformanceTracker());
+        int a = sccs.getComponentOf()[0];
+        int b = sccs.getComponentOf()[2];
+
+        assertEquals(5, weight(build(g, sccs, CondensationBuilder.WeightPolicy.FIRST, null), a, b));
+        assertEquals(2, weight(build(g, sccs, CondensationBuilder.WeightPolicy.MIN, null), a, b));
+        assertEquals(9, weight(build(g, sccs, CondensationBuilder.WeightPolicy.MAX, null), a, b));
+        assertEquals(16, weight(build(g, sccs, CondensationBuilder.WeightPolicy.SUM, null), a, b));
+        assertEquals(2, build(g, sccs, CondensationBuilder.WeightPolicy.FIRST, null).getNumEdges());
+    }
+
+    @Test
+    void testParallelBuildMatchesSequentialAndReference() {
+        Random random = new Random(3);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        for (int round = 0; round < 10; round++) {
+            int V = 2000 + random.nextInt(3000);
+            CsrGraph.Builder builder = new CsrGraph.Builder(V);
+            for (int i = 0; i < V * 6; i++) {
+                int u = random.nextInt(V);
+                int v = random.nextInt(V);
+                // Mostly forward edges so the graph keeps many components.
+                builder.addEdge(Math.min(u, v), random.nextInt(20) == 0 ? Math.min(u, v) / 2 : Math.max(u, v), random.nextInt(50));
+            }
+            CsrGraph g = builder.build();
+            SccResult sccs = new TarjanAlgorithm().findComponents(g, new PerformanceTracker());
+
+            for (CondensationBuilder.WeightPolicy policy : CondensationBuilder.WeightPolicy.values()) {
+                CsrGraph sequential = build(g, sccs, policy, null);
+                CsrGraph parallel = build(g, sccs, policy, pool);
+                assertArrayEquals(sequential.offsets(), parallel.offsets());
+                assertArrayEquals(sequential.targets(), parallel.targets());
+                assertArrayEquals(sequential.weights(), parallel.weights());
+            }
+            assertEquals(referenceEdgeCount(g, sccs), build(g, sccs, CondensationBuilder.WeightPolicy.FIRST, null).getNumEdges());
+        }
+    }
+
+    private static CsrGraph build(CsrGraph g, SccResult sccs, CondensationBuilder.WeightPolicy policy, ForkJoinPool pool) {
+        return new CondensationBuilder().weightPolicy(policy).parallel(pool).build(g, sccs, new PerformanceTracker());
+    }
+
+    private static int weight(CsrGraph g, int u, int v) {
+        for (int e = g.firstEdge(u); e < g.endEdge(u); e++) {
+            if (g.target(e) == v) {
+                return g.weight(e);
+            }
+        }
+        throw new AssertionError("No edge " + u + "->" + v);
+    }
+
+    private static int referenceEdgeCount(CsrGraph g, SccResult sccs) {
+        Map<String, Boolean> seen = new HashMap<>();
+        int[] componentOf = sccs.getComponentOf();
+        for (int u = 0; u < g.getNumVertices(); u++) {
+            for (int e = g.firstEdge(u); e < g.endEdge(u); e++) {
+                int cu = componentOf[u];
+                int cv = componentOf[g.target(e)];
+                if (cu != cv) {
+                    seen.put(cu + "->" + cv, true);
+                }
+            }
+        }
+        return seen.size();
+    }
+}
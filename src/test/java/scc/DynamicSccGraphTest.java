@@ -0,0 +1,112 @@
+package scc;
+
+import graph.CsrGraph;
+import graph.DirectedGraph;
+import metrics.PerformanceTracker;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DynamicSccGraphTest {
+
+    @Test
+    void testInsertionMergesAndDeletionSplits() {
+        DynamicSccGraph g = new DynamicSccGraph(4);
+        g.addEdge(0, 1, 1, new PerformanceTracker());
+        g.addEdge(1, 2, 1, new PerformanceTracker());
+        g.addEdge(2, 3, 1, new PerformanceTracker());
+        assertEquals(4, g.getNumComponents());
+        assertEquals(3, g.getNumCondensationEdges());
+
+        PerformanceTracker tracker = new PerformanceTracker();
+        g.addEdge(3, 1, 1, tracker);
+        assertEquals(2, g.getNumComponents());
+        assertEquals(g.componentOf(1), g.componentOf(3));
+        assertEquals(1, g.getNumCondensationEdges());
+        assertEquals(2L, tracker.getOperations().get("components_merged"));
+
+        tracker = new PerformanceTracker();
+        g.removeEdge(2, 3, tracker);
+        assertEquals(4, g.getNumComponents());
+        assertEquals(3, g.getNumCondensationEdges());
+        assertEquals(2L, tracker.getOperations().get("components_split"));
+    }
+
+    @Test
+    void testDeletionWithAlternativePathKeepsComponent() {
+        DynamicSccGraph g = new DynamicSccGraph(3);
+        g.apply(new DynamicSccGraph.Batch()
+                .addEdge(0, 1, 1).addEdge(1, 2, 1).addEdge(2, 0, 1).addEdge(0, 2, 1).addEdge(2, 1, 1), new PerformanceTracker());
+        assertEquals(1, g.getNumComponents());
+
+        PerformanceTracker tracker = new PerformanceTracker();
+        g.removeEdge(0, 1, tracker);
+        assertEquals(1, g.getNumComponents());
+        assertEquals(0L, tracker.getOperations().get("components_split"));
+
+        g.removeEdge(0, 1, new PerformanceTracker());
+        assertEquals(1, g.getNumComponents(), "Removing a missing edge is a no-op");
+    }
+
+    @Test
+    void testSplitIntoMorePiecesThanTheOrderGap() {
+        // A cycle of more than 2^20 vertices, ordered before a sink; breaking it needs more
+        // positions than the gap in front of the sink.
+        int n = (1 << 20) + 8;
+        DirectedGraph initial = new DirectedGraph(n + 1);
+        for (int v = 0; v < n; v++) {
+            initial.addEdge(v, (v + 1) % n, 1);
+        }
+        initial.addEdge(n - 1, n, 1);
+        DynamicSccGraph g = new DynamicSccGraph(initial, new PerformanceTracker());
+        assertEquals(2, g.getNumComponents());
+
+        g.removeEdge(n - 1, 0, new PerformanceTracker());
+        assertEquals(n + 1, g.getNumComponents());
+        assertEquals(n, g.getNumCondensationEdges());
+
+        g.addEdge(n, 0, 1, new PerformanceTracker());
+        assertEquals(1, g.getNumComponents());
+    }
+
+    @Test
+    void testRandomBatchesMatchRecomputation() {
+        Random random = new Random(3);
+        int V = 300;
+        DirectedGraph initial = new DirectedGraph(V);
+        List<int[]> edges = new ArrayList<>();
+        for (int i = 0; i < V; i++) {
+            int u = random.nextInt(V);
+            int v = random.nextInt(V);
+            initial.addEdge(u, v, 1 + random.nextInt(9));
+            edges.add(new int[]{u, v});
+        }
+        DynamicSccGraph g = new DynamicSccGraph(initial, new PerformanceTracker());
+
+        for (int round = 0; round < 200; round++) {
+            DynamicSccGraph.Batch batch = new DynamicSccGraph.Batch();
+            for (int k = random.nextInt(4); k > 0 && !edges.isEmpty(); k--) {
+                int[] edge = edges.remove(random.nextInt(edges.size()));
+                batch.removeEdge(edge[0], edge[1]);
+            }
+            for (int k = random.nextInt(4); k > 0; k--) {
+                int u = random.nextInt(V);
+                int v = random.nextInt(V);
+                batch.addEdge(u, v, 1 + random.nextInt(9));
+                edges.add(new int[]{u, v});
+            }
+            g.apply(batch, new PerformanceTracker());
+
+            CsrGraph csr = g.getGraph().toCsr();
+            SccResult expected = new TarjanAlgorithm().findComponents(csr, new PerformanceTracker());
+            SccResult actual = g.snapshot();
+            assertTrue(expected.samePartitionAs(actual), "Partition differs on round " + round);
+            assertEquals(expected.getNumComponents(), g.getNumComponents());
+
+            CsrGraph condensation = new CondensationBuilder().build(csr, expected, new PerformanceTracker());
+            assertEquals(condensation.getNumEdges(), g.getNumCondensationEdges(), "Condensation differs on round " + round);
+        }
+    }
+}
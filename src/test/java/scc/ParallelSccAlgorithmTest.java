@@ -0,0 +1,52 @@
+package scc;
+
+import graph.CsrGraph;
+import metrics.PerformanceTracker;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelSccAlgorithmTest {
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @AfterAll
+    static void shutdownPool() {
+        POOL.shutdown();
+    }
+
+    @Test
+    void testMatchesKosarajuPartition() {
+        Random random = new Random(7);
+        ParallelSccAlgorithm parallel = new ParallelSccAlgorithm(POOL);
+        for (int round = 0; round < 20; round++) {
+            // Large enough to exercise the forward-backward split, not just the Tarjan fallback.
+            int V = 5000 + random.nextInt(20000);
+            CsrGraph.Builder builder = new CsrGraph.Builder(V);
+            for (int i = 0; i < V * 2; i++) {
+                builder.addEdge(random.nextInt(V), random.nextInt(V), 1);
+            }
+            CsrGraph g = builder.build();
+
+            SccResult expected = new KosarajuAlgorithm().findComponents(g, new PerformanceTracker());
+            SccResult actual = parallel.findComponents(g, new PerformanceTracker());
+            assertTrue(expected.samePartitionAs(actual), "Partition differs on round " + round);
+        }
+    }
+
+    @Test
+    void testSmallGraphFromKosarajuTest() {
+        CsrGraph g = new CsrGraph.Builder(5)
+                .addEdge(1, 0, 1)
+                .addEdge(0, 2, 1)
+                .addEdge(2, 1, 1)
+                .addEdge(0, 3, 1)
+                .addEdge(3, 4, 1)
+                .build();
+
+        SccResult result = new ParallelSccAlgorithm(POOL).findComponents(g, new PerformanceTracker());
+        assertEquals(3, result.getNumComponents());
+        assertArrayEquals(new int[]{0, 0, 0, 1, 2}, result.getComponentOf());
+    }
+}
@@ -0,0 +1,60 @@
+package scc;
+
+import graph.CsrGraph;
+import metrics.PerformanceTracker;
+import org.junit.jupiter.api.Test;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SccAlgorithmsTest {
+
+    private static final SccAlgorithm[] ENGINES = {
+            new KosarajuAlgorithm(), new TarjanAlgorithm(), new PathBasedSccAlgorithm()
+    };
+
+    @Test
+    void testEnginesAgreeOnRandomGraphs() {
+        Random random = new Random(42);
+        for (int round = 0; round < 50; round++) {
+            int V = 1 + random.nextInt(60);
+            int E = random.nextInt(V * 3);
+            CsrGraph.Builder builder = new CsrGraph.Builder(V);
+            for (int i = 0; i < E; i++) {
+                builder.addEdge(random.nextInt(V), random.nextInt(V), 1);
+            }
+            CsrGraph g = builder.build();
+
+            SccResult expected = ENGINES[0].findComponents(g, new PerformanceTracker());
+            for (SccAlgorithm engine : ENGINES) {
+                SccResult actual = engine.findComponents(g, new PerformanceTracker());
+                assertEquals(expected.getNumComponents(), actual.getNumComponents());
+                assertSamePartition(expected.getComponentOf(), actual.getComponentOf());
+            }
+        }
+    }
+
+    @Test
+    void testDeepChainDoesNotOverflowStack() {
+        int V = 200_000;
+        CsrGraph.Builder builder = new CsrGraph.Builder(V, V);
+        for (int i = 0; i + 1 < V; i++) {
+            builder.addEdge(i, i + 1, 1);
+        }
+        builder.addEdge(V - 1, 0, 1);
+        CsrGraph cycle = builder.build();
+
+        for (SccAlgorithm engine : ENGINES) {
+            assertEquals(1, engine.findComponents(cycle, new PerformanceTracker()).getNumComponents());
+        }
+    }
+
+    static void assertSamePartition(int[] expected, int[] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int u = 0; u < expected.length; u++) {
+            for (int v = u + 1; v < expected.length; v++) {
+                assertEquals(expected[u] == expected[v], actual[u] == actual[v],
+                        "Vertices " + u + " and " + v + " disagree on component membership");
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package service;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import scc.KosarajuAlgorithm;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalysisServerTest {
+    private static final String SMALL_DAG = "{ \"vertices\": 6, \"edges\": [ [0,1,5], [0,2,3], [1,3,6], [1,2,2], "
+            + "[2,4,4], [2,5,2], [3,4,7], [3,5,1] ]}";
+
+    private AnalysisServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new AnalysisServer(0, new KosarajuAlgorithm());
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    void testLoadAndQuery() throws IOException {
+        JsonObject loaded = request("POST", "/graphs/small", SMALL_DAG, 201);
+        assertEquals(6, loaded.get("vertices").getAsInt());
+        assertEquals(6, loaded.get("components").getAsInt());
+        assertEquals(18, loaded.get("criticalPathLength").getAsLong());
+
+        JsonObject critical = request("GET", "/graphs/small/critical-path", null, 200);
+        assertEquals(18, critical.get("length").getAsLong());
+        assertTrue(critical.get("nanos").getAsLong() >= 0);
+
+        JsonObject topo = request("GET", "/graphs/small/topo", null, 200);
+        assertTrue(topo.get("acyclic").getAsBoolean());
+        assertEquals(6, topo.getAsJsonArray("order").size());
+
+        JsonObject shortest = request("GET", "/graphs/small/shortest?source=0&target=4", null, 200);
+        int target = shortest.get("targetComponent").getAsInt();
+        assertEquals(server.getRegistry().get("small").componentOf(4), target);
+        assertEquals(7, shortest.get("distance").getAsLong());
+
+        JsonObject all = request("GET", "/graphs/small/shortest?source=4", null, 200);
+        assertTrue(all.getAsJsonArray("distances").contains(com.google.gson.JsonNull.INSTANCE));
+
+        assertTrue(request("GET", "/graphs/small/reaches?source=0&target=4", null, 200).get("reaches").getAsBoolean());
+        assertFalse(request("GET", "/graphs/small/reaches?source=4&target=0", null, 200).get("reaches").getAsBoolean());
+
+        assertEquals(1, server.getPhaseMetrics().phase("scc").getLatency().getCount());
+        assertEquals(2, server.getPhaseMetrics().phase("request/GET /graphs/{id}/reaches").getLatency().getCount());
+
+        assertEquals(1, request("GET", "/graphs", null, 200).getAsJsonArray("graphs").size());
+        request("DELETE", "/graphs/small", null, 200);
+        request("GET", "/graphs/small/scc", null, 404);
+    }
+
+    @Test
+    void testBadRequests() throws IOException {
+        request("GET", "/graphs/missing", null, 404);
+        request("POST", "/graphs/broken", "{ \"edges\": [] }", 422);
+        request("POST", "/graphs/small", SMALL_DAG, 201);
+        request("GET", "/graphs/small/shortest", null, 400);
+        request("GET", "/graphs/small/shortest?source=99", null, 400);
+        request("GET", "/graphs/small/unknown", null, 404);
+
+        request("PUT", "/graphs/small/scc", null, 405);
+        request("OPTIONS", "/graphs/small", null, 405);
+        assertEquals(2, server.getPhaseMetrics().phase("request/method_not_allowed").getLatency().getCount());
+        for (String phase : server.getPhaseMetrics().phaseNames()) {
+            assertFalse(phase.contains("PUT") || phase.contains("OPTIONS"), phase);
+        }
+    }
+
+    @Test
+    void testFileParameterIsIgnored() throws IOException {
+        // Only the body is loaded; a cross-site POST must not be able to make the server open local files.
+        JsonObject loaded = request("POST", "/graphs/small?file=../data/large_dag_1.json", SMALL_DAG, 201);
+        assertEquals(6, loaded.get("vertices").getAsInt());
+        request("POST", "/graphs/escape?file=../../../../etc/passwd", "{ \"edges\": [] }", 422);
+        assertNull(server.getRegistry().get("escape"));
+    }
+
+    private JsonObject request(String method, String path, String body, int expectedStatus) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + server.getPort() + path).openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        assertEquals(expectedStatus, connection.getResponseCode(), method + " " + path);
+        InputStream in = connection.getResponseCode() < 400 ? connection.getInputStream() : connection.getErrorStream();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        for (int n; (n = in.read(buffer)) != -1; ) {
+            bytes.write(buffer, 0, n);
+        }
+        in.close();
+        return new JsonParser().parse(new String(bytes.toByteArray(), StandardCharsets.UTF_8)).getAsJsonObject();
+    }
+}
@@ -1,10 +1,13 @@
 package topo;
+import graph.CsrGraph;
 import graph.DirectedGraph;
 import metrics.PerformanceTracker;
 import org.junit.jupiter.api.Test;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import static org.junit.jupiter.api.Assertions.*;
 
 class KahnsAlgorithmTest {
@@ -51,4 +54,73 @@ class KahnsAlgorithmTest {
         List<Integer> topOrder = kahns.topologicalSort(cyclicGraph, new PerformanceTracker());
         assertNull(topOrder, "Topological sort should be null for a graph with a cycle");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testLevelsOnDAG() {
+        CsrGraph dag = new CsrGraph.Builder(6)
+                .addEdge(5, 2, 1)
+                .addEdge(5, 0, 1)
+                .addEdge(4, 0, 1)
+                .addEdge(4, 1, 1)
+                .addEdge(2, 3, 1)
+                .addEdge(3, 1, 1)
+                .build();
+        TopologicalLevels levels = new KahnsAlgorithm().sortByLevels(dag, new PerformanceTracker());
+
+        assertTrue(levels.isAcyclic());
+        assertEquals(4, levels.getDepth());
+        assertEquals(2, levels.getMaxWidth());
+        assertEquals(2, levels.getSourceCount());
+        assertArrayEquals(new int[]{4, 5}, levels.getLevel(0));
+        assertArrayEquals(new int[]{0, 2}, levels.getLevel(1));
+        assertArrayEquals(new int[]{3}, levels.getLevel(2));
+        assertArrayEquals(new int[]{1}, levels.getLevel(3));
+        assertArrayEquals(new int[]{1, 3, 1, 2, 0, 0}, levels.levels());
+    }
+
+    @Test
+    void testParallelLevelsMatchSequential() {
+        Random random = new Random(11);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        KahnsAlgorithm kahns = new KahnsAlgorithm();
+        for (int round = 0; round < 10; round++) {
+            // Edges only go from lower to higher ids, and wide enough to split frontiers.
+            int V = 20000 + random.nextInt(20000);
+            CsrGraph.Builder builder = new CsrGraph.Builder(V);
+            for (int i = 0; i < V * 3; i++) {
+                int u = random.nextInt(V - 1);
+                builder.addEdge(u, u + 1 + random.nextInt(Math.min(V - u - 1, 5000)), 1);
+            }
+            CsrGraph dag = builder.build();
+
+            TopologicalLevels expected = kahns.sortByLevels(dag, new PerformanceTracker());
+            TopologicalLevels actual = kahns.sortByLevels(dag, pool, new PerformanceTracker());
+            assertTrue(actual.isAcyclic());
+            assertArrayEquals(expected.getOrder(), actual.getOrder(), "Order differs on round " + round);
+            assertArrayEquals(expected.levels(), actual.levels());
+
+            int[] level = actual.levels();
+            for (int u = 0; u < V; u++) {
+                for (int e = dag.firstEdge(u); e < dag.endEdge(u); e++) {
+                    assertTrue(level[u] < level[dag.target(e)]);
+                }
+            }
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    void testLevelsStopAtCycle() {
+        CsrGraph graph = new CsrGraph.Builder(4)
+                .addEdge(0, 1, 1)
+                .addEdge(1, 2, 1)
+                .addEdge(2, 1, 1)
+                .addEdge(2, 3, 1)
+                .build();
+        TopologicalLevels levels = new KahnsAlgorithm().sortByLevels(graph, new PerformanceTracker());
+
+        assertFalse(levels.isAcyclic());
+        assertEquals(1, levels.getDepth());
+        assertArrayEquals(new int[]{0, -1, -1, -1}, levels.levels());
+    }
+}
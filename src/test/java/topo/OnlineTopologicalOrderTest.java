@@ -0,0 +1,78 @@
+package topo;
+
+import graph.CsrGraph;
+import metrics.PerformanceTracker;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OnlineTopologicalOrderTest {
+
+    @Test
+    void testReordersAffectedRegion() {
+        OnlineTopologicalOrder order = new OnlineTopologicalOrder(4);
+        assertTrue(order.tryAddEdge(0, 1, new PerformanceTracker()));
+        assertTrue(order.tryAddEdge(3, 2, new PerformanceTracker()));
+        assertTrue(order.tryAddEdge(2, 0, new PerformanceTracker()));
+
+        assertTrue(order.precedes(3, 2));
+        assertTrue(order.precedes(2, 0));
+        assertTrue(order.precedes(0, 1));
+        assertNull(order.getRejectedCycle());
+    }
+
+    @Test
+    void testRejectsCycleAndReportsPath() {
+        CsrGraph dag = new CsrGraph.Builder(4)
+                .addEdge(0, 1, 1)
+                .addEdge(1, 2, 1)
+                .addEdge(2, 3, 1)
+                .build();
+        OnlineTopologicalOrder order = new OnlineTopologicalOrder(dag, new PerformanceTracker());
+
+        PerformanceTracker tracker = new PerformanceTracker();
+        assertFalse(order.tryAddEdge(3, 1, tracker));
+        assertArrayEquals(new int[]{1, 2, 3}, order.getRejectedCycle());
+        assertEquals(1L, tracker.getOperations().get("cycles_rejected"));
+        assertArrayEquals(new int[]{0, 1, 2, 3}, order.getOrder(), "A rejected edge leaves the order alone");
+
+        assertTrue(order.removeEdge(1, 2));
+        assertTrue(order.tryAddEdge(3, 1, new PerformanceTracker()));
+        assertTrue(order.precedes(3, 1));
+        assertFalse(order.tryAddEdge(1, 1, new PerformanceTracker()));
+    }
+
+    @Test
+    void testCyclicInitialGraphIsRejected() {
+        CsrGraph graph = new CsrGraph.Builder(2).addEdge(0, 1, 1).addEdge(1, 0, 1).build();
+        assertThrows(IllegalArgumentException.class, () -> new OnlineTopologicalOrder(graph, new PerformanceTracker()));
+    }
+
+    @Test
+    void testRandomInsertionsKeepOrderValid() {
+        Random random = new Random(5);
+        int V = 500;
+        OnlineTopologicalOrder order = new OnlineTopologicalOrder(V);
+        List<int[]> accepted = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            int u = random.nextInt(V);
+            int v = random.nextInt(V);
+            if (order.tryAddEdge(u, v, new PerformanceTracker())) {
+                accepted.add(new int[]{u, v});
+            } else {
+                int[] cycle = order.getRejectedCycle();
+                assertEquals(v, cycle[0]);
+                assertEquals(u, cycle[cycle.length - 1]);
+            }
+        }
+
+        CsrGraph.Builder builder = new CsrGraph.Builder(V);
+        for (int[] edge : accepted) {
+            assertTrue(order.precedes(edge[0], edge[1]), edge[0] + " -> " + edge[1] + " out of order");
+            builder.addEdge(edge[0], edge[1], 1);
+        }
+        assertTrue(new KahnsAlgorithm().sort(builder.build(), new PerformanceTracker()).isAcyclic());
+    }
+}
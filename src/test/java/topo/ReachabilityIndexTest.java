@@ -0,0 +1,106 @@
+package topo;
+
+import graph.CsrGraph;
+import metrics.PerformanceTracker;
+import org.junit.jupiter.api.Test;
+import scc.CondensationBuilder;
+import scc.SccResult;
+import scc.TarjanAlgorithm;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReachabilityIndexTest {
+
+    private static ReachabilityIndex index(CsrGraph graph, long maxClosureBytes) {
+        SccResult sccs = new TarjanAlgorithm().findComponents(graph, PerformanceTracker.disabled());
+        CsrGraph condensation = new CondensationBuilder().build(graph, sccs, PerformanceTracker.disabled());
+        TopologicalOrder order = new KahnsAlgorithm().sort(condensation, PerformanceTracker.disabled());
+        return ReachabilityIndex.build(sccs, condensation, order, maxClosureBytes, new PerformanceTracker());
+    }
+
+    private static boolean[] reachableFrom(CsrGraph graph, int source) {
+        boolean[] seen = new boolean[graph.getNumVertices()];
+        int[] stack = new int[graph.getNumVertices()];
+        int top = 0;
+        stack[top++] = source;
+        seen[source] = true;
+        while (top > 0) {
+            int u = stack[--top];
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                int w = graph.target(e);
+                if (!seen[w]) {
+                    seen[w] = true;
+                    stack[top++] = w;
+                }
+            }
+        }
+        return seen;
+    }
+
+    @Test
+    void testCyclesAndDirection() {
+        CsrGraph graph = new CsrGraph.Builder(6)
+                .addEdge(0, 1, 1)
+                .addEdge(1, 0, 1)
+                .addEdge(1, 2, 1)
+                .addEdge(2, 3, 1)
+                .addEdge(4, 3, 1)
+                .build();
+        ReachabilityIndex index = index(graph, ReachabilityIndex.DEFAULT_MAX_CLOSURE_BYTES);
+        assertTrue(index.hasClosure());
+        assertTrue(index.reaches(1, 0));
+        assertTrue(index.reaches(0, 3));
+        assertFalse(index.reaches(3, 0));
+        assertFalse(index.reaches(4, 2));
+        assertFalse(index.reaches(5, 3));
+        assertTrue(index.reaches(5, 5));
+    }
+
+    @Test
+    void testClosureAndSearchAgreeWithTraversal() {
+        Random random = new Random(11);
+        int V = 300;
+        CsrGraph.Builder builder = new CsrGraph.Builder(V);
+        for (int i = 0; i < 450; i++) {
+            int u = random.nextInt(V);
+            int v = random.nextInt(V);
+            // Mostly forward edges so the condensation keeps long chains across word boundaries.
+            if (u > v && random.nextInt(10) != 0) {
+                int t = u;
+                u = v;
+                v = t;
+            }
+            builder.addEdge(u, v, 1);
+        }
+        CsrGraph graph = builder.build();
+        ReachabilityIndex withClosure = index(graph, ReachabilityIndex.DEFAULT_MAX_CLOSURE_BYTES);
+        ReachabilityIndex withoutClosure = index(graph, 0);
+        assertTrue(withClosure.hasClosure());
+        assertFalse(withoutClosure.hasClosure());
+        assertTrue(withClosure.memoryBytes() > withoutClosure.memoryBytes());
+
+        for (int u = 0; u < V; u++) {
+            boolean[] expected = reachableFrom(graph, u);
+            for (int v = 0; v < V; v++) {
+                assertEquals(expected[v], withClosure.reaches(u, v), u + " -> " + v);
+                assertEquals(expected[v], withoutClosure.reaches(u, v), u + " -> " + v);
+            }
+        }
+    }
+
+    @Test
+    void testClosureWordCount() {
+        assertEquals(0, ReachabilityIndex.closureWords(0));
+        assertEquals(63, ReachabilityIndex.closureWords(64));
+        assertEquals(2 * 63 + 2, ReachabilityIndex.closureWords(65));
+    }
+
+    @Test
+    void testCyclicOrderIsRejected() {
+        CsrGraph graph = new CsrGraph.Builder(2).addEdge(0, 1, 1).addEdge(1, 0, 1).build();
+        SccResult identity = new SccResult(new int[]{0, 1}, 2);
+        TopologicalOrder order = new KahnsAlgorithm().sort(graph, PerformanceTracker.disabled());
+        assertThrows(IllegalArgumentException.class,
+                () -> ReachabilityIndex.build(identity, graph, order, new PerformanceTracker()));
+    }
+}